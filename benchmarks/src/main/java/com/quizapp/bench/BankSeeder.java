@@ -0,0 +1,86 @@
+package com.quizapp.bench;
+
+import com.quizapp.AppConfig;
+import com.quizapp.db.Repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Seeds the configured database with a synthetic question bank for benchmarking.
+ * Generated rows are marked with a "Bench question" prefix and can be reseeded to any size.
+ */
+final class BankSeeder {
+
+    static final String BENCH_USER = "bench_user";
+    static final String BENCH_PASS = "bench_pass";
+    private static final String PREFIX = "Bench question ";
+
+    private BankSeeder() {
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                AppConfig.get("db.url", "jdbc:postgresql://localhost:5432/quiz_db"),
+                AppConfig.get("db.user", "postgres"),
+                AppConfig.get("db.pass", "password"));
+    }
+
+    /**
+     * Makes sure exactly {@code bankSize} generated questions (4 options each) exist,
+     * plus a non-admin benchmark user.
+     */
+    static void seed(int bankSize) throws SQLException {
+        Repository.migrate();
+        try (Connection c = connect()) {
+            int existing;
+            try (PreparedStatement p = c.prepareStatement("SELECT COUNT(*) FROM questions WHERE question_text LIKE ?")) {
+                p.setString(1, PREFIX + "%");
+                try (ResultSet r = p.executeQuery()) {
+                    r.next();
+                    existing = r.getInt(1);
+                }
+            }
+            if (existing != bankSize) {
+                System.out.println("Seeding " + bankSize + " benchmark questions (found " + existing + ")...");
+                c.setAutoCommit(false);
+                try (PreparedStatement p = c.prepareStatement("DELETE FROM questions WHERE question_text LIKE ?")) {
+                    p.setString(1, PREFIX + "%");
+                    p.executeUpdate();
+                }
+                try (PreparedStatement p = c.prepareStatement(
+                        "WITH cats AS (SELECT array_agg(id ORDER BY id) AS ids FROM categories) " +
+                        "INSERT INTO questions (question_text, category_id, difficulty) " +
+                        "SELECT ? || g, cats.ids[1 + g % array_length(cats.ids, 1)], (ARRAY['easy','medium','hard'])[1 + g % 3] " +
+                        "FROM generate_series(1, ?) g, cats")) {
+                    p.setString(1, PREFIX);
+                    p.setInt(2, bankSize);
+                    p.executeUpdate();
+                }
+                try (PreparedStatement p = c.prepareStatement(
+                        "INSERT INTO options (question_id, option_text, is_correct) " +
+                        "SELECT q.id, 'Option ' || o || ' for question ' || q.id, o = 1 " +
+                        "FROM questions q CROSS JOIN generate_series(1, 4) o " +
+                        "WHERE q.question_text LIKE ? ORDER BY q.id, o")) {
+                    p.setString(1, PREFIX + "%");
+                    p.executeUpdate();
+                }
+                c.commit();
+                c.setAutoCommit(true);
+                try (Statement s = c.createStatement()) {
+                    s.execute("ANALYZE questions");
+                    s.execute("ANALYZE options");
+                }
+            }
+        }
+
+        if (Repository.authenticate(BENCH_USER, BENCH_PASS) == null) {
+            Repository.createUser(BENCH_USER, BENCH_PASS, false);
+        }
+        Repository.invalidateQuestionCache();
+    }
+}
@@ -0,0 +1,351 @@
+package com.quizapp.bench;
+
+import com.quizapp.AppConfig;
+import com.quizapp.auth.LoginThrottledException;
+import com.quizapp.db.Repository;
+import com.quizapp.db.RepositoryMetrics;
+import com.quizapp.metrics.LatencyHistogram;
+import com.quizapp.metrics.OperationStats;
+import com.quizapp.model.Question;
+import com.quizapp.model.User;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless load test: simulated players arrive at a fixed average rate and each one logs in,
+ * draws a quiz, answers it with think time between questions and saves the score, all through
+ * the real {@link Repository} against the configured storage engine (storage.engine).
+ *
+ * <p>Arrivals are an open model (Poisson, independent of how fast the database responds), so an
+ * overloaded database shows up as growing latency and in-flight sessions rather than a quietly
+ * lower request rate. A player only holds a worker thread while a repository call runs; think
+ * time is a timer, so thousands of concurrent players need only {@code --workers} threads.
+ * Latencies are measured from when a step was due, so queueing in the worker pool and the
+ * connection pool is included (no coordinated omission).</p>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.quizapp.bench.LoadSimulator \
+ *      --rate 50 --duration 120 --think-ms 3000 --users 200 --out sim-results
+ * </pre>
+ */
+public class LoadSimulator {
+
+    private static final String USER_PREFIX = "sim_user_";
+    private static final String USER_PASS = "sim_pass";
+    private static final String[] STEPS = {"login", "quiz", "score", "session"};
+
+    // --- Settings ---
+
+    private double ratePerSecond = 20;
+    private long durationSeconds = 60;
+    private long thinkMs = 2000;
+    private int quizLength = AppConfig.getInt("quiz.length", 10);
+    private int users = 100;
+    private int workers = 256;
+    private int maxSessions = 10_000;
+    private double correctRate = 0.7;
+    private boolean queuedScores = false;
+    private int bankSize = 0;
+    private Path outDir;
+
+    // --- State ---
+
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private ScheduledExecutorService timer;
+    private ExecutorService pool;
+
+    private LoadSimulator() {
+        for (String step : STEPS) {
+            latencies.put(step, new LatencyHistogram());
+            errors.put(step, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Login throttling protects production from floods; here the flood is the point
+        if (System.getProperty("auth.globalPerSecond") == null) System.setProperty("auth.globalPerSecond", "0");
+
+        LoadSimulator sim = new LoadSimulator();
+        try {
+            sim.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+        }
+        sim.run();
+        System.exit(0);
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: LoadSimulator [--rate players/s] [--duration s] [--think-ms ms] [--questions n]\n" +
+                "                     [--users n] [--workers n] [--max-sessions n] [--correct 0..1]\n" +
+                "                     [--queued-scores] [--bank-size n] [--out dir]");
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--queued-scores")) {
+                queuedScores = true;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            try {
+                switch (arg) {
+                    case "--rate": ratePerSecond = Double.parseDouble(value); break;
+                    case "--duration": durationSeconds = Long.parseLong(value); break;
+                    case "--think-ms": thinkMs = Long.parseLong(value); break;
+                    case "--questions": quizLength = Integer.parseInt(value); break;
+                    case "--users": users = Integer.parseInt(value); break;
+                    case "--workers": workers = Integer.parseInt(value); break;
+                    case "--max-sessions": maxSessions = Integer.parseInt(value); break;
+                    case "--correct": correctRate = Double.parseDouble(value); break;
+                    case "--bank-size": bankSize = Integer.parseInt(value); break;
+                    case "--out": outDir = Paths.get(value); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number for " + arg + ": " + value);
+            }
+        }
+        if (ratePerSecond <= 0 || durationSeconds <= 0 || users <= 0 || workers <= 0 || quizLength <= 0) {
+            throw new IllegalArgumentException("rate, duration, questions, users and workers must be positive");
+        }
+        if (bankSize > 0 && !AppConfig.get("storage.engine", "jdbc").trim().equalsIgnoreCase("jdbc")) {
+            throw new IllegalArgumentException("--bank-size seeds PostgreSQL; seed other engines with storage.memory.seedFile");
+        }
+    }
+
+    // --- Run ---
+
+    private void run() throws Exception {
+        setUp();
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sim-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger workerIds = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "sim-player-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleAtFixedRate(this::printProgress, 5, 5, TimeUnit.SECONDS);
+
+        System.out.printf("Simulating %.1f players/s for %ds, %d questions with %dms think time, %d accounts, %d workers%n",
+                ratePerSecond, durationSeconds, quizLength, thinkMs, users, workers);
+        long startNanos = System.nanoTime();
+        long end = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long next = startNanos;
+        while (true) {
+            next += (long) (exponential(1.0 / ratePerSecond) * 1e9);
+            if (next >= end) break;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) TimeUnit.NANOSECONDS.sleep(sleep);
+            if (inFlight.get() >= maxSessions) {
+                rejected.incrementAndGet();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            started.incrementAndGet();
+            new Session(next).login();
+        }
+
+        System.out.println("Arrivals finished, waiting for " + inFlight.get() + " sessions in flight...");
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60 + thinkMs * quizLength * 3 / 1000);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(200);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (queuedScores && !Repository.awaitScoresWritten(30_000)) {
+            System.err.println("Warning: queued scores were still being written when the report was taken.");
+        }
+        report(elapsedNanos / 1e9);
+    }
+
+    /**
+     * Migrates (and optionally seeds) the database and creates the simulated accounts that don't exist yet.
+     * Accounts are created through the repository, so this works with any storage.engine; an account
+     * that already exists is rejected as a duplicate username and kept.
+     */
+    private void setUp() throws SQLException, InterruptedException {
+        if (bankSize > 0) {
+            BankSeeder.seed(bankSize);
+        } else {
+            Repository.migrate();
+        }
+
+        int created = 0;
+        for (int i = 0; i < users; i++) {
+            if (createUser(USER_PREFIX + i)) created++;
+        }
+        if (created > 0) System.out.println("Created " + created + " simulated player accounts.");
+    }
+
+    /**
+     * Creates one simulated account. Returns false if it already exists.
+     */
+    private static boolean createUser(String username) throws SQLException, InterruptedException {
+        while (true) {
+            try {
+                Repository.createUser(username, USER_PASS, false);
+                return true;
+            } catch (LoginThrottledException e) {
+                Thread.sleep(100); // Over auth.globalPerSecond with a low auth.bcryptCost
+            } catch (SQLException e) {
+                if ("23505".equals(e.getSQLState())) return false;
+                throw e;
+            }
+        }
+    }
+
+    private static double exponential(double mean) {
+        return -mean * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * One simulated player. Each step runs on the worker pool and schedules the next on the timer.
+     */
+    private final class Session {
+        private final long arrivalNanos;
+        private User user;
+        private List<Question> quiz;
+        private int answered;
+        private int score;
+
+        Session(long arrivalNanos) {
+            this.arrivalNanos = arrivalNanos;
+        }
+
+        void login() {
+            runStep("login", arrivalNanos, () -> {
+                String name = USER_PREFIX + ThreadLocalRandom.current().nextInt(users);
+                user = Repository.authenticate(name, USER_PASS);
+                if (user == null) throw new SQLException("Login rejected for " + name);
+            }, this::drawQuiz);
+        }
+
+        void drawQuiz() {
+            runStep("quiz", System.nanoTime(), () -> {
+                quiz = Repository.getRandomQuiz(null, null, quizLength);
+                if (quiz.isEmpty()) throw new SQLException("Quiz came back empty");
+            }, this::answerNext);
+        }
+
+        /**
+         * Thinks, then answers one question; saves the score after the last one.
+         */
+        void answerNext() {
+            if (answered == quiz.size()) {
+                saveScore(System.nanoTime());
+                return;
+            }
+            long think = thinkMs <= 0 ? 0 : (long) exponential(thinkMs);
+            timer.schedule(() -> {
+                answered++;
+                if (ThreadLocalRandom.current().nextDouble() < correctRate) score++;
+                answerNext();
+            }, think, TimeUnit.MILLISECONDS);
+        }
+
+        void saveScore(long due) {
+            runStep("score", due, () -> {
+                if (queuedScores) Repository.submitScore(user.getId(), score, quiz.size(), null, null);
+                else Repository.saveScore(user.getId(), score, quiz.size(), null, null);
+            }, () -> {
+                latencies.get("session").recordSince(arrivalNanos);
+                inFlight.decrementAndGet();
+            });
+        }
+
+        private void runStep(String step, long dueNanos, SimStep body, Runnable next) {
+            pool.execute(() -> {
+                try {
+                    body.run();
+                    latencies.get(step).recordSince(dueNanos);
+                } catch (Exception e) {
+                    latencies.get(step).recordSince(dueNanos);
+                    errors.get(step).incrementAndGet();
+                    errors.get("session").incrementAndGet();
+                    inFlight.decrementAndGet();
+                    return;
+                }
+                next.run();
+            });
+        }
+    }
+
+    private interface SimStep {
+        void run() throws Exception;
+    }
+
+    // --- Reporting ---
+
+    private long lastCompleted = 0;
+
+    private void printProgress() {
+        long completed = latencies.get("session").getCount();
+        System.out.printf("  started=%d completed=%d (%.1f/s) in-flight=%d errors=%d rejected=%d%n",
+                started.get(), completed, (completed - lastCompleted) / 5.0, inFlight.get(),
+                errors.get("session").get(), rejected.get());
+        lastCompleted = completed;
+    }
+
+    private void report(double elapsedSeconds) throws IOException {
+        System.out.println();
+        System.out.printf("Sessions: started=%d rejected=%d in %.1fs%n", started.get(), rejected.get(), elapsedSeconds);
+        System.out.printf("%-8s %9s %9s %9s %9s %9s %9s %8s%n", "step", "count", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        List<String> files = new ArrayList<>();
+        if (outDir != null) Files.createDirectories(outDir);
+        for (String step : STEPS) {
+            Histogram h = latencies.get(step).copy();
+            long count = h.getTotalCount();
+            long failed = errors.get(step).get();
+            // Failed steps are timed too; a session is only timed when it completes
+            long attempts = step.equals("session") ? started.get() : count;
+            System.out.printf("%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n", step, count, count / elapsedSeconds,
+                    h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(99) / 1e6,
+                    h.getValueAtPercentile(99.9) / 1e6, h.getMaxValue() / 1e6,
+                    attempts == 0 ? 0.0 : 100.0 * failed / attempts);
+            if (outDir != null) {
+                Path file = outDir.resolve(step + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                    h.outputPercentileDistribution(out, 1e6); // Milliseconds
+                }
+                files.add(file.toString());
+            }
+        }
+        for (OperationStats op : RepositoryMetrics.getOperations()) {
+            if (op.getCalls() > 0) System.out.println("Repository " + op);
+        }
+        if (Repository.getPoolStats() != null) System.out.println("Connection pool: " + Repository.getPoolStats());
+        if (queuedScores && Repository.getScoreWriterStats() != null) {
+            System.out.println("Score writer: " + Repository.getScoreWriterStats());
+        }
+        if (!files.isEmpty()) System.out.println("HDR percentile distributions written to " + String.join(", ", files));
+    }
+}
@@ -0,0 +1,57 @@
+package com.quizapp.bench;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory construction of the model objects the repository builds for every row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+    private int nextId = 0;
+    private final Question template = buildQuestion(1);
+
+    private static Question buildQuestion(int id) {
+        Question q = new Question(id, "Which keyword is used to define a constant in Java?");
+        q.setCategoryId(1);
+        q.setCategory("Java");
+        q.setDifficulty("easy");
+        q.addOption(new Option("const", false));
+        q.addOption(new Option("static", false));
+        q.addOption(new Option("final", true));
+        q.addOption(new Option("let", false));
+        return q;
+    }
+
+    @Benchmark
+    public Option option() {
+        return new Option("final", true);
+    }
+
+    @Benchmark
+    public Question questionWithOptions() {
+        return buildQuestion(nextId++);
+    }
+
+    @Benchmark
+    public Question snapshot() {
+        return template.snapshot();
+    }
+}
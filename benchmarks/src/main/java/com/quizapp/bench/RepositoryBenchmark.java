@@ -0,0 +1,115 @@
+package com.quizapp.bench;
+
+import com.quizapp.db.QuestionFilter;
+import com.quizapp.db.Repository;
+import com.quizapp.model.Question;
+import com.quizapp.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository hot paths against a live database seeded with {@code bankSize} questions.
+ * Run with e.g. {@code -p bankSize=10000,100000,1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    static {
+        // Runs in the forked JVM before Repository loads; with the login limit on, authenticate and
+        // the seeder's createUser would start failing with LoginThrottledException mid-run
+        if (System.getProperty("auth.globalPerSecond") == null) System.setProperty("auth.globalPerSecond", "0");
+    }
+
+    @Param({"10000"})
+    public int bankSize;
+
+    private User user;
+    private int maxId;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        BankSeeder.seed(bankSize);
+        user = Repository.authenticate(BankSeeder.BENCH_USER, BankSeeder.BENCH_PASS);
+        maxId = Repository.getQuestionIdAtOffset(QuestionFilter.NONE, Repository.countQuestions(QuestionFilter.NONE) - 1);
+    }
+
+    /**
+     * Player bank load including result mapping, with a cold cache on every call.
+     */
+    @Benchmark
+    public List<Question> questionsForPlayerCold(ColdCache cold) throws SQLException {
+        return Repository.getQuestionsForPlayer(null, null);
+    }
+
+    /**
+     * Player bank load served from the question cache.
+     */
+    @Benchmark
+    public List<Question> questionsForPlayerWarm() throws SQLException {
+        return Repository.getQuestionsForPlayer(null, null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Question> randomQuiz() throws SQLException {
+        return Repository.getRandomQuiz(null, null, 10);
+    }
+
+    @Benchmark
+    public User authenticate() throws SQLException {
+        return Repository.authenticate(BankSeeder.BENCH_USER, BankSeeder.BENCH_PASS);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void saveScore() throws SQLException {
+        Repository.saveScore(user.getId(), 7, 10, null, null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Question> adminPage() throws SQLException {
+        int afterId = ThreadLocalRandom.current().nextInt(Math.max(1, maxId));
+        return Repository.getQuestionsPage(QuestionFilter.NONE, afterId, 200);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Question> adminPageFiltered() throws SQLException {
+        return Repository.getQuestionsPage(new QuestionFilter(null, "hard", "question 1"), 0, 200);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int adminCount() throws SQLException {
+        return Repository.countQuestions(QuestionFilter.NONE);
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void clear() {
+            Repository.invalidateQuestionCache();
+        }
+    }
+}
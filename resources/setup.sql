@@ -1,4 +1,8 @@
 -- merged setup with users and admin user
+-- Indexes and later schema changes are applied by the app at startup (src/main/resources/db/migration)
+DROP TABLE IF EXISTS schema_version;
+DROP TABLE IF EXISTS score_spool;
+DROP TABLE IF EXISTS leaderboard;
 DROP TABLE IF EXISTS scores;
 DROP TABLE IF EXISTS options;
 DROP TABLE IF EXISTS questions;
@@ -0,0 +1,60 @@
+package com.quizapp;
+
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Application settings loaded from application.properties.
+ * Any key can be overridden at runtime with a system property of the same name (-Dkey=value).
+ */
+public final class AppConfig {
+
+    private static final Properties PROPS = new Properties();
+
+    static {
+        try (InputStream in = AppConfig.class.getResourceAsStream("/application.properties")) {
+            if (in == null) {
+                throw new RuntimeException("Cannot find application.properties on the classpath");
+            }
+            PROPS.load(in);
+        } catch (Exception e) {
+            System.err.println("Warning: Could not load application.properties. Using default fallback settings.");
+            e.printStackTrace();
+        }
+    }
+
+    private AppConfig() {
+    }
+
+    public static String get(String key, String defaultValue) {
+        return System.getProperty(key, PROPS.getProperty(key, defaultValue));
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Invalid integer for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        return Boolean.parseBoolean(value.trim());
+    }
+}
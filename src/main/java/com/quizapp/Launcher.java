@@ -1,6 +1,8 @@
 package com.quizapp;
 
 import com.formdev.flatlaf.FlatDarculaLaf;
+import com.quizapp.db.Repository;
+import com.quizapp.ui.EdtWatchdog;
 import javax.swing.*;
 
 public class Launcher {
@@ -13,6 +15,22 @@ public class Launcher {
             e.printStackTrace();
         }
 
+        // Bring the schema up to date before any screen queries it. The store migrates as it opens,
+        // before starting its background services, so this only retries if that failed.
+        if (AppConfig.getBoolean("db.migrate", true)) {
+            try {
+                Repository.migrate();
+            } catch (Exception e) {
+                System.err.println("Failed to apply database migrations: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        // Report EDT tasks that freeze the UI, before the first window opens
+        if (AppConfig.getBoolean("ui.watchdog.enabled", true)) {
+            EdtWatchdog.install();
+        }
+
         // Run the application on the Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             LoginFrame loginFrame = new LoginFrame();
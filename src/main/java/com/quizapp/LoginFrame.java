@@ -1,15 +1,16 @@
 package com.quizapp;
 
 import com.quizapp.admin.QuizAdminPanel;
-import com.quizapp.db.Repository;
-import com.quizapp.model.User;
+import com.quizapp.auth.LoginThrottledException;
+import com.quizapp.db.AsyncRepository;
+import com.quizapp.ui.LeaderboardFrame;
 import com.quizapp.ui.PlayerQuiz;
+import com.quizapp.ui.SwingFutures;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.sql.SQLException;
 
 public class LoginFrame extends JFrame {
 
@@ -20,7 +21,7 @@ public class LoginFrame extends JFrame {
 
     public LoginFrame() {
         setTitle("QuizApp - Login");
-        setSize(450, 350); // Increased size for better layout
+        setSize(500, 350); // Increased size for better layout
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setResizable(false);
@@ -73,9 +74,12 @@ public class LoginFrame extends JFrame {
         stylePrimaryButton(loginButton);
         signupButton = new JButton("Sign Up");
         styleSecondaryButton(signupButton);
+        JButton leaderboardButton = new JButton("Leaderboard");
+        styleSecondaryButton(leaderboardButton);
 
         buttonPanel.add(loginButton);
         buttonPanel.add(signupButton);
+        buttonPanel.add(leaderboardButton);
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
 
         // --- Action Listeners ---
@@ -88,6 +92,8 @@ public class LoginFrame extends JFrame {
             SignupDialog dialog = new SignupDialog(this);
             dialog.setVisible(true);
         });
+
+        leaderboardButton.addActionListener(e -> new LeaderboardFrame(null).setVisible(true));
     }
 
     private void stylePrimaryButton(JButton button) {
@@ -123,39 +129,30 @@ public class LoginFrame extends JFrame {
         // Disable UI during login attempt
         setUIEnabled(false);
 
-        // Run authentication in a background thread
-        new SwingWorker<User, Void>() {
-            @Override
-            protected User doInBackground() throws Exception {
-                return Repository.authenticate(username, password);
+        // Authentication runs on the dedicated credential executor; handle the result on the EDT
+        SwingFutures.onEdt(AsyncRepository.authenticate(username, password), user -> {
+            setUIEnabled(true);
+            if (user == null) {
+                showError("Invalid username or password.");
+                return;
             }
 
-            @Override
-            protected void done() {
-                try {
-                    User user = get();
-                    if (user == null) {
-                        showError("Invalid username or password.");
-                        return;
-                    }
-
-                    // Login successful
-                    if (user.isAdmin()) {
-                        new QuizAdminPanel().setVisible(true);
-                    } else {
-                        new PlayerQuiz(user).setVisible(true);
-                    }
-                    LoginFrame.this.dispose(); // Close login window
-
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showError("Database error: " + ex.getMessage());
-                } finally {
-                    // Re-enable UI regardless of outcome
-                    setUIEnabled(true);
-                }
+            // Login successful
+            if (user.isAdmin()) {
+                new QuizAdminPanel().setVisible(true);
+            } else {
+                new PlayerQuiz(user).setVisible(true);
+            }
+            LoginFrame.this.dispose(); // Close login window
+        }, error -> {
+            setUIEnabled(true);
+            if (error instanceof LoginThrottledException) {
+                showError(error.getMessage());
+            } else {
+                error.printStackTrace();
+                showError("Database error: " + SwingFutures.describe(error));
             }
-        }.execute();
+        });
     }
 
     private void setUIEnabled(boolean enabled) {
@@ -233,29 +230,19 @@ public class LoginFrame extends JFrame {
             }
 
             // Run signup in background
-            new SwingWorker<Void, Void>() {
-                @Override
-                protected Void doInBackground() throws Exception {
-                    Repository.createUser(username, password, false);
-                    return null;
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        get(); // Check for exceptions
-                        showInfo("User created successfully. You can now login.");
-                        dispose(); // Close signup dialog
-                    } catch (Exception ex) {
-                        if (ex.getMessage().contains("users_username_key")) {
-                            showError("Failed to create user: Username already exists.");
-                        } else {
-                            ex.printStackTrace();
-                            showError("Failed to create user: " + ex.getMessage());
-                        }
-                    }
+            SwingFutures.onEdt(AsyncRepository.createUser(username, password, false), done -> {
+                showInfo("User created successfully. You can now login.");
+                dispose(); // Close signup dialog
+            }, error -> {
+                if (error instanceof LoginThrottledException) {
+                    showError(error.getMessage());
+                } else if (String.valueOf(error.getMessage()).contains("users_username_key")) {
+                    showError("Failed to create user: Username already exists.");
+                } else {
+                    error.printStackTrace();
+                    showError("Failed to create user: " + SwingFutures.describe(error));
                 }
-            }.execute();
+            });
         }
         
         private void showError(String message) {
@@ -0,0 +1,163 @@
+package com.quizapp.admin;
+
+import com.quizapp.db.AsyncRepository;
+import com.quizapp.db.QuestionFilter;
+import com.quizapp.db.Repository;
+import com.quizapp.model.Question;
+import com.quizapp.ui.SwingFutures;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Lazy table model for the admin question list.
+ * Rows are fetched a page at a time as the table asks for them, and only the most
+ * recently used pages are kept in memory.
+ */
+public class QuestionTableModel extends AbstractTableModel {
+
+    static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 10;
+
+    private final String[] columnNames = {"ID", "Question Text", "Category", "Difficulty"};
+
+    private QuestionFilter filter = QuestionFilter.NONE;
+    private int rowCount = 0;
+    // Bumped on every reset so results of in-flight page loads for an old filter are dropped
+    private int generation = 0;
+
+    // Access-ordered so the least recently viewed page is evicted first
+    private final Map<Integer, List<Question>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Question>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Keyset anchors: page index -> last question id of the previous page
+    private final Map<Integer, Integer> anchors = new HashMap<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private final Set<Integer> failedPages = new HashSet<>();
+
+    private Consumer<Exception> errorHandler = Throwable::printStackTrace;
+
+    public void setErrorHandler(Consumer<Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Drops all loaded rows and starts over with a new filter and total row count.
+     */
+    public void reset(QuestionFilter filter, int rowCount) {
+        this.filter = filter;
+        this.rowCount = rowCount;
+        generation++;
+        pages.clear();
+        anchors.clear();
+        pendingPages.clear();
+        failedPages.clear();
+        anchors.put(0, 0);
+        fireTableDataChanged();
+    }
+
+    public QuestionFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the question at a row, or null if its page has not been loaded yet.
+     */
+    public Question getQuestionAt(int rowIndex) {
+        int page = rowIndex / PAGE_SIZE;
+        List<Question> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = rowIndex % PAGE_SIZE;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    private void requestPage(int page) {
+        if (pendingPages.contains(page) || failedPages.contains(page)) return;
+        pendingPages.add(page);
+
+        final int gen = generation;
+        final QuestionFilter pageFilter = filter;
+        final Integer knownAnchor = anchors.get(page);
+
+        CompletableFuture<List<Question>> load = AsyncRepository.read(() -> {
+            Integer afterId = knownAnchor;
+            if (afterId == null) {
+                // Jumped past pages we have not seen; look up the anchor by position
+                afterId = Repository.getQuestionIdAtOffset(pageFilter, page * PAGE_SIZE - 1);
+                if (afterId == null) return List.of();
+            }
+            return Repository.getQuestionsPage(pageFilter, afterId, PAGE_SIZE);
+        });
+        SwingFutures.onEdt(load, rows -> {
+            if (gen != generation) return; // Filter changed while loading
+            pendingPages.remove(page);
+            pages.put(page, rows);
+            if (!rows.isEmpty()) {
+                anchors.put(page + 1, rows.get(rows.size() - 1).getId());
+            }
+            int first = page * PAGE_SIZE;
+            int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        }, error -> {
+            if (gen != generation) return;
+            pendingPages.remove(page);
+            failedPages.add(page);
+            errorHandler.accept(error instanceof Exception ? (Exception) error : new Exception(error));
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int col) {
+        return columnNames[col];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Question q = getQuestionAt(rowIndex);
+        if (q == null) {
+            return columnIndex == 1 ? "Loading..." : null;
+        }
+        switch (columnIndex) {
+            case 0: return q.getId();
+            case 1: return q.getText();
+            case 2: return q.getCategory() == null ? "N/A" : q.getCategory();
+            case 3: return q.getDifficulty() == null ? "N/A" : q.getDifficulty();
+            default: return null;
+        }
+    }
+
+    @Override
+    public Class<?> getColumnClass(int c) {
+        return (c == 0) ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+}
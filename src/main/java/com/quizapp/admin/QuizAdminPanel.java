@@ -2,14 +2,22 @@ package com.quizapp.admin;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.AbstractTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import com.quizapp.admin.editor.QuestionEditor;
-import com.quizapp.db.Repository;
+import com.quizapp.db.AsyncRepository;
+import com.quizapp.db.QuestionFilter;
+import com.quizapp.io.ImportFormat;
+import com.quizapp.io.ImportListener;
+import com.quizapp.io.ImportResult;
 import com.quizapp.model.Question;
-import java.util.ArrayList;
+import com.quizapp.ui.SwingFutures;
+import com.quizapp.ui.UiTelemetry;
 
 /**
  * Main Admin Panel for managing questions.
@@ -21,6 +29,15 @@ public class QuizAdminPanel extends JFrame {
     private final JTable table;
     private final JLabel statusBarLabel;
 
+    // Filter controls
+    private final JTextField searchField;
+    private final JComboBox<String> categoryFilter;
+    private final JComboBox<String> difficultyFilter;
+
+    private static final String ALL_CATEGORIES = "All categories";
+    private static final String ALL_DIFFICULTIES = "All difficulties";
+    private static final String SCREEN = "QuizAdminPanel";
+
     public QuizAdminPanel() {
         setTitle("Quiz Admin Panel - Question Manager");
         setSize(1200, 800);
@@ -36,7 +53,30 @@ public class QuizAdminPanel extends JFrame {
         JLabel headerLabel = new JLabel("Question Manager", SwingConstants.LEFT);
         headerLabel.setFont(new Font("Arial", Font.BOLD, 28));
         headerLabel.setBorder(new EmptyBorder(0, 0, 10, 0));
-        mainPanel.add(headerLabel, BorderLayout.NORTH);
+
+        // --- Filter Bar (below header) ---
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        searchField = new JTextField(30);
+        searchField.setFont(new Font("Arial", Font.PLAIN, 16));
+        categoryFilter = new JComboBox<>(new String[]{ALL_CATEGORIES});
+        categoryFilter.setFont(new Font("Arial", Font.PLAIN, 16));
+        difficultyFilter = new JComboBox<>(new String[]{ALL_DIFFICULTIES, "easy", "medium", "hard"});
+        difficultyFilter.setFont(new Font("Arial", Font.PLAIN, 16));
+        JButton filterButton = new JButton("Apply Filter");
+        styleButton(filterButton, new Color(60, 139, 219)); // Blue
+
+        JLabel searchLabel = new JLabel("Search:");
+        searchLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        filterPanel.add(searchLabel);
+        filterPanel.add(searchField);
+        filterPanel.add(categoryFilter);
+        filterPanel.add(difficultyFilter);
+        filterPanel.add(filterButton);
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(headerLabel, BorderLayout.NORTH);
+        northPanel.add(filterPanel, BorderLayout.SOUTH);
+        mainPanel.add(northPanel, BorderLayout.NORTH);
 
         // --- Table (Center) ---
         tableModel = new QuestionTableModel();
@@ -66,6 +106,10 @@ public class QuizAdminPanel extends JFrame {
         JButton deleteButton = new JButton("Delete Selected");
         styleButton(deleteButton, new Color(220, 53, 69)); // Red
 
+        JButton importButton = new JButton("Import...");
+        styleButton(importButton, new Color(60, 139, 219)); // Blue
+
+        actionButtonPanel.add(importButton);
         actionButtonPanel.add(addButton);
         actionButtonPanel.add(editButton);
         actionButtonPanel.add(deleteButton);
@@ -84,13 +128,27 @@ public class QuizAdminPanel extends JFrame {
             }
             // Convert view row to model row in case of sorting
             int modelRow = table.convertRowIndexToModel(selectedRow); 
-            int questionId = (int) tableModel.getValueAt(modelRow, 0);
-            openEditor(questionId);
+            Question q = tableModel.getQuestionAt(modelRow);
+            if (q == null) {
+                showError("The selected row is still loading. Please try again.");
+                return;
+            }
+            openEditor(q.getId());
         });
 
+        filterButton.addActionListener(e -> loadQuestions());
+        searchField.addActionListener(e -> loadQuestions());
+
         deleteButton.addActionListener(e -> deleteSelectedQuestion());
+        importButton.addActionListener(e -> importQuestionFile());
         
+        tableModel.setErrorHandler(e -> {
+            e.printStackTrace();
+            statusBarLabel.setText("Error loading questions: " + e.getMessage());
+        });
+
         // --- Load Data ---
+        loadCategoryFilter();
         loadQuestions();
     }
 
@@ -125,33 +183,54 @@ public class QuizAdminPanel extends JFrame {
     }
 
     /**
-     * Loads questions from the repository using a background thread.
+     * Fills the category filter drop-down in a background thread.
+     */
+    private void loadCategoryFilter() {
+        SwingFutures.onEdt(AsyncRepository.getAllCategoryNames(), categories -> {
+            Object selected = categoryFilter.getSelectedItem();
+            categoryFilter.removeAllItems();
+            categoryFilter.addItem(ALL_CATEGORIES);
+            for (String cat : categories) {
+                categoryFilter.addItem(cat);
+            }
+            categoryFilter.setSelectedItem(selected);
+        }, error -> {
+            error.printStackTrace();
+            statusBarLabel.setText("Error loading categories.");
+        });
+    }
+
+    private QuestionFilter currentFilter() {
+        String category = (String) categoryFilter.getSelectedItem();
+        String difficulty = (String) difficultyFilter.getSelectedItem();
+        return new QuestionFilter(
+                ALL_CATEGORIES.equals(category) ? null : category,
+                ALL_DIFFICULTIES.equals(difficulty) ? null : difficulty,
+                searchField.getText());
+    }
+
+    /**
+     * Counts the matching questions in a background thread and resets the table.
+     * The rows themselves are fetched page by page by the table model as they are displayed.
      */
     private void loadQuestions() {
         statusBarLabel.setText("Loading questions from database...");
         table.setEnabled(false);
+        QuestionFilter filter = currentFilter();
+        UiTelemetry.Timing timing = UiTelemetry.begin(SCREEN, "loadQuestions");
 
-        new SwingWorker<List<Question>, Void>() {
-            @Override
-            protected List<Question> doInBackground() throws Exception {
-                return Repository.getAllQuestionsWithMeta();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<Question> questions = get();
-                    tableModel.setQuestions(questions);
-                    statusBarLabel.setText(questions.size() + " questions loaded successfully.");
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Failed to load questions: " + e.getMessage());
-                    statusBarLabel.setText("Error loading questions.");
-                } finally {
-                    table.setEnabled(true);
-                }
-            }
-        }.execute();
+        SwingFutures.onEdt(AsyncRepository.countQuestions(filter), count -> {
+            table.setEnabled(true);
+            tableModel.reset(filter, count);
+            statusBarLabel.setText(count + (filter.isEmpty() ? " questions." : " matching questions."));
+            timing.completed();
+        }, error -> {
+            table.setEnabled(true);
+            timing.failed();
+            error.printStackTrace();
+            showError("Failed to load questions: " + SwingFutures.describe(error));
+            statusBarLabel.setText("Error loading questions.");
+        });
     }
 
     /**
@@ -178,8 +257,13 @@ public class QuizAdminPanel extends JFrame {
         }
         
         int modelRow = table.convertRowIndexToModel(selectedRow);
-        int questionId = (int) tableModel.getValueAt(modelRow, 0);
-        String questionText = (String) tableModel.getValueAt(modelRow, 1);
+        Question q = tableModel.getQuestionAt(modelRow);
+        if (q == null) {
+            showError("The selected row is still loading. Please try again.");
+            return;
+        }
+        int questionId = q.getId();
+        String questionText = q.getText();
 
         int choice = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to delete this question?\n\nID: " + questionId + "\nQuestion: " + questionText,
@@ -191,82 +275,105 @@ public class QuizAdminPanel extends JFrame {
             // Run deletion in background
             statusBarLabel.setText("Deleting question " + questionId + "...");
             table.setEnabled(false);
+            UiTelemetry.Timing timing = UiTelemetry.begin(SCREEN, "deleteQuestion");
 
-            new SwingWorker<Void, Void>() {
-                @Override
-                protected Void doInBackground() throws Exception {
-                    Repository.deleteQuestion(questionId);
-                    return null;
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        get(); // Check for exceptions
-                        statusBarLabel.setText("Question " + questionId + " deleted.");
-                        loadQuestions(); // Refresh the table
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        showError("Failed to delete question: " + e.getMessage());
-                        statusBarLabel.setText("Error deleting question.");
-                    } finally {
-                        table.setEnabled(true);
-                    }
-                }
-            }.execute();
+            SwingFutures.onEdt(AsyncRepository.deleteQuestion(questionId), done -> {
+                table.setEnabled(true);
+                statusBarLabel.setText("Question " + questionId + " deleted.");
+                timing.completed();
+                loadQuestions(); // Refresh the table
+            }, error -> {
+                table.setEnabled(true);
+                timing.failed();
+                error.printStackTrace();
+                showError("Failed to delete question: " + SwingFutures.describe(error));
+                statusBarLabel.setText("Error deleting question.");
+            });
         }
     }
     
-    private void showError(String message) {
-        JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
-    }
-    
-    // --- Custom Table Model ---
-    
-    static class QuestionTableModel extends AbstractTableModel {
-        private final String[] columnNames = {"ID", "Question Text", "Category", "Difficulty"};
-        private List<Question> questions = new ArrayList<>();
+    /**
+     * Lets the admin pick a CSV or NDJSON file and bulk-imports it in a background thread,
+     * with a cancellable progress dialog.
+     */
+    private void importQuestionFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Questions");
+        chooser.setFileFilter(new FileNameExtensionFilter("Question files (*.csv, *.ndjson, *.jsonl, *.gz)",
+                "csv", "ndjson", "jsonl", "json", "gz"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
 
-        public void setQuestions(List<Question> questions) {
-            this.questions = questions;
-            fireTableDataChanged();
+        Path file = chooser.getSelectedFile().toPath();
+        ImportFormat format;
+        try {
+            format = ImportFormat.fromFileName(file);
+        } catch (IllegalArgumentException e) {
+            showError(e.getMessage());
+            return;
         }
 
-        @Override
-        public int getRowCount() {
-            return questions.size();
-        }
+        ProgressMonitor monitor = new ProgressMonitor(this, "Importing " + file.getFileName(), "Starting...", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        statusBarLabel.setText("Importing " + file.getFileName() + "...");
 
-        @Override
-        public int getColumnCount() {
-            return columnNames.length;
-        }
-        
-        @Override
-        public String getColumnName(int col) {
-            return columnNames[col];
-        }
+        // Progress arrives on the import thread; the monitor is updated on the EDT
+        AtomicReference<CompletableFuture<ImportResult>> importRef = new AtomicReference<>();
+        ImportListener listener = new ImportListener() {
+            @Override
+            public void progress(long records, long bytesRead, long totalBytes) {
+                int percent = totalBytes > 0 ? (int) Math.min(99, bytesRead * 100 / totalBytes) : 0;
+                showProgress(percent, records + " records read");
+            }
 
-        @Override
-        public Object getValueAt(int rowIndex, int columnIndex) {
-            Question q = questions.get(rowIndex);
-            switch (columnIndex) {
-                case 0: return q.getId();
-                case 1: return q.getText();
-                case 2: return q.getCategory() == null ? "N/A" : q.getCategory();
-                case 3: return q.getDifficulty() == null ? "N/A" : q.getDifficulty();
-                default: return null;
+            @Override
+            public void merging() {
+                showProgress(99, "Saving questions...");
             }
-        }
-        
-        @Override
-        public Class<?> getColumnClass(int c) {
-            return (c == 0) ? Integer.class : String.class;
-        }
-        
-        @Override
-        public boolean isCellEditable(int rowIndex, int columnIndex) {
-            return false;
-        }
+
+            private void showProgress(int percent, String note) {
+                SwingUtilities.invokeLater(() -> {
+                    if (monitor.isCanceled()) {
+                        CompletableFuture<ImportResult> running = importRef.get();
+                        if (running != null) running.cancel(true);
+                        return;
+                    }
+                    monitor.setProgress(percent);
+                    monitor.setNote(note);
+                });
+            }
+        };
+        CompletableFuture<ImportResult> running = AsyncRepository.importQuestions(file, format, listener);
+        importRef.set(running);
+
+        running.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            monitor.close();
+            if (error instanceof CancellationException) {
+                statusBarLabel.setText("Import cancelled.");
+                return;
+            }
+            if (error != null) {
+                error.printStackTrace();
+                showError("Import failed, nothing was imported: " + SwingFutures.describe(error));
+                statusBarLabel.setText("Import failed.");
+                return;
+            }
+            StringBuilder message = new StringBuilder(result.toString()).append('.');
+            if (!result.getErrors().isEmpty()) {
+                message.append("\n\nSkipped records:");
+                for (String e : result.getErrors().subList(0, Math.min(10, result.getErrors().size()))) {
+                    message.append("\n").append(e);
+                }
+                if (result.getRecordsSkipped() > 10) message.append("\n...");
+            }
+            JOptionPane.showMessageDialog(QuizAdminPanel.this, message.toString(), "Import Finished",
+                    JOptionPane.INFORMATION_MESSAGE);
+            statusBarLabel.setText("Import finished.");
+            loadCategoryFilter();
+            loadQuestions();
+        }));
+    }
+
+    private void showError(String message) {
+        JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
     }
 }
@@ -5,16 +5,25 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
-import com.quizapp.db.Repository;
+import java.util.concurrent.CompletableFuture;
+import com.quizapp.db.AsyncRepository;
+import com.quizapp.db.StaleQuestionException;
 import com.quizapp.model.Option;
 import com.quizapp.model.Question;
-import java.sql.SQLException;
+import com.quizapp.ui.SwingFutures;
+import com.quizapp.ui.UiTelemetry;
 
 public class QuestionEditor extends JDialog {
 
+    private static final String SCREEN = "QuestionEditor";
+
     private final int questionId;
     private boolean isLoading = true;
 
+    // What was loaded, so saving can send only the differences and detect concurrent edits
+    private int loadedVersion;
+    private final int[] optionIds = new int[4];
+
     // UI Components
     private final JTextArea questionTextArea;
     private final JComboBox<String> categoryComboBox;
@@ -117,65 +126,54 @@ public class QuestionEditor extends JDialog {
      */
     public void loadDataAsync() {
         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        UiTelemetry.Timing timing = UiTelemetry.begin(SCREEN, "open");
 
-        new SwingWorker<EditorData, Void>() {
-            @Override
-            protected EditorData doInBackground() throws Exception {
-                // Always fetch categories
-                List<String> categories = Repository.getAllCategoryNames();
-                
-                // If editing, fetch question details
-                if (questionId != -1) {
-                    Question q = Repository.getQuestionById(questionId);
-                    List<Option> options = Repository.getOptionsForQuestion(questionId);
-                    return new EditorData(categories, q, options);
-                }
-                
-                return new EditorData(categories, null, null);
-            }
+        // Categories and (if editing) the question with its options, in one round trip
+        SwingFutures.onEdt(SwingFutures.cancelOnClose(this, AsyncRepository.getEditorData(questionId)), data -> {
+            setCursor(Cursor.getDefaultCursor());
 
-            @Override
-            protected void done() {
-                try {
-                    EditorData data = get();
-                    
-                    // Populate categories
-                    categoryComboBox.removeAllItems();
-                    if (data.categories != null) {
-                        for (String cat : data.categories) {
-                            categoryComboBox.addItem(cat);
-                        }
-                    }
+            // Populate categories
+            categoryComboBox.removeAllItems();
+            for (String cat : data.getCategories()) {
+                categoryComboBox.addItem(cat);
+            }
 
-                    // If editing, populate form fields
-                    if (data.question != null && data.options != null) {
-                        questionTextArea.setText(data.question.getText());
-                        difficultyComboBox.setSelectedItem(data.question.getDifficulty());
-                        categoryComboBox.setSelectedItem(data.question.getCategory());
-                        
-                        for (int i = 0; i < data.options.size() && i < 4; i++) {
-                            Option opt = data.options.get(i);
-                            optionFields[i].setText(opt.getText());
-                            if (opt.isCorrect()) {
-                                radioButtons[i].setSelected(true);
-                            }
-                        }
+            // If editing, populate form fields
+            Question question = data.getQuestion();
+            if (question != null) {
+                loadedVersion = question.getVersion();
+                questionTextArea.setText(question.getText());
+                difficultyComboBox.setSelectedItem(question.getDifficulty());
+                categoryComboBox.setSelectedItem(question.getCategory());
+
+                List<Option> options = question.getOptions();
+                for (int i = 0; i < options.size() && i < 4; i++) {
+                    Option opt = options.get(i);
+                    optionIds[i] = opt.getId();
+                    optionFields[i].setText(opt.getText());
+                    if (opt.isCorrect()) {
+                        radioButtons[i].setSelected(true);
                     }
-                    
-                    isLoading = false;
-                    saveButton.setEnabled(true);
-                    saveButton.setText("Save");
-
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Failed to load question data: " + e.getMessage());
-                    // Close dialog if loading fails fatally
-                    dispose();
-                } finally {
-                    setCursor(Cursor.getDefaultCursor());
                 }
+            } else if (questionId != -1) {
+                timing.failed();
+                showError("Failed to load question data: Question " + questionId + " no longer exists.");
+                dispose();
+                return;
             }
-        }.execute();
+
+            isLoading = false;
+            saveButton.setEnabled(true);
+            saveButton.setText("Save");
+            timing.completed();
+        }, error -> {
+            setCursor(Cursor.getDefaultCursor());
+            timing.failed();
+            error.printStackTrace();
+            showError("Failed to load question data: " + SwingFutures.describe(error));
+            // Close dialog if loading fails fatally
+            dispose();
+        });
     }
 
     /**
@@ -198,7 +196,7 @@ public class QuestionEditor extends JDialog {
                 showError("All four option fields are required.");
                 return;
             }
-            options.add(new Option(optionText, radioButtons[i].isSelected()));
+            options.add(new Option(optionIds[i], optionText, radioButtons[i].isSelected()));
         }
 
         String category = (String) categoryComboBox.getSelectedItem();
@@ -213,33 +211,28 @@ public class QuestionEditor extends JDialog {
         saveButton.setEnabled(false);
         saveButton.setText("Saving...");
         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-
-        new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                if (questionId == -1) {
-                    Repository.addQuestion(questionText, options, category, difficulty);
-                } else {
-                    Repository.updateQuestion(questionId, questionText, options, category, difficulty);
-                }
-                return null;
+        UiTelemetry.Timing timing = UiTelemetry.begin(SCREEN, "save");
+
+        // Not cancelled on close: once sent, the save should finish
+        CompletableFuture<?> save = questionId == -1
+                ? AsyncRepository.addQuestion(questionText, options, category, difficulty)
+                : AsyncRepository.updateQuestion(questionId, loadedVersion, questionText, options, category, difficulty);
+        SwingFutures.onEdt(save, done -> {
+            timing.completed();
+            showInfo("Question saved successfully!");
+            dispose(); // Close dialog on success
+        }, error -> {
+            timing.failed();
+            if (error instanceof StaleQuestionException) {
+                showError(error.getMessage());
+            } else {
+                error.printStackTrace();
+                showError("Failed to save question: " + SwingFutures.describe(error));
             }
-
-            @Override
-            protected void done() {
-                try {
-                    get(); // Check for exceptions
-                    showInfo("Question saved successfully!");
-                    dispose(); // Close dialog on success
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showError("Failed to save question: " + ex.getMessage());
-                    saveButton.setEnabled(true);
-                    saveButton.setText("Save");
-                    setCursor(Cursor.getDefaultCursor());
-                }
-            }
-        }.execute();
+            saveButton.setEnabled(true);
+            saveButton.setText("Save");
+            setCursor(Cursor.getDefaultCursor());
+        });
     }
 
     private void showError(String message) {
@@ -249,19 +242,4 @@ public class QuestionEditor extends JDialog {
     private void showInfo(String message) {
         JOptionPane.showMessageDialog(this, message, "Success", JOptionPane.INFORMATION_MESSAGE);
     }
-
-    /**
-     * Helper class to hold data fetched in the background worker.
-     */
-    private static class EditorData {
-        final List<String> categories;
-        final Question question;
-        final List<Option> options;
-
-        EditorData(List<String> categories, Question question, List<Option> options) {
-            this.categories = categories;
-            this.question = question;
-            this.options = options;
-        }
-    }
 }
@@ -0,0 +1,214 @@
+package com.quizapp.auth;
+
+import com.quizapp.AppConfig;
+import com.quizapp.metrics.LatencyHistogram;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, bounded executor so login storms
+ * cannot starve other background work, and applies global and per-username rate limits.
+ */
+public class CredentialService {
+
+    private final ThreadPoolExecutor executor;
+    private final int cost;
+
+    // Global token bucket
+    private final double permitsPerSecond;
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    // Per-username failure tracking
+    private final int maxFailures;
+    private final long failureWindowMs;
+    private final long lockoutMs;
+    private final ConcurrentHashMap<String, Failures> failures = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram hashLatency = new LatencyHistogram();
+    private final LatencyHistogram verifyLatency = new LatencyHistogram();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong rehashed = new AtomicLong();
+
+    private static final class Failures {
+        int count;
+        long windowStart;
+        long lockedUntil;
+    }
+
+    public CredentialService(int threads, int queueCapacity, int cost, double globalPerSecond,
+                             int maxFailures, long failureWindowMs, long lockoutMs) {
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(r, "quizapp-credentials-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.cost = cost;
+        this.permitsPerSecond = globalPerSecond;
+        this.tokens = globalPerSecond;
+        this.maxFailures = maxFailures;
+        this.failureWindowMs = failureWindowMs;
+        this.lockoutMs = lockoutMs;
+    }
+
+    /**
+     * Creates a service configured by the auth.* properties.
+     */
+    public static CredentialService fromConfig() {
+        return new CredentialService(
+                AppConfig.getInt("auth.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                AppConfig.getInt("auth.queueCapacity", 64),
+                AppConfig.getInt("auth.bcryptCost", 10),
+                AppConfig.getInt("auth.globalPerSecond", 50),
+                AppConfig.getInt("auth.maxFailures", 5),
+                AppConfig.getLong("auth.failureWindowMs", 300_000),
+                AppConfig.getLong("auth.lockoutMs", 60_000));
+    }
+
+    /**
+     * Runs a credential task on the dedicated executor.
+     * The future fails with {@link LoginThrottledException} if the executor queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(new LoginThrottledException("The server is busy. Please try again in a moment."));
+        }
+        return future;
+    }
+
+    /**
+     * Checks the global and per-username limits before an attempt is made.
+     */
+    public void checkThrottle(String username) throws LoginThrottledException {
+        Failures f = failures.get(key(username));
+        if (f != null) {
+            synchronized (f) {
+                long remaining = f.lockedUntil - System.currentTimeMillis();
+                if (remaining > 0) {
+                    throttled.incrementAndGet();
+                    throw new LoginThrottledException("Too many failed attempts. Try again in "
+                            + ((remaining + 999) / 1000) + " seconds.");
+                }
+            }
+        }
+        if (!tryAcquireGlobal()) {
+            throttled.incrementAndGet();
+            throw new LoginThrottledException("Too many login attempts right now. Please try again shortly.");
+        }
+    }
+
+    /**
+     * Records the outcome of an attempt for the per-username lockout.
+     */
+    public void recordResult(String username, boolean success) {
+        String key = key(username);
+        if (success) {
+            failures.remove(key);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (failures.size() > 10_000) {
+            // Keep memory bounded under username spraying
+            failures.values().removeIf(f -> now - f.windowStart > failureWindowMs && now > f.lockedUntil);
+        }
+        Failures f = failures.computeIfAbsent(key, k -> new Failures());
+        synchronized (f) {
+            if (now - f.windowStart > failureWindowMs) {
+                f.windowStart = now;
+                f.count = 0;
+            }
+            if (++f.count >= maxFailures) {
+                f.lockedUntil = now + lockoutMs;
+                f.count = 0;
+            }
+        }
+    }
+
+    /** Must be called on the credential executor. */
+    public String hashpw(String password) {
+        long start = System.nanoTime();
+        try {
+            return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+        } finally {
+            hashLatency.recordSince(start);
+        }
+    }
+
+    /** Must be called on the credential executor. */
+    public boolean checkpw(String password, String hash) {
+        long start = System.nanoTime();
+        try {
+            return BCrypt.checkpw(password, hash);
+        } catch (IllegalArgumentException e) {
+            return false; // Malformed hash
+        } finally {
+            verifyLatency.recordSince(start);
+        }
+    }
+
+    /**
+     * True if the hash was made with a different cost factor than the configured one.
+     */
+    public boolean needsRehash(String hash) {
+        try {
+            // Format: $2a$10$...
+            return Integer.parseInt(hash.substring(4, 6)) != cost;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    public void recordRehash() {
+        rehashed.incrementAndGet();
+    }
+
+    public CredentialStats getStats() {
+        return new CredentialStats(hashLatency.snapshot(), verifyLatency.snapshot(), executor.getActiveCount(),
+                executor.getQueue().size(), rejected.get(), throttled.get(), rehashed.get());
+    }
+
+    public LatencyHistogram getHashLatency() {
+        return hashLatency;
+    }
+
+    public LatencyHistogram getVerifyLatency() {
+        return verifyLatency;
+    }
+
+    private synchronized boolean tryAcquireGlobal() {
+        if (permitsPerSecond <= 0) return true;
+        long now = System.nanoTime();
+        tokens = Math.min(permitsPerSecond, tokens + (now - lastRefillNanos) / 1e9 * permitsPerSecond);
+        lastRefillNanos = now;
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.toLowerCase();
+    }
+}
@@ -0,0 +1,71 @@
+package com.quizapp.auth;
+
+import com.quizapp.metrics.LatencySnapshot;
+
+/**
+ * Point-in-time snapshot of credential service metrics.
+ */
+public class CredentialStats {
+    private final LatencySnapshot hashLatency;
+    private final LatencySnapshot verifyLatency;
+    private final int activeThreads;
+    private final int queueDepth;
+    private final long rejected;
+    private final long throttled;
+    private final long rehashed;
+
+    public CredentialStats(LatencySnapshot hashLatency, LatencySnapshot verifyLatency, int activeThreads,
+                           int queueDepth, long rejected, long throttled, long rehashed) {
+        this.hashLatency = hashLatency;
+        this.verifyLatency = verifyLatency;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.rejected = rejected;
+        this.throttled = throttled;
+        this.rehashed = rehashed;
+    }
+
+    public LatencySnapshot getHashLatency() {
+        return hashLatency;
+    }
+
+    public LatencySnapshot getVerifyLatency() {
+        return verifyLatency;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Requests refused because the executor queue was full.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Requests refused by the global or per-username rate limits.
+     */
+    public long getThrottled() {
+        return throttled;
+    }
+
+    /**
+     * Password hashes upgraded to the configured cost on login.
+     */
+    public long getRehashed() {
+        return rehashed;
+    }
+
+    @Override
+    public String toString() {
+        return "CredentialStats[hash={" + hashLatency + "}, verify={" + verifyLatency + "}, active=" + activeThreads
+                + ", queued=" + queueDepth + ", rejected=" + rejected + ", throttled=" + throttled
+                + ", rehashed=" + rehashed + "]";
+    }
+}
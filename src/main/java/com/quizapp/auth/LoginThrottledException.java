@@ -0,0 +1,13 @@
+package com.quizapp.auth;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown when a login or signup is refused by rate limiting or because the
+ * credential executor is saturated. The message is safe to show to the user.
+ */
+public class LoginThrottledException extends SQLException {
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
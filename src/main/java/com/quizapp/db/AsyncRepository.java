@@ -0,0 +1,150 @@
+package com.quizapp.db;
+
+import com.quizapp.AppConfig;
+import com.quizapp.io.ImportFormat;
+import com.quizapp.io.ImportListener;
+import com.quizapp.io.ImportResult;
+import com.quizapp.model.EditorData;
+import com.quizapp.model.LeaderboardEntry;
+import com.quizapp.model.LeaderboardPeriod;
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+import com.quizapp.model.ScoreAttempt;
+import com.quizapp.model.User;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking versions of the {@link Repository} calls the screens make. Each call runs on the
+ * bulkhead for its kind of work and returns a future; cancel it (e.g. when a window closes) to
+ * stop waiting. Reads, writes and bulk transfers have separate thread and queue limits and
+ * timeouts (async.{read,write,bulk}.*), so a slow import or a burst of score saves cannot
+ * delay quiz loading, and no call competes for the shared SwingWorker threads.
+ */
+public final class AsyncRepository {
+
+    private static final Bulkhead READ = new Bulkhead("read",
+            AppConfig.getInt("async.read.threads", 8),
+            AppConfig.getInt("async.read.queue", 200),
+            AppConfig.getLong("async.read.timeoutMs", 15_000));
+    private static final Bulkhead WRITE = new Bulkhead("write",
+            AppConfig.getInt("async.write.threads", 4),
+            AppConfig.getInt("async.write.queue", 200),
+            AppConfig.getLong("async.write.timeoutMs", 15_000));
+    private static final Bulkhead BULK = new Bulkhead("bulk",
+            AppConfig.getInt("async.bulk.threads", 1),
+            AppConfig.getInt("async.bulk.queue", 2),
+            AppConfig.getLong("async.bulk.timeoutMs", 0));
+
+    private AsyncRepository() {
+    }
+
+    /**
+     * Runs any read-only repository work (e.g. several reads one screen needs together) on the read bulkhead.
+     */
+    public static <T> CompletableFuture<T> read(Callable<T> call) {
+        return READ.submit(call);
+    }
+
+    /**
+     * Runs repository work that changes data on the write bulkhead.
+     */
+    public static <T> CompletableFuture<T> write(Callable<T> call) {
+        return WRITE.submit(call);
+    }
+
+    /**
+     * Runs long bulk transfers (imports, restores) on their own bulkhead, without a timeout.
+     */
+    public static <T> CompletableFuture<T> bulk(Callable<T> call) {
+        return BULK.submit(call);
+    }
+
+    public static List<Bulkhead> getBulkheads() {
+        return List.of(READ, WRITE, BULK);
+    }
+
+    // --- Users ---
+
+    /**
+     * Verifies a login; see {@link Repository#authenticateAsync}. BCrypt runs on the credential executor.
+     */
+    public static CompletableFuture<User> authenticate(String username, String password) {
+        return Repository.authenticateAsync(username, password);
+    }
+
+    public static CompletableFuture<Void> createUser(String username, String password, boolean isAdmin) {
+        return write(() -> {
+            Repository.createUser(username, password, isAdmin);
+            return null;
+        });
+    }
+
+    // --- Player ---
+
+    public static CompletableFuture<List<Question>> getRandomQuiz(Integer categoryId, String difficulty, int n) {
+        return read(() -> Repository.getRandomQuiz(categoryId, difficulty, n));
+    }
+
+    public static CompletableFuture<Void> submitScore(int userId, int score, int total, Integer categoryId, String difficulty) {
+        return write(() -> {
+            Repository.submitScore(userId, score, total, categoryId, difficulty);
+            return null;
+        });
+    }
+
+    public static CompletableFuture<List<LeaderboardEntry>> getLeaderboard(LeaderboardPeriod period, String categoryName,
+                                                                           String difficulty, int limit) {
+        return read(() -> Repository.getLeaderboard(period, categoryName, difficulty, limit));
+    }
+
+    public static CompletableFuture<LeaderboardEntry> getUserRank(int userId, LeaderboardPeriod period,
+                                                                  String categoryName, String difficulty) {
+        return read(() -> Repository.getUserRank(userId, period, categoryName, difficulty));
+    }
+
+    public static CompletableFuture<List<ScoreAttempt>> getUserHistory(int userId, ScoreAttempt after, int limit) {
+        return read(() -> Repository.getUserHistory(userId, after, limit));
+    }
+
+    // --- Admin ---
+
+    public static CompletableFuture<List<String>> getAllCategoryNames() {
+        return read(Repository::getAllCategoryNames);
+    }
+
+    public static CompletableFuture<Integer> countQuestions(QuestionFilter filter) {
+        return read(() -> Repository.countQuestions(filter));
+    }
+
+    public static CompletableFuture<EditorData> getEditorData(int questionId) {
+        return read(() -> Repository.getEditorData(questionId));
+    }
+
+    public static CompletableFuture<Void> addQuestion(String questionText, List<Option> options,
+                                                      String categoryName, String difficulty) {
+        return write(() -> {
+            Repository.addQuestion(questionText, options, categoryName, difficulty);
+            return null;
+        });
+    }
+
+    public static CompletableFuture<Integer> updateQuestion(int questionId, int expectedVersion, String questionText,
+                                                            List<Option> options, String categoryName, String difficulty) {
+        return write(() -> Repository.updateQuestion(questionId, expectedVersion, questionText, options, categoryName, difficulty));
+    }
+
+    public static CompletableFuture<Void> deleteQuestion(int questionId) {
+        return write(() -> {
+            Repository.deleteQuestion(questionId);
+            return null;
+        });
+    }
+
+    public static CompletableFuture<ImportResult> importQuestions(Path file, ImportFormat format, ImportListener listener) {
+        return bulk(() -> Repository.importQuestions(file, format, listener));
+    }
+}
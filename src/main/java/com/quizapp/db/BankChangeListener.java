@@ -0,0 +1,181 @@
+package com.quizapp.db;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Publishes and consumes question bank change events over PostgreSQL LISTEN/NOTIFY,
+ * so every client instance can drop just the cache entries another instance changed.
+ *
+ * <p>Payload format: {@code <instanceId>|<type>|<id>[|<categoryId>|<difficulty>]} where type is
+ * {@code q} (question added/updated), {@code d} (question deleted), {@code c} (category changed)
+ * or {@code r} (bulk change, id is 0: drop everything).
+ * Events published by this instance are ignored since the local cache was already patched.</p>
+ */
+public class BankChangeListener implements AutoCloseable {
+
+    public static final String CHANNEL = "quiz_bank_changes";
+
+    /**
+     * Receives change events from other instances.
+     */
+    public interface Handler {
+        void questionChanged(int questionId, Integer categoryId, String difficulty);
+
+        void questionDeleted(int questionId);
+
+        void categoryChanged(int categoryId);
+
+        /** Called after (re)connecting, since events may have been missed while disconnected. */
+        void resync();
+    }
+
+    private final String url;
+    private final String user;
+    private final String pass;
+    private final String instanceId;
+    private final Handler handler;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile Connection connection;
+
+    public BankChangeListener(String url, String user, String pass, String instanceId, Handler handler) {
+        this.url = url;
+        this.user = user;
+        this.pass = pass;
+        this.instanceId = instanceId;
+        this.handler = handler;
+        this.thread = new Thread(this::run, "quizapp-bank-listener");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        closeQuietly(connection);
+    }
+
+    /**
+     * Process id of the server backend the listener is connected to, or -1 while it is not connected.
+     */
+    int backendPid() throws SQLException {
+        Connection c = connection;
+        return c == null ? -1 : c.unwrap(PGConnection.class).getBackendPID();
+    }
+
+    // --- Publishing (called inside the writer's transaction, delivered on commit) ---
+
+    public static void publishQuestionChanged(Connection c, String instanceId, int questionId,
+                                              Integer categoryId, String difficulty) throws SQLException {
+        publish(c, instanceId + "|q|" + questionId + "|" + (categoryId == null ? "" : categoryId)
+                + "|" + (difficulty == null ? "" : difficulty));
+    }
+
+    public static void publishQuestionDeleted(Connection c, String instanceId, int questionId) throws SQLException {
+        publish(c, instanceId + "|d|" + questionId);
+    }
+
+    public static void publishCategoryChanged(Connection c, String instanceId, int categoryId) throws SQLException {
+        publish(c, instanceId + "|c|" + categoryId);
+    }
+
+    public static void publishBankReloaded(Connection c, String instanceId) throws SQLException {
+        publish(c, instanceId + "|r|0");
+    }
+
+    private static void publish(Connection c, String payload) throws SQLException {
+        try (PreparedStatement p = c.prepareStatement("SELECT pg_notify(?, ?)")) {
+            p.setString(1, CHANNEL);
+            p.setString(2, payload);
+            p.execute();
+        }
+    }
+
+    // --- Consuming ---
+
+    private void run() {
+        long backoffMs = 1000;
+        while (running) {
+            try {
+                connection = DriverManager.getConnection(url, user, pass);
+                try (Statement s = connection.createStatement()) {
+                    s.execute("LISTEN " + CHANNEL);
+                }
+                backoffMs = 1000;
+                handler.resync();
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(10_000);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) {
+                        dispatch(n.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                System.err.println("Bank change listener disconnected: " + e.getMessage() + " (retrying in " + backoffMs + "ms)");
+            } finally {
+                closeQuietly(connection);
+                connection = null;
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                break;
+            }
+            backoffMs = Math.min(backoffMs * 2, 60_000);
+        }
+    }
+
+    /**
+     * Parses one payload and forwards it to the handler. Malformed payloads are logged and skipped.
+     */
+    void dispatch(String payload) {
+        String[] parts = payload.split("\\|", 5);
+        if (parts.length < 3 || parts[0].equals(instanceId)) return;
+        try {
+            int id = Integer.parseInt(parts[2]);
+            switch (parts[1]) {
+                case "q":
+                    Integer categoryId = (parts.length > 3 && !parts[3].isEmpty()) ? Integer.valueOf(parts[3]) : null;
+                    String difficulty = (parts.length > 4 && !parts[4].isEmpty()) ? parts[4] : null;
+                    handler.questionChanged(id, categoryId, difficulty);
+                    break;
+                case "d":
+                    handler.questionDeleted(id);
+                    break;
+                case "c":
+                    handler.categoryChanged(id);
+                    break;
+                case "r":
+                    handler.resync();
+                    break;
+                default:
+                    System.err.println("Bank change listener: unknown event " + payload);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Bank change listener: malformed event " + payload);
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+            // Already broken
+        }
+    }
+}
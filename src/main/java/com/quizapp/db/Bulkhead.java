@@ -0,0 +1,140 @@
+package com.quizapp.db;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded executor for one kind of database work, so a pile-up of slow calls of one kind
+ * (e.g. imports) cannot take the threads and connections another kind (e.g. quiz loads) needs.
+ *
+ * <p>Each call gets a timeout, and cancelling its future (or the timeout firing) interrupts the
+ * call if it is running or skips it if it is still queued. JDBC may not notice the interrupt
+ * until the current statement returns, but the caller is released straight away.</p>
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    /**
+     * @param threads   calls of this kind that may run at once
+     * @param queueSize calls that may wait for a thread before new ones are rejected
+     * @param timeoutMs how long a call may take including queueing, or 0 for no limit
+     */
+    Bulkhead(String name, int threads, int queueSize, long timeoutMs) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), r -> {
+                    Thread t = new Thread(r, "quizapp-" + name + "-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs a call on this bulkhead. The future fails with {@link RejectedExecutionException}
+     * if the queue is full and with {@link TimeoutException} if the call takes too long.
+     */
+    <T> CompletableFuture<T> submit(Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Task<T> task = new Task<>(call, future);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException(
+                    "Too many pending " + name + " operations, please try again"));
+            return future;
+        }
+        if (timeoutMs > 0) future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        future.whenComplete((value, error) -> {
+            if (error instanceof TimeoutException) {
+                timedOut.incrementAndGet();
+                task.interrupt();
+            } else if (error instanceof CancellationException) {
+                cancelled.incrementAndGet();
+                task.interrupt();
+            }
+        });
+        return future;
+    }
+
+    private static final class Task<T> implements Runnable {
+        private final Callable<T> call;
+        private final CompletableFuture<T> future;
+        private Thread worker; // Guarded by this
+
+        Task(Callable<T> call, CompletableFuture<T> future) {
+            this.call = call;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) return; // Cancelled or timed out while queued
+            synchronized (this) {
+                worker = Thread.currentThread();
+            }
+            try {
+                future.complete(call.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    worker = null;
+                }
+                Thread.interrupted(); // Don't let a late interrupt leak into the next call
+            }
+        }
+
+        synchronized void interrupt() {
+            if (worker != null) worker.interrupt();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    public long getCancelledCount() {
+        return cancelled.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: active=%d, queued=%d, rejected=%d, timedOut=%d, cancelled=%d",
+                name, getActiveCount(), getQueuedCount(), getRejectedCount(), getTimedOutCount(), getCancelledCount());
+    }
+}
@@ -0,0 +1,37 @@
+package com.quizapp.db;
+
+/**
+ * Applies change events from other instances to this instance's question cache and category dictionary.
+ */
+class CacheInvalidator implements BankChangeListener.Handler {
+
+    private final QuestionCache cache;
+    private final CategoryDictionary categories;
+
+    CacheInvalidator(QuestionCache cache, CategoryDictionary categories) {
+        this.cache = cache;
+        this.categories = categories;
+    }
+
+    @Override
+    public void questionChanged(int questionId, Integer categoryId, String difficulty) {
+        cache.evict(questionId, categoryId, difficulty);
+    }
+
+    @Override
+    public void questionDeleted(int questionId) {
+        cache.remove(questionId);
+    }
+
+    @Override
+    public void categoryChanged(int categoryId) {
+        categories.invalidate();
+        cache.invalidateCategory(categoryId);
+    }
+
+    @Override
+    public void resync() {
+        categories.invalidate();
+        cache.clear();
+    }
+}
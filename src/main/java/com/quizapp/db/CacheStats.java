@@ -0,0 +1,60 @@
+package com.quizapp.db;
+
+/**
+ * Point-in-time snapshot of question cache metrics.
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final int maxSize;
+    private final int indexedFilters;
+
+    public CacheStats(long hits, long misses, long evictions, int size, int maxSize, int indexedFilters) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.indexedFilters = indexedFilters;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of (category, difficulty) filters whose id lists are cached.
+     */
+    public int getIndexedFilters() {
+        return indexedFilters;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats[hits=%d, misses=%d, hitRatio=%.2f, evictions=%d, size=%d/%d, filters=%d]",
+                hits, misses, getHitRatio(), evictions, size, maxSize, indexedFilters);
+    }
+}
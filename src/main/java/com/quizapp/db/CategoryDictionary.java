@@ -0,0 +1,173 @@
+package com.quizapp.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, two-way map between category ids and names.
+ * The whole table is loaded once (categories are few and rarely change) and replaced as a unit:
+ * local inserts patch it, and changes from other instances drop it so it is reloaded on next use.
+ * A lookup that misses reloads too, but at most once per {@link #MISS_RELOAD_INTERVAL_MS}: ids of deleted
+ * categories are still found in scores and leaderboards, and must not cost a table read each.
+ * Names are interned, so every question that shares a category also shares one String.
+ */
+class CategoryDictionary {
+
+    private static final class Snapshot {
+        final Map<String, Integer> idsByName;
+        final Map<Integer, String> namesById;
+        final List<String> sortedNames;
+
+        Snapshot(Map<String, Integer> idsByName, Map<Integer, String> namesById) {
+            this.idsByName = idsByName;
+            this.namesById = namesById;
+            List<String> names = new ArrayList<>(idsByName.keySet());
+            Collections.sort(names);
+            this.sortedNames = Collections.unmodifiableList(names);
+        }
+    }
+
+    /** Minimum time between two reloads caused by lookup misses. */
+    static final long MISS_RELOAD_INTERVAL_MS = 1000;
+
+    private final ConnectionSource connections;
+    private final long missReloadIntervalNanos;
+    private volatile Snapshot snapshot;
+
+    // System.nanoTime() when the current snapshot was read from the table
+    private volatile long loadedAt;
+
+    // Bumped by invalidate() so a load that overlaps a change is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    CategoryDictionary(ConnectionSource connections) {
+        this(connections, MISS_RELOAD_INTERVAL_MS);
+    }
+
+    CategoryDictionary(ConnectionSource connections, long missReloadIntervalMs) {
+        this.connections = connections;
+        this.missReloadIntervalNanos = TimeUnit.MILLISECONDS.toNanos(missReloadIntervalMs);
+    }
+
+    /**
+     * All category names, sorted. The returned list is shared and unmodifiable.
+     */
+    List<String> names() throws SQLException {
+        Snapshot s = snapshot;
+        return (s != null ? s : reload(null)).sortedNames;
+    }
+
+    /**
+     * Returns the id for a name, or null if there is no such category.
+     * An unknown name triggers a reload, in case the category was added by another instance
+     * and its change event has not arrived yet, unless the table was read less than
+     * {@link #MISS_RELOAD_INTERVAL_MS} ago. Any reload runs on {@code c} if it is not null,
+     * so a caller already holding a connection never borrows a second one.
+     */
+    Integer idOf(Connection c, String name) throws SQLException {
+        if (name == null) return null;
+        Snapshot s = snapshot;
+        if (s == null) s = reload(c);
+        Integer id = s.idsByName.get(name);
+        if (id == null) {
+            id = reloadOnMiss(c, s).idsByName.get(name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the interned name for an id, or null if the id is null or unknown.
+     * Reloads like {@link #idOf} when the id is not known yet.
+     */
+    String nameOf(Connection c, Integer id) throws SQLException {
+        if (id == null) return null;
+        Snapshot s = snapshot;
+        if (s == null) s = reload(c);
+        String name = s.namesById.get(id);
+        if (name == null) {
+            name = reloadOnMiss(c, s).namesById.get(id);
+        }
+        return name;
+    }
+
+    /**
+     * Records a category this instance has just committed.
+     */
+    synchronized void put(int id, String name) {
+        Snapshot s = snapshot;
+        if (s == null) return; // Not loaded yet; the next load will see it
+        Map<String, Integer> byName = new HashMap<>(s.idsByName);
+        Map<Integer, String> byId = new HashMap<>(s.namesById);
+        String old = byId.put(id, name.intern());
+        if (old != null) byName.remove(old);
+        byName.put(name.intern(), id);
+        snapshot = new Snapshot(byName, byId);
+    }
+
+    /**
+     * Forgets everything; the next lookup reloads the table.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Reloads after a lookup in {@code seen} missed, unless the table was read too recently;
+     * then {@code seen} (or whatever replaced it meanwhile) is returned as is.
+     * The time check runs before the lock, so misses within the interval never queue behind a reload.
+     */
+    private Snapshot reloadOnMiss(Connection c, Snapshot seen) throws SQLException {
+        if (System.nanoTime() - loadedAt < missReloadIntervalNanos) return seen;
+        synchronized (this) {
+            Snapshot s = snapshot;
+            if (s != null && s != seen) return s; // Reloaded or patched while we waited
+            if (s != null && System.nanoTime() - loadedAt < missReloadIntervalNanos) return s;
+            return reload(c);
+        }
+    }
+
+    /**
+     * Loads the whole table, on the given connection or (if null) a borrowed one.
+     */
+    private synchronized Snapshot reload(Connection c) throws SQLException {
+        long gen = generation.get();
+        Snapshot s;
+        if (c != null) {
+            s = load(c);
+        } else {
+            try (Connection borrowed = connections.get()) {
+                s = load(borrowed);
+            }
+        }
+        if (generation.get() == gen) {
+            loadedAt = System.nanoTime();
+            snapshot = s;
+        }
+        return s;
+    }
+
+    private static Snapshot load(Connection c) throws SQLException {
+        Map<String, Integer> byName = new HashMap<>();
+        Map<Integer, String> byId = new HashMap<>();
+        try (PreparedStatement p = c.prepareStatement("SELECT id, name FROM categories");
+             ResultSet r = p.executeQuery()) {
+            while (r.next()) {
+                int id = r.getInt(1);
+                String name = r.getString(2).intern();
+                byName.put(name, id);
+                byId.put(id, name);
+            }
+        }
+        return new Snapshot(byName, byId);
+    }
+}
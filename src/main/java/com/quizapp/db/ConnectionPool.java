@@ -0,0 +1,301 @@
+package com.quizapp.db;
+
+import com.quizapp.metrics.CallCounters;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Callers use the returned connection as usual; calling close() hands it back to the pool
+ * instead of closing the physical connection.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final Properties driverProps;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long connectionTimeoutMs;
+    private final long validationIntervalMs;
+    private final String validationQuery;
+
+    // Idle connections, most recently used first. Checked-out connections each hold one permit.
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // --- Metrics ---
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String pass, int minSize, int maxSize,
+                          long idleTimeoutMs, long maxLifetimeMs, long connectionTimeoutMs,
+                          long validationIntervalMs, String validationQuery) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        this.url = url;
+        this.driverProps = new Properties();
+        if (user != null) driverProps.setProperty("user", user);
+        if (pass != null) driverProps.setProperty("password", pass);
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.validationQuery = validationQuery;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "quizapp-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Extra driver properties applied to every physical connection (e.g. pgjdbc tuning).
+     * Set these before {@link #start()}.
+     */
+    public void setDriverProperty(String key, String value) {
+        driverProps.setProperty(key, value);
+    }
+
+    /**
+     * Starts background housekeeping, which also opens the minimum number of connections.
+     */
+    public void start() {
+        long period = Math.max(1000, Math.min(30_000, idleTimeoutMs / 2));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured connection timeout.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + connectionTimeoutMs
+                        + "ms waiting for a database connection (" + active.get() + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (isUsable(pc)) break;
+                discard(pc);
+            }
+            if (pc == null) {
+                pc = open();
+            }
+            active.incrementAndGet();
+            return pc.checkout();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public PoolStats getStats() {
+        long acquires = acquireCount.get();
+        return new PoolStats(active.get(), idle.size(), total.get(), maxSize, acquires,
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                timeouts.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            discard(pc);
+        }
+    }
+
+    private void recordWait(long nanos) {
+        CallCounters.addConnectionWait(nanos);
+        acquireCount.incrementAndGet();
+        waitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, driverProps);
+        total.incrementAndGet();
+        return new PooledConnection(raw);
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        long now = System.currentTimeMillis();
+        if (maxLifetimeMs > 0 && now - pc.createdAt > maxLifetimeMs) return false;
+        if (now - pc.lastUsedAt < validationIntervalMs) return true;
+        try (Statement s = pc.raw.createStatement()) {
+            s.setQueryTimeout(5);
+            s.execute(validationQuery);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        total.decrementAndGet();
+        try {
+            pc.raw.close();
+        } catch (SQLException ignored) {
+            // Connection is being thrown away anyway
+        }
+    }
+
+    /**
+     * Called when a borrowed connection is closed by the caller.
+     */
+    private void release(PooledConnection pc) {
+        active.decrementAndGet();
+        try {
+            boolean expired = maxLifetimeMs > 0 && System.currentTimeMillis() - pc.createdAt > maxLifetimeMs;
+            if (closed || expired || pc.raw.isClosed()) {
+                discard(pc);
+                return;
+            }
+            // Leave the connection in a clean state for the next borrower
+            if (!pc.raw.getAutoCommit()) {
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+            pc.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(pc);
+        } catch (SQLException e) {
+            discard(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Retires idle and expired connections and keeps at least minSize connections warm.
+     */
+    private void housekeep() {
+        if (closed) return;
+        long now = System.currentTimeMillis();
+        List<PooledConnection> retired = new ArrayList<>();
+        int keep = idle.size();
+        Iterator<PooledConnection> it = idle.descendingIterator(); // least recently used first
+        while (it.hasNext()) {
+            PooledConnection pc = it.next();
+            boolean expired = maxLifetimeMs > 0 && now - pc.createdAt > maxLifetimeMs;
+            boolean idleTooLong = idleTimeoutMs > 0 && now - pc.lastUsedAt > idleTimeoutMs
+                    && keep + active.get() > minSize;
+            if ((expired || idleTooLong) && idle.remove(pc)) {
+                retired.add(pc);
+                keep--;
+            }
+        }
+        retired.forEach(this::discard);
+
+        while (!closed && total.get() < minSize && permits.tryAcquire()) {
+            try {
+                idle.offerLast(open());
+            } catch (SQLException e) {
+                System.err.println("Connection pool: could not open warm connection: " + e.getMessage());
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        final Connection raw;
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastUsedAt = createdAt;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        Connection checkout() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * The handle given to callers. Each checkout gets its own handle so a stale
+     * reference cannot touch a connection that has been lent to someone else.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released = false;
+
+        Handle(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pc.raw.isClosed();
+                case "toString":
+                    return "Pooled[" + pc.raw + "]";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    if (released) throw new SQLException("Connection has already been returned to the pool");
+                    try {
+                        return method.invoke(pc.raw, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
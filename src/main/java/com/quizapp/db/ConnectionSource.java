@@ -0,0 +1,11 @@
+package com.quizapp.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Where background components borrow their connections from (normally the pool).
+ */
+interface ConnectionSource {
+    Connection get() throws SQLException;
+}
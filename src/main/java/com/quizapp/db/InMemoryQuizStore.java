@@ -0,0 +1,786 @@
+package com.quizapp.db;
+
+import com.quizapp.AppConfig;
+import com.quizapp.auth.CredentialService;
+import com.quizapp.auth.CredentialStats;
+import com.quizapp.auth.LoginThrottledException;
+import com.quizapp.io.BulkImporter;
+import com.quizapp.io.ImportFormat;
+import com.quizapp.io.ImportListener;
+import com.quizapp.io.ImportResult;
+import com.quizapp.model.EditorData;
+import com.quizapp.model.LeaderboardEntry;
+import com.quizapp.model.LeaderboardPeriod;
+import com.quizapp.model.Option;
+import com.quizapp.model.ProgressStats;
+import com.quizapp.model.Question;
+import com.quizapp.model.ScoreAttempt;
+import com.quizapp.model.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link QuizStore} that keeps the bank, users, scores and leaderboards in process memory.
+ * Nothing is persisted: the bank can be seeded from an export at startup (storage.memory.seedFile)
+ * and an admin account created (storage.memory.adminUser / adminPassword).
+ *
+ * <p>Reads never lock. Questions are read-only snapshots in a sorted concurrent map and are
+ * replaced, never changed. The ids of playable questions are indexed per category and difficulty
+ * as sorted arrays that are copied on write, so drawing a quiz samples a plain array. Bank writes
+ * (admin edits, imports) are rare and run one at a time under a single lock. Scores are folded
+ * into the same per-period boards as the leaderboard table, with atomic merges per player.</p>
+ */
+final class InMemoryQuizStore implements QuizStore {
+
+    private static final int[] NO_IDS = new int[0];
+    private static final int IMPORT_CHUNK_SIZE = AppConfig.getInt("import.chunkSize", 1000);
+
+    private static final Comparator<ScoreAttempt> ATTEMPT_ORDER =
+            Comparator.comparing(ScoreAttempt::getTakenAt).thenComparingInt(ScoreAttempt::getId);
+
+    private static final class StoredUser {
+        final int id;
+        final String username;
+        final boolean admin;
+        volatile String hash;
+
+        StoredUser(int id, String username, boolean admin, String hash) {
+            this.id = id;
+            this.username = username;
+            this.admin = admin;
+            this.hash = hash;
+        }
+    }
+
+    // One player's totals on one board; replaced, never changed, so merges are atomic
+    private static final class Totals {
+        final long points;
+        final long questions;
+        final int quizzes;
+
+        Totals(long points, long questions, int quizzes) {
+            this.points = points;
+            this.questions = questions;
+            this.quizzes = quizzes;
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(points + other.points, questions + other.questions, quizzes + other.quizzes);
+        }
+    }
+
+    // Leaderboard order: most points first, ties by user id
+    private static final Comparator<Map.Entry<Integer, Totals>> RANK_ORDER =
+            Comparator.<Map.Entry<Integer, Totals>>comparingLong(e -> -e.getValue().points)
+                    .thenComparingInt(Map.Entry::getKey);
+
+    private final CredentialService credentials = CredentialService.fromConfig();
+    private volatile String dummyHash;
+
+    // --- Bank (writes under bankLock) ---
+    private final ReentrantLock bankLock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Integer, Question> questions = new ConcurrentSkipListMap<>();
+    // Sorted ids of questions with options, per indexKey(category, difficulty); arrays are never modified
+    private volatile ConcurrentHashMap<String, int[]> playable = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> categoryIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> categoryNames = new ConcurrentHashMap<>();
+    private volatile List<String> sortedCategoryNames = List.of();
+    private final AtomicInteger nextQuestionId = new AtomicInteger();
+    private final AtomicInteger nextOptionId = new AtomicInteger();
+    private final AtomicInteger nextCategoryId = new AtomicInteger();
+
+    // --- Players ---
+    private final ConcurrentHashMap<String, StoredUser> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, StoredUser> usersById = new ConcurrentHashMap<>();
+    private final AtomicInteger nextUserId = new AtomicInteger();
+    // Per player, oldest first; guarded by the list itself
+    private final ConcurrentHashMap<Integer, List<ScoreAttempt>> attempts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextScoreId = new AtomicInteger();
+    // Per boardKey(period, start, category, difficulty): totals per user id
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Integer, Totals>> boards = new ConcurrentHashMap<>();
+
+    InMemoryQuizStore() {
+        String seed = AppConfig.get("storage.memory.seedFile", "").trim();
+        if (!seed.isEmpty()) {
+            try {
+                ImportResult result = restoreBank(Paths.get(seed), false, null);
+                System.out.println("In-memory store seeded from " + seed + ": " + result);
+            } catch (SQLException | IOException e) {
+                System.err.println("Warning: In-memory store not seeded from " + seed + " (" + e.getMessage() + ").");
+            }
+        }
+        String adminPassword = AppConfig.get("storage.memory.adminPassword", "");
+        if (!adminPassword.isEmpty()) {
+            try {
+                createUser(AppConfig.get("storage.memory.adminUser", "admin"), adminPassword, true);
+            } catch (SQLException e) {
+                System.err.println("Warning: In-memory admin account not created (" + e.getMessage() + ").");
+            }
+        }
+    }
+
+    @Override
+    public CredentialStats getCredentialStats() {
+        return credentials.getStats();
+    }
+
+    // --- Authentication ---
+
+    @Override
+    public CompletableFuture<User> authenticateAsync(String username, String password) {
+        try {
+            credentials.checkThrottle(username);
+        } catch (LoginThrottledException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return credentials.submit(() -> {
+            StoredUser stored = users.get(username);
+            if (stored == null) {
+                // Spend the same time as a real check so unknown usernames can't be detected by timing
+                credentials.checkpw(password, dummyHash());
+                credentials.recordResult(username, false);
+                return null;
+            }
+            String hash = stored.hash;
+            boolean ok = credentials.checkpw(password, hash);
+            credentials.recordResult(username, ok);
+            if (!ok) return null;
+
+            if (credentials.needsRehash(hash)) {
+                stored.hash = credentials.hashpw(password);
+                credentials.recordRehash();
+            }
+            return new User(stored.id, stored.username, stored.admin);
+        });
+    }
+
+    @Override
+    public User authenticate(String username, String password) throws SQLException {
+        return await(authenticateAsync(username, password));
+    }
+
+    @Override
+    public void createUser(String username, String password, boolean isAdmin) throws SQLException {
+        credentials.checkThrottle(username);
+        String hash = await(credentials.submit(() -> credentials.hashpw(password)));
+        StoredUser user = new StoredUser(nextUserId.incrementAndGet(), username, isAdmin, hash);
+        if (users.putIfAbsent(username, user) != null) {
+            // Same message and state as PostgreSQL, so callers report it the same way
+            throw new SQLException("duplicate key value violates unique constraint \"users_username_key\"", "23505");
+        }
+        usersById.put(user.id, user);
+    }
+
+    private String dummyHash() {
+        String h = dummyHash;
+        if (h == null) {
+            h = credentials.hashpw(UUID.randomUUID().toString());
+            dummyHash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Waits for a credential future, unwrapping SQLExceptions from the failure.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new SQLException(cause);
+        }
+    }
+
+    // --- Category Management ---
+
+    @Override
+    public List<String> getAllCategoryNames() {
+        return sortedCategoryNames;
+    }
+
+    @Override
+    public int addCategory(String name) throws SQLException {
+        bankLock.lock();
+        try {
+            if (categoryIds.containsKey(name)) {
+                throw new SQLException("duplicate key value violates unique constraint \"categories_name_key\"", "23505");
+            }
+            return createCategory(name);
+        } finally {
+            bankLock.unlock();
+        }
+    }
+
+    /**
+     * Helper to add a category that does not exist yet. Call with bankLock held.
+     */
+    private int createCategory(String name) {
+        int id = nextCategoryId.incrementAndGet();
+        categoryNames.put(id, name);
+        categoryIds.put(name, id);
+        List<String> names = new ArrayList<>(sortedCategoryNames);
+        names.add(name);
+        Collections.sort(names);
+        sortedCategoryNames = Collections.unmodifiableList(names);
+        return id;
+    }
+
+    // --- Player Quiz ---
+
+    @Override
+    public List<Question> getQuestionsForPlayer(Integer categoryId, String difficulty) {
+        return resolve(playableIds(categoryId, difficulty));
+    }
+
+    /**
+     * Samples the cached id index like the JDBC store, but the questions are already in memory.
+     */
+    @Override
+    public List<Question> getRandomQuiz(Integer categoryId, String difficulty, int n) {
+        return resolve(QuestionCache.sample(playableIds(categoryId, difficulty), n));
+    }
+
+    @Override
+    public void forEachQuestion(Integer categoryId, String difficulty, Consumer<Question> action) {
+        for (Question q : getQuestionsForPlayer(categoryId, difficulty)) {
+            action.accept(q);
+        }
+    }
+
+    @Override
+    public Stream<Question> streamQuestions(Integer categoryId, String difficulty) {
+        return Arrays.stream(playableIds(categoryId, difficulty)).mapToObj(questions::get).filter(Objects::nonNull);
+    }
+
+    private int[] playableIds(Integer categoryId, String difficulty) {
+        return playable.getOrDefault(indexKey(categoryId, normalizeDifficulty(difficulty)), NO_IDS);
+    }
+
+    /**
+     * Helper to look up the given ids in order. Ids deleted since the index was read are skipped.
+     */
+    private List<Question> resolve(int[] ids) {
+        List<Question> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Question q = questions.get(id);
+            if (q != null) result.add(q);
+        }
+        return result;
+    }
+
+    private static String normalizeDifficulty(String difficulty) {
+        return (difficulty == null || difficulty.trim().isEmpty()) ? null : difficulty;
+    }
+
+    private static String indexKey(Integer categoryId, String difficulty) {
+        return (categoryId == null ? "*" : categoryId.toString()) + '|' + (difficulty == null ? "*" : difficulty);
+    }
+
+    /**
+     * Helper to list the id arrays that cover a question: any or its category, by any or its difficulty.
+     */
+    private static Set<String> indexKeys(Question q) {
+        return new LinkedHashSet<>(Arrays.asList(
+                indexKey(null, null), indexKey(q.getCategoryId(), null),
+                indexKey(null, q.getDifficulty()), indexKey(q.getCategoryId(), q.getDifficulty())));
+    }
+
+    /**
+     * Adds or removes a playable question in the id arrays that cover it. Each array is replaced
+     * by a copy, so readers holding the old one are unaffected. Call with bankLock held.
+     */
+    private void index(Question q, boolean add) {
+        if (q.getOptions().isEmpty()) return; // Not playable
+        Map<String, int[]> index = playable;
+        for (String key : indexKeys(q)) {
+            int[] ids = index.getOrDefault(key, NO_IDS);
+            int pos = Arrays.binarySearch(ids, q.getId());
+            int[] next;
+            if (add) {
+                if (pos >= 0) continue;
+                pos = -pos - 1;
+                next = new int[ids.length + 1];
+                System.arraycopy(ids, 0, next, 0, pos);
+                next[pos] = q.getId();
+                System.arraycopy(ids, pos, next, pos + 1, ids.length - pos);
+            } else {
+                if (pos < 0) continue;
+                next = new int[ids.length - 1];
+                System.arraycopy(ids, 0, next, 0, pos);
+                System.arraycopy(ids, pos + 1, next, pos, ids.length - pos - 1);
+            }
+            if (next.length == 0) index.remove(key);
+            else index.put(key, next);
+        }
+    }
+
+    // --- Scores ---
+
+    @Override
+    public void submitScore(int userId, int score, int total, Integer categoryId, String difficulty) throws SQLException {
+        saveScore(userId, score, total, categoryId, difficulty);
+    }
+
+    /**
+     * Records the attempt for the player's history and adds it to every board it counts towards.
+     */
+    @Override
+    public void saveScore(int userId, int score, int total, Integer categoryId, String difficulty) throws SQLException {
+        if (!usersById.containsKey(userId)) throw new SQLException("Unknown user " + userId);
+        long takenAt = System.currentTimeMillis();
+        String category = categoryId == null ? null : categoryNames.get(categoryId);
+        ScoreAttempt attempt = new ScoreAttempt(nextScoreId.incrementAndGet(), score, total, category,
+                normalizeDifficulty(difficulty), Instant.ofEpochMilli(takenAt));
+
+        List<ScoreAttempt> history = attempts.computeIfAbsent(userId, k -> new ArrayList<>());
+        synchronized (history) {
+            int pos = Collections.binarySearch(history, attempt, ATTEMPT_ORDER);
+            history.add(pos < 0 ? -pos - 1 : pos, attempt);
+        }
+
+        ScoreAggregates aggregates = new ScoreAggregates();
+        aggregates.add(new ScoreRecord(userId, score, total, categoryId, difficulty, takenAt));
+        aggregates.forEach((period, start, boardCategory, boardDifficulty, user, points, questionCount, quizzes) ->
+                boards.computeIfAbsent(boardKey(period, start, boardCategory, boardDifficulty), k -> new ConcurrentHashMap<>())
+                        .merge(user, new Totals(points, questionCount, quizzes), Totals::plus));
+    }
+
+    @Override
+    public boolean awaitScoresWritten(long timeoutMs) {
+        return true; // Scores are stored before saveScore returns
+    }
+
+    // --- Leaderboard ---
+
+    /**
+     * Picks the top players with a bounded heap, so the cost is O(players log limit).
+     */
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(LeaderboardPeriod period, String categoryName,
+                                                 String difficulty, int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        Map<Integer, Totals> board = board(period, categoryName, difficulty);
+        if (board == null || limit <= 0) return entries;
+
+        PriorityQueue<Map.Entry<Integer, Totals>> top = new PriorityQueue<>(limit + 1, RANK_ORDER.reversed());
+        for (Map.Entry<Integer, Totals> e : board.entrySet()) {
+            top.add(e);
+            if (top.size() > limit) top.poll(); // Drops the lowest ranked
+        }
+        List<Map.Entry<Integer, Totals>> sorted = new ArrayList<>(top);
+        sorted.sort(RANK_ORDER);
+
+        int rank = 0;
+        long previousPoints = -1;
+        for (Map.Entry<Integer, Totals> e : sorted) {
+            Totals t = e.getValue();
+            // Competition ranking: ties share a rank and the next rank skips ahead
+            if (t.points != previousPoints) rank = entries.size() + 1;
+            previousPoints = t.points;
+            entries.add(new LeaderboardEntry(rank, e.getKey(), username(e.getKey()), t.points, t.questions, t.quizzes));
+        }
+        return entries;
+    }
+
+    @Override
+    public LeaderboardEntry getUserRank(int userId, LeaderboardPeriod period, String categoryName, String difficulty) {
+        Map<Integer, Totals> board = board(period, categoryName, difficulty);
+        Totals own = board == null ? null : board.get(userId);
+        if (own == null) return null;
+        int ahead = 0;
+        for (Totals t : board.values()) {
+            if (t.points > own.points) ahead++;
+        }
+        return new LeaderboardEntry(ahead + 1, userId, username(userId), own.points, own.questions, own.quizzes);
+    }
+
+    /**
+     * Helper to find the current board for a period, category name and difficulty; null if it is empty
+     * or the category doesn't exist.
+     */
+    private Map<Integer, Totals> board(LeaderboardPeriod period, String categoryName, String difficulty) {
+        Integer categoryId = categoryName == null ? Integer.valueOf(ScoreAggregates.ALL_CATEGORIES) : categoryIds.get(categoryName);
+        if (categoryId == null) return null;
+        String key = boardKey(period, period.startOf(LocalDate.now()), categoryId, ScoreAggregates.boardDifficulty(difficulty));
+        return boards.get(key);
+    }
+
+    private static String boardKey(LeaderboardPeriod period, LocalDate start, int categoryId, String difficulty) {
+        return period.getKey() + '|' + start + '|' + categoryId + '|' + difficulty;
+    }
+
+    private String username(int userId) {
+        StoredUser user = usersById.get(userId);
+        return user == null ? null : user.username;
+    }
+
+    // --- Player History ---
+
+    @Override
+    public List<ScoreAttempt> getUserHistory(int userId, ScoreAttempt after, int limit) {
+        List<ScoreAttempt> page = new ArrayList<>();
+        List<ScoreAttempt> history = attempts.get(userId);
+        if (history == null) return page;
+        synchronized (history) {
+            int i = history.size() - 1;
+            if (after != null) {
+                int pos = Collections.binarySearch(history, after, ATTEMPT_ORDER);
+                i = pos >= 0 ? pos - 1 : -pos - 2;
+            }
+            for (; i >= 0 && page.size() < limit; i--) {
+                page.add(history.get(i));
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public ProgressStats getUserTotals(int userId) {
+        Totals t = userTotals(LeaderboardPeriod.ALL_TIME, LocalDate.now(), ScoreAggregates.ALL_CATEGORIES, userId);
+        return t == null ? null : new ProgressStats(LeaderboardPeriod.ALL_TIME.toString(), t.points, t.questions, t.quizzes);
+    }
+
+    @Override
+    public List<ProgressStats> getUserDailyProgress(int userId, int days) {
+        List<ProgressStats> progress = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (LocalDate day = today.minusDays(days - 1L); !day.isAfter(today); day = day.plusDays(1)) {
+            Totals t = userTotals(LeaderboardPeriod.DAY, day, ScoreAggregates.ALL_CATEGORIES, userId);
+            if (t != null) progress.add(new ProgressStats(day.toString(), t.points, t.questions, t.quizzes));
+        }
+        return progress;
+    }
+
+    @Override
+    public List<ProgressStats> getUserCategoryProgress(int userId) {
+        List<Map.Entry<Integer, Totals>> played = new ArrayList<>();
+        for (Integer categoryId : categoryNames.keySet()) {
+            Totals t = userTotals(LeaderboardPeriod.ALL_TIME, LocalDate.now(), categoryId, userId);
+            if (t != null) played.add(Map.entry(categoryId, t));
+        }
+        played.sort(Comparator.<Map.Entry<Integer, Totals>>comparingInt(e -> -e.getValue().quizzes)
+                .thenComparingInt(Map.Entry::getKey));
+
+        List<ProgressStats> progress = new ArrayList<>();
+        for (Map.Entry<Integer, Totals> e : played) {
+            Totals t = e.getValue();
+            progress.add(new ProgressStats(categoryNames.get(e.getKey()), t.points, t.questions, t.quizzes));
+        }
+        return progress;
+    }
+
+    /**
+     * Helper to read a player's totals across all difficulties, for the period containing {@code day}.
+     */
+    private Totals userTotals(LeaderboardPeriod period, LocalDate day, int categoryId, int userId) {
+        Map<Integer, Totals> board = boards.get(boardKey(period, period.startOf(day), categoryId, ScoreAggregates.ALL_DIFFICULTIES));
+        return board == null ? null : board.get(userId);
+    }
+
+    // --- Admin Panel - Question Management ---
+
+    @Override
+    public List<Question> getAllQuestionsWithMeta() {
+        List<Question> result = new ArrayList<>(questions.size());
+        for (Question q : questions.values()) {
+            result.add(copy(q, false));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Question> getQuestionsPage(QuestionFilter filter, int afterId, int limit) {
+        List<Question> page = new ArrayList<>();
+        Predicate<Question> matches = matcher(filter);
+        for (Question q : questions.tailMap(afterId, false).values()) {
+            if (page.size() >= limit) break;
+            if (matches.test(q)) page.add(copy(q, false));
+        }
+        return page;
+    }
+
+    @Override
+    public int countQuestions(QuestionFilter filter) {
+        if (filter == null || filter.isEmpty()) return questions.size();
+        Predicate<Question> matches = matcher(filter);
+        int count = 0;
+        for (Question q : questions.values()) {
+            if (matches.test(q)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public Integer getQuestionIdAtOffset(QuestionFilter filter, int offset) {
+        Predicate<Question> matches = matcher(filter);
+        int skipped = 0;
+        for (Question q : questions.values()) {
+            if (!matches.test(q)) continue;
+            if (skipped++ == offset) return q.getId();
+        }
+        return null;
+    }
+
+    /**
+     * Helper to turn the admin filter into a predicate, with the same matching as the SQL filter:
+     * exact category and difficulty, case-insensitive substring of the text. An unknown category matches nothing.
+     */
+    private Predicate<Question> matcher(QuestionFilter filter) {
+        if (filter == null || filter.isEmpty()) return q -> true;
+        Integer categoryId = filter.getCategory() == null ? null : categoryIds.get(filter.getCategory());
+        if (filter.getCategory() != null && categoryId == null) return q -> false;
+        String text = filter.getText() == null ? null : filter.getText().toLowerCase(Locale.ROOT);
+        return q -> (categoryId == null || categoryId.equals(q.getCategoryId()))
+                && (filter.getDifficulty() == null || filter.getDifficulty().equals(q.getDifficulty()))
+                && (text == null || q.getText().toLowerCase(Locale.ROOT).contains(text));
+    }
+
+    /**
+     * Helper to make a writable copy of a stored question, with or without its options.
+     */
+    private static Question copy(Question stored, boolean withOptions) {
+        Question q = new Question(stored.getId(), stored.getText());
+        q.setCategoryId(stored.getCategoryId());
+        q.setCategory(stored.getCategory());
+        q.setDifficulty(stored.getDifficulty());
+        q.setVersion(stored.getVersion());
+        if (withOptions) {
+            for (Option opt : stored.getOptions()) {
+                q.addOption(opt);
+            }
+        }
+        return q;
+    }
+
+    @Override
+    public Question getQuestionById(int questionId) {
+        Question q = questions.get(questionId);
+        return q == null ? null : copy(q, false);
+    }
+
+    @Override
+    public List<Option> getOptionsForQuestion(int questionId) {
+        Question q = questions.get(questionId);
+        return q == null ? new ArrayList<>() : new ArrayList<>(q.getOptions());
+    }
+
+    @Override
+    public EditorData getEditorData(int questionId) {
+        Question q = questionId == -1 ? null : questions.get(questionId);
+        return new EditorData(sortedCategoryNames, q == null ? null : copy(q, true));
+    }
+
+    @Override
+    public void addQuestion(String questionText, List<Option> options, String categoryName, String difficulty) throws SQLException {
+        bankLock.lock();
+        try {
+            Integer categoryId = categoryIds.get(categoryName);
+            if (categoryId == null) {
+                throw new SQLException("Invalid category name: " + categoryName);
+            }
+            store(build(nextQuestionId.incrementAndGet(), 1, questionText, options, categoryId, difficulty, Map.of()));
+        } finally {
+            bankLock.unlock();
+        }
+    }
+
+    @Override
+    public int updateQuestion(int questionId, int expectedVersion, String questionText, List<Option> options,
+                              String categoryName, String difficulty) throws SQLException {
+        bankLock.lock();
+        try {
+            Integer categoryId = categoryIds.get(categoryName);
+            if (categoryId == null) {
+                throw new SQLException("Invalid category name: " + categoryName);
+            }
+            Question current = questions.get(questionId);
+            if (current == null) {
+                throw new StaleQuestionException("This question has been deleted by someone else.");
+            }
+            if (current.getVersion() != expectedVersion) {
+                throw new StaleQuestionException("This question was changed by someone else. Reopen it to see the latest version.");
+            }
+
+            Map<Integer, Option> stored = new HashMap<>();
+            for (Option opt : current.getOptions()) {
+                stored.put(opt.getId(), opt);
+            }
+            Question updated = build(questionId, expectedVersion + 1, questionText, options, categoryId, difficulty, stored);
+            if (sameContent(current, updated)) {
+                return expectedVersion; // No-op edit
+            }
+            index(current, false);
+            store(updated);
+            return updated.getVersion();
+        } finally {
+            bankLock.unlock();
+        }
+    }
+
+    private static boolean sameContent(Question a, Question b) {
+        if (!a.getText().equals(b.getText()) || !Objects.equals(a.getCategoryId(), b.getCategoryId())
+                || !Objects.equals(a.getDifficulty(), b.getDifficulty()) || a.getOptions().size() != b.getOptions().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.getOptions().size(); i++) {
+            Option x = a.getOptions().get(i);
+            Option y = b.getOptions().get(i);
+            if (x.getId() != y.getId() || !x.getText().equals(y.getText()) || x.isCorrect() != y.isCorrect()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Helper to build the stored snapshot of a question. Options keep their id if it is one of
+     * {@code existing}; the others get new ids.
+     */
+    private Question build(int id, int version, String text, List<Option> options, int categoryId,
+                           String difficulty, Map<Integer, Option> existing) {
+        Question q = new Question(id, text);
+        q.setCategoryId(categoryId);
+        q.setCategory(categoryNames.get(categoryId));
+        q.setDifficulty(difficulty);
+        q.setVersion(version);
+        for (Option opt : options) {
+            int optionId = existing.containsKey(opt.getId()) ? opt.getId() : nextOptionId.incrementAndGet();
+            q.addOption(new Option(optionId, opt.getText(), opt.isCorrect()));
+        }
+        return q.snapshot();
+    }
+
+    /**
+     * Helper to store a question snapshot and index it. Call with bankLock held.
+     */
+    private void store(Question q) {
+        questions.put(q.getId(), q);
+        index(q, true);
+    }
+
+    @Override
+    public ImportResult importQuestions(Path file, ImportFormat format, ImportListener listener) throws SQLException, IOException {
+        return importQuestions(file, format, false, listener);
+    }
+
+    @Override
+    public void exportQuestions(Consumer<Question> action) {
+        for (Question q : questions.values()) {
+            action.accept(q);
+        }
+    }
+
+    @Override
+    public ImportResult restoreBank(Path file, boolean replace, ImportListener listener) throws SQLException, IOException {
+        return importQuestions(file, ImportFormat.NDJSON, replace, listener);
+    }
+
+    /**
+     * Parses the whole file before changing anything, so a failed or cancelled import leaves the
+     * bank as it was. The new questions are stored before the rebuilt id index is swapped in, and
+     * with {@code replace} the old questions are removed only after that, so players never draw
+     * from an empty or half-loaded bank.
+     */
+    private ImportResult importQuestions(Path file, ImportFormat format, boolean replace, ImportListener listener)
+            throws IOException {
+        long start = System.nanoTime();
+        List<Question> parsed = new ArrayList<>();
+        Set<String> categories = new LinkedHashSet<>();
+        ImportResult read = new BulkImporter(1, IMPORT_CHUNK_SIZE).readFile(file, format, listener, new BulkImporter.RecordSink() {
+            @Override
+            public void category(String name) {
+                categories.add(name);
+            }
+
+            @Override
+            public void question(Question q) {
+                categories.add(q.getCategory());
+                parsed.add(q);
+            }
+        });
+        if (listener != null) listener.merging();
+
+        int categoriesCreated = 0;
+        bankLock.lock();
+        try {
+            for (String name : categories) {
+                if (!categoryIds.containsKey(name)) {
+                    createCategory(name);
+                    categoriesCreated++;
+                }
+            }
+
+            List<Integer> oldIds = replace ? new ArrayList<>(questions.keySet()) : List.of();
+            Map<String, List<Integer>> added = new HashMap<>();
+            for (Question q : parsed) {
+                Question stored = build(nextQuestionId.incrementAndGet(), 1, q.getText(), q.getOptions(),
+                        categoryIds.get(q.getCategory()), q.getDifficulty(), Map.of());
+                questions.put(stored.getId(), stored);
+                for (String key : indexKeys(stored)) {
+                    added.computeIfAbsent(key, k -> new ArrayList<>()).add(stored.getId());
+                }
+            }
+
+            // New ids are higher than every stored one, so appending keeps each array sorted
+            ConcurrentHashMap<String, int[]> index = replace ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(playable);
+            for (Map.Entry<String, List<Integer>> e : added.entrySet()) {
+                int[] ids = index.getOrDefault(e.getKey(), NO_IDS);
+                int[] next = Arrays.copyOf(ids, ids.length + e.getValue().size());
+                for (int i = 0; i < e.getValue().size(); i++) {
+                    next[ids.length + i] = e.getValue().get(i);
+                }
+                index.put(e.getKey(), next);
+            }
+            playable = index;
+            questions.keySet().removeAll(oldIds);
+        } finally {
+            bankLock.unlock();
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new ImportResult(read.getQuestionsImported(), read.getOptionsImported(), categoriesCreated,
+                read.getRecordsSkipped(), read.getErrors(), elapsedMs);
+    }
+
+    @Override
+    public void deleteQuestion(int questionId) {
+        bankLock.lock();
+        try {
+            Question q = questions.remove(questionId);
+            if (q != null) index(q, false);
+        } finally {
+            bankLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,1330 @@
+package com.quizapp.db;
+
+import com.quizapp.AppConfig;
+import com.quizapp.auth.CredentialService;
+import com.quizapp.auth.CredentialStats;
+import com.quizapp.auth.LoginThrottledException;
+import com.quizapp.io.BulkImporter;
+import com.quizapp.io.ImportFormat;
+import com.quizapp.io.ImportListener;
+import com.quizapp.io.ImportResult;
+import com.quizapp.metrics.CallCounters;
+import com.quizapp.model.User;
+import com.quizapp.model.Question;
+import com.quizapp.model.EditorData;
+import com.quizapp.model.LeaderboardEntry;
+import com.quizapp.model.LeaderboardPeriod;
+import com.quizapp.model.ProgressStats;
+import com.quizapp.model.ScoreAttempt;
+import com.quizapp.model.Option;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The PostgreSQL {@link QuizStore}: pooled JDBC connections, the question cache kept in sync with
+ * LISTEN/NOTIFY, the background score writer and the offline snapshot. Created by {@link Repository}
+ * when storage.engine is jdbc, so none of this starts for the other engines.
+ */
+final class JdbcQuizStore implements QuizStore {
+    private static final String DB_URL = AppConfig.get("db.url", "jdbc:postgresql://localhost:5432/quiz_db");
+    private static final String DB_USER = AppConfig.get("db.user", "postgres");
+    private static final String DB_PASS = AppConfig.get("db.pass", "password");
+
+    private final ConnectionPool pool = new ConnectionPool(
+            DB_URL, DB_USER, DB_PASS,
+            AppConfig.getInt("db.pool.minSize", 1),
+            AppConfig.getInt("db.pool.maxSize", 10),
+            AppConfig.getLong("db.pool.idleTimeoutMs", 600_000),
+            AppConfig.getLong("db.pool.maxLifetimeMs", 1_800_000),
+            AppConfig.getLong("db.pool.connectionTimeoutMs", 10_000),
+            AppConfig.getLong("db.pool.validationIntervalMs", 5_000),
+            AppConfig.get("db.pool.validationQuery", "SELECT 1"));
+
+    private final QuestionCache cache = new QuestionCache(
+            AppConfig.getInt("cache.maxQuestions", 50_000),
+            AppConfig.getLong("cache.ttlMs", 60_000));
+
+    // Identifies this client in change notifications so it can skip its own events
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+    // Rows per round trip when streaming large results through a server-side cursor
+    private static final int FETCH_SIZE = AppConfig.getInt("db.fetchSize", 1000);
+
+    // Category id <-> name lookups, so reads and writes don't query or join categories
+    private final CategoryDictionary categories = new CategoryDictionary(this::getConnection);
+
+    private final LeaderboardCache leaderboards = new LeaderboardCache(
+            AppConfig.getLong("leaderboard.cacheMs", 5_000), 256);
+
+    private static final int IMPORT_WORKERS = AppConfig.getInt("import.workers", Runtime.getRuntime().availableProcessors());
+    private static final int IMPORT_CHUNK_SIZE = AppConfig.getInt("import.chunkSize", 1000);
+
+    private final CredentialService credentials = CredentialService.fromConfig();
+    private volatile String dummyHash;
+
+    // Local copy of the bank for quizzes while the database is unreachable (null if disabled)
+    private final OfflineSnapshot snapshot = AppConfig.getBoolean("offline.enabled", true)
+            ? new OfflineSnapshot(Paths.get(AppConfig.get("offline.dir", System.getProperty("user.home") + "/.quizapp"), "questions.snapshot"))
+            : null;
+    private static final boolean PREFER_SNAPSHOT = AppConfig.getBoolean("offline.preferSnapshot", false);
+
+    private final BankChangeListener changeListener;
+    private final ScoreWriter scoreWriter;
+    private volatile boolean migrated;
+
+    JdbcQuizStore() {
+        // Lets the driver send addBatch() inserts as multi-row statements
+        pool.setDriverProperty("reWriteBatchedInserts", "true");
+        // Statements run this often on a connection stay prepared on the server (see SqlCatalog)
+        pool.setDriverProperty("prepareThreshold", String.valueOf(AppConfig.getInt("db.prepareThreshold", 1)));
+        pool.setDriverProperty("preparedStatementCacheQueries", String.valueOf(AppConfig.getInt("db.statementCache.queries", 256)));
+        pool.setDriverProperty("preparedStatementCacheSizeMiB", String.valueOf(AppConfig.getInt("db.statementCache.sizeMiB", 5)));
+        pool.start();
+
+        // The score writer, listener and snapshot query tables that migrations create, so migrate first
+        if (AppConfig.getBoolean("db.migrate", true)) {
+            try {
+                migrate();
+            } catch (SQLException e) {
+                System.err.println("Failed to apply database migrations: " + e.getMessage());
+            }
+        }
+
+        scoreWriter = createScoreWriter();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (scoreWriter != null) scoreWriter.close();
+            pool.close();
+        }, "quizapp-shutdown"));
+
+        if (AppConfig.getBoolean("cache.listen", true)) {
+            changeListener = new BankChangeListener(DB_URL, DB_USER, DB_PASS, INSTANCE_ID,
+                    new CacheInvalidator(cache, categories));
+            changeListener.start();
+        } else {
+            changeListener = null;
+        }
+
+        if (snapshot != null) {
+            snapshot.load(); // Only maps the file, so this is cheap
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "quizapp-snapshot");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+            refresher.scheduleWithFixedDelay(this::refreshOfflineSnapshot,
+                    AppConfig.getLong("offline.initialDelayMs", 10_000),
+                    AppConfig.getLong("offline.refreshMs", 600_000), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Rebuilds the offline snapshot if the bank changed since it was taken.
+     * Runs on the snapshot thread; failures (e.g. database down) just keep the old snapshot.
+     */
+    private void refreshOfflineSnapshot() {
+        try {
+            long fingerprint = bankFingerprint();
+            if (snapshot.isLoaded() && snapshot.getFingerprint() == fingerprint) return;
+            snapshot.rebuild(fingerprint, action -> forEachQuestion(null, null, action));
+        } catch (SQLException | IOException | RuntimeException e) {
+            System.err.println("Offline snapshot not refreshed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper to compute a cheap fingerprint of the question bank; it changes whenever a question,
+     * option or category is added, changed (questions bump their version) or deleted.
+     */
+    private long bankFingerprint() throws SQLException {
+        String sql = "SELECT (SELECT COUNT(*) FROM questions), (SELECT COALESCE(MAX(id), 0) FROM questions), " +
+                     "(SELECT COALESCE(SUM(version), 0) FROM questions), " +
+                     "(SELECT COUNT(*) FROM options), (SELECT COALESCE(MAX(id), 0) FROM options), " +
+                     "(SELECT COUNT(*) FROM categories)";
+        try (Connection c = getConnection();
+             PreparedStatement p = c.prepareStatement(sql);
+             ResultSet r = p.executeQuery()) {
+            r.next();
+            long h = 1;
+            for (int i = 1; i <= 6; i++) {
+                h = 31 * h + r.getLong(i);
+            }
+            return h;
+        }
+    }
+
+    private ScoreWriter createScoreWriter() {
+        Path spoolDir = Paths.get(AppConfig.get("scores.spoolDir", System.getProperty("user.home") + "/.quizapp"));
+        try {
+            return new ScoreWriter(this::getConnection, spoolDir,
+                    AppConfig.getInt("scores.queueCapacity", 1000),
+                    AppConfig.getInt("scores.batchSize", 200),
+                    AppConfig.getLong("scores.flushIntervalMs", 500),
+                    ScoreWriter.BackpressurePolicy.valueOf(AppConfig.get("scores.backpressure", "SPOOL").trim().toUpperCase()),
+                    AppConfig.getLong("scores.offerTimeoutMs", 2000),
+                    AppConfig.getBoolean("scores.syncSpool", true));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Warning: Score writer unavailable (" + e.getMessage() + "). Scores will be saved synchronously.");
+            return null;
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    /**
+     * Applies any pending schema migrations. Safe to call from several clients at once.
+     * Does nothing once the migrations have been applied by this store, e.g. at startup.
+     */
+    @Override
+    public void migrate() throws SQLException {
+        if (migrated) return;
+        try (Connection c = getConnection()) {
+            Migrations.migrate(c);
+        }
+        migrated = true;
+    }
+
+    /**
+     * Runs EXPLAIN on the hot queries and lists those that no longer use their index.
+     */
+    @Override
+    public List<String> checkQueryPlans() throws SQLException {
+        try (Connection c = getConnection()) {
+            return Migrations.checkQueryPlans(c);
+        }
+    }
+
+    /**
+     * Current connection pool metrics (active, idle, wait time, timeouts).
+     */
+    @Override
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Current score writer metrics (queue depth, flush latency, failures), or null if scores are saved synchronously.
+     */
+    @Override
+    public ScoreWriterStats getScoreWriterStats() {
+        return scoreWriter == null ? null : scoreWriter.getStats();
+    }
+
+    /**
+     * Current question cache metrics (hits, misses, evictions, size).
+     */
+    @Override
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drops every cached question and id list; the next reads go to the database.
+     */
+    @Override
+    public void invalidateQuestionCache() {
+        cache.clear();
+    }
+
+    // --- Authentication ---
+
+    /**
+     * Verifies a login on the dedicated credential executor, off the caller's thread.
+     * The future completes with the user, or null if the username or password is wrong.
+     * It fails with {@link LoginThrottledException} when rate limited or the executor is saturated.
+     * Hashes made with an outdated cost factor are upgraded transparently on success.
+     */
+    @Override
+    public CompletableFuture<User> authenticateAsync(String username, String password) {
+        try {
+            credentials.checkThrottle(username);
+        } catch (LoginThrottledException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return credentials.submit(() -> {
+            User user = null;
+            String hash = null;
+            try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.USER_BY_NAME)) {
+                p.setString(1, username);
+                try (ResultSet r = p.executeQuery()) {
+                    if (r.next()) {
+                        hash = r.getString("password_hash");
+                        user = new User(r.getInt("id"), r.getString("username"), r.getBoolean("is_admin"));
+                    }
+                }
+            }
+
+            if (hash == null) {
+                // Spend the same time as a real check so unknown usernames can't be detected by timing
+                credentials.checkpw(password, dummyHash());
+                credentials.recordResult(username, false);
+                return null;
+            }
+            boolean ok = credentials.checkpw(password, hash);
+            credentials.recordResult(username, ok);
+            if (!ok) return null;
+
+            if (credentials.needsRehash(hash)) {
+                updatePasswordHash(user.getId(), credentials.hashpw(password));
+                credentials.recordRehash();
+            }
+            return user;
+        });
+    }
+
+    /**
+     * Blocking form of {@link #authenticateAsync}.
+     */
+    @Override
+    public User authenticate(String username, String password) throws SQLException {
+        return await(authenticateAsync(username, password));
+    }
+
+    @Override
+    public void createUser(String username, String password, boolean isAdmin) throws SQLException {
+        String sql = "INSERT INTO users (username, password_hash, is_admin) VALUES (?, ?, ?)";
+        credentials.checkThrottle(username);
+        String hash = await(credentials.submit(() -> credentials.hashpw(password)));
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+            p.setString(1, username);
+            p.setString(2, hash);
+            p.setBoolean(3, isAdmin);
+            p.executeUpdate();
+        }
+    }
+
+    private void updatePasswordHash(int userId, String hash) {
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.UPDATE_PASSWORD_HASH)) {
+            p.setString(1, hash);
+            p.setInt(2, userId);
+            p.executeUpdate();
+        } catch (SQLException e) {
+            // Not fatal: the old hash still works and the upgrade is retried on the next login
+            System.err.println("Failed to upgrade password hash for user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    private String dummyHash() {
+        String h = dummyHash;
+        if (h == null) {
+            h = credentials.hashpw(UUID.randomUUID().toString());
+            dummyHash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Waits for a repository future, unwrapping SQLExceptions from the failure.
+     */
+    private <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new SQLException(cause);
+        }
+    }
+
+    /**
+     * Current credential service metrics (hash/verify latency histograms, throttling).
+     */
+    @Override
+    public CredentialStats getCredentialStats() {
+        return credentials.getStats();
+    }
+    
+    // --- Category Management ---
+
+    /**
+     * Returns all category names, sorted, from the in-memory category dictionary.
+     * The list is shared and unmodifiable.
+     */
+    @Override
+    public List<String> getAllCategoryNames() throws SQLException {
+        return categories.names();
+    }
+
+    /**
+     * Adds a category and notifies other instances. Returns the new category id.
+     */
+    @Override
+    public int addCategory(String name) throws SQLException {
+        String sql = "INSERT INTO categories (name) VALUES (?)";
+        try (Connection c = getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement p = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                p.setString(1, name);
+                p.executeUpdate();
+                int id;
+                try (ResultSet rs = p.getGeneratedKeys()) {
+                    if (!rs.next()) throw new SQLException("Failed to create category, no ID obtained.");
+                    id = rs.getInt(1);
+                }
+                BankChangeListener.publishCategoryChanged(c, INSTANCE_ID, id);
+                c.commit();
+                categories.put(id, name);
+                return id;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Helper to get a category ID from its name. Served from the category dictionary;
+     * {@code c} is only used if the dictionary has to be reloaded.
+     */
+    private Integer getCategoryIdByName(Connection c, String name) throws SQLException {
+        return categories.idOf(c, name);
+    }
+
+    // --- Player Quiz ---
+
+    /**
+     * [OPTIMIZED] Fetches questions and options for the player.
+     * Served from the question cache; only questions not cached yet are loaded, in batched queries.
+     * The returned questions are read-only snapshots, ordered by id.
+     */
+    @Override
+    public List<Question> getQuestionsForPlayer(Integer categoryId, String difficulty) throws SQLException {
+        int[] ids = cache.getIds(categoryId, normalizeDifficulty(difficulty), this::loadPlayableQuestionIds);
+        return cache.getAll(ids, this::getQuestionsByIds);
+    }
+
+    /**
+     * Builds a random quiz of up to n questions without loading the whole bank.
+     * Question ids are sampled from a cached id index, then only the chosen questions
+     * and their options are fetched. The result is in random order.
+     */
+    @Override
+    public List<Question> getRandomQuiz(Integer categoryId, String difficulty, int n) throws SQLException {
+        if (PREFER_SNAPSHOT && snapshot != null && snapshot.isLoaded()) {
+            return snapshot.sample(categoryId, normalizeDifficulty(difficulty), n);
+        }
+        try {
+            int[] ids = cache.getIds(categoryId, normalizeDifficulty(difficulty), this::loadPlayableQuestionIds);
+            int[] chosen = QuestionCache.sample(ids, n);
+            if (chosen.length == 0) {
+                return new ArrayList<>();
+            }
+
+            // Already in random order; getAll keeps the order of the ids it is given
+            return cache.getAll(chosen, this::getQuestionsByIds);
+        } catch (SQLException e) {
+            // Database down or overloaded: fall back to the offline snapshot if there is one
+            List<Question> offline = snapshot == null ? null : snapshot.sample(categoryId, normalizeDifficulty(difficulty), n);
+            if (offline == null) throw e;
+            System.err.println("Warning: Database unavailable (" + e.getMessage() + "). Quiz drawn from the offline snapshot.");
+            return offline;
+        }
+    }
+
+    private static String normalizeDifficulty(String difficulty) {
+        return (difficulty == null || difficulty.trim().isEmpty()) ? null : difficulty;
+    }
+
+    /**
+     * Helper to load the sorted ids of all questions that have options, for the id index.
+     */
+    private int[] loadPlayableQuestionIds(Integer categoryId, String difficulty) throws SQLException {
+        int[] ids = new int[256];
+        int size = 0;
+        try (Connection c = getConnection()) {
+            c.setAutoCommit(false); // Needed for cursor-based fetching
+            try (PreparedStatement p = c.prepareStatement(SqlCatalog.playableIds(categoryId, difficulty))) {
+                p.setFetchSize(FETCH_SIZE * 10);
+                SqlCatalog.bindFilters(p, 1, categoryId, difficulty);
+                try (ResultSet r = p.executeQuery()) {
+                    while (r.next()) {
+                        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+                        ids[size++] = r.getInt(1);
+                    }
+                }
+            }
+        }
+        CallCounters.addRows(size);
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Fetches the given questions with their options in one query, ordered by id.
+     */
+    private List<Question> getQuestionsByIds(int[] ids) throws SQLException {
+        List<Question> questions = new ArrayList<>(ids.length);
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.QUESTIONS_BY_IDS)) {
+            Integer[] boxed = new Integer[ids.length];
+            for (int i = 0; i < ids.length; i++) boxed[i] = ids[i];
+            p.setArray(1, c.createArrayOf("integer", boxed));
+
+            try (ResultSet r = p.executeQuery()) {
+                QuestionStreamMapper mapper = new QuestionStreamMapper(r, c, categories);
+                Question q;
+                while ((q = mapper.next()) != null) {
+                    questions.add(q);
+                }
+            }
+        }
+        return questions;
+    }
+
+    /**
+     * Streams every playable question matching the filters to {@code action}, in id order,
+     * straight from the database (bypassing the cache). Rows are fetched with a server-side
+     * cursor in chunks of db.fetchSize, so memory stays constant regardless of bank size.
+     */
+    @Override
+    public void forEachQuestion(Integer categoryId, String difficulty, Consumer<Question> action) throws SQLException {
+        try (Connection c = getConnection(); PreparedStatement p = prepareQuestionStream(c, categoryId, difficulty);
+             ResultSet r = p.executeQuery()) {
+            QuestionStreamMapper mapper = new QuestionStreamMapper(r, c, categories);
+            Question q;
+            while ((q = mapper.next()) != null) {
+                action.accept(q);
+            }
+        }
+    }
+
+    /**
+     * Stream form of {@link #forEachQuestion}. The stream holds a database connection until it
+     * is closed, so always use it in a try-with-resources block. Database errors surface as
+     * {@link UncheckedSQLException}.
+     */
+    @Override
+    public Stream<Question> streamQuestions(Integer categoryId, String difficulty) throws SQLException {
+        Connection c = getConnection();
+        try {
+            PreparedStatement p = prepareQuestionStream(c, categoryId, difficulty);
+            ResultSet r = p.executeQuery();
+            QuestionStreamMapper mapper = new QuestionStreamMapper(r, c, categories);
+
+            Iterator<Question> it = new Iterator<>() {
+                private Question next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        try {
+                            next = mapper.next();
+                        } catch (SQLException e) {
+                            throw new UncheckedSQLException(e);
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public Question next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    Question q = next;
+                    next = null;
+                    return q;
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        try {
+                            c.close(); // Returns the connection to the pool; the pool rolls back the cursor transaction
+                        } catch (SQLException e) {
+                            throw new UncheckedSQLException(e);
+                        }
+                    });
+        } catch (SQLException | RuntimeException e) {
+            c.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Helper to prepare the ordered questions-join-options query used for streaming.
+     * Leaves the connection in a transaction, which PostgreSQL needs for cursor-based fetching.
+     */
+    private PreparedStatement prepareQuestionStream(Connection c, Integer categoryId, String difficulty) throws SQLException {
+        difficulty = normalizeDifficulty(difficulty);
+        c.setAutoCommit(false);
+        PreparedStatement p = c.prepareStatement(SqlCatalog.questionStream(categoryId, difficulty),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        p.setFetchSize(FETCH_SIZE);
+        SqlCatalog.bindFilters(p, 1, categoryId, difficulty);
+        return p;
+    }
+
+    /**
+     * Helper to build the cache entry for a question that was just written.
+     */
+    private static Question buildQuestion(int id, String questionText, List<Option> options,
+                                          Integer categoryId, String categoryName, String difficulty) {
+        Question q = new Question(id, questionText);
+        q.setCategoryId(categoryId);
+        q.setCategory(categoryName);
+        q.setDifficulty(difficulty);
+        for (Option opt : options) {
+            q.addOption(opt);
+        }
+        return q;
+    }
+
+    /**
+     * Queues a score for the background batch writer. The score is spooled to local disk first,
+     * so it is not lost if the application exits before the next flush.
+     * Falls back to {@link #saveScore} if the writer could not be started.
+     */
+    @Override
+    public void submitScore(int userId, int score, int total, Integer categoryId, String difficulty) throws SQLException {
+        if (scoreWriter == null) {
+            saveScore(userId, score, total, categoryId, difficulty);
+            return;
+        }
+        if (!scoreWriter.submit(new ScoreRecord(userId, score, total, categoryId, difficulty, System.currentTimeMillis()))) {
+            throw new SQLException("Score queue is full, score was dropped");
+        }
+    }
+
+    /**
+     * Writes a score synchronously, together with its leaderboard totals.
+     */
+    @Override
+    public void saveScore(int userId, int score, int total, Integer categoryId, String difficulty) throws SQLException {
+        long takenAt = System.currentTimeMillis();
+        ScoreAggregates aggregates = new ScoreAggregates();
+        aggregates.add(new ScoreRecord(userId, score, total, categoryId, difficulty, takenAt));
+
+        try (Connection c = getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement p = c.prepareStatement(SqlCatalog.INSERT_SCORE)) {
+                p.setInt(1, userId);
+                p.setInt(2, score);
+                p.setInt(3, total);
+                if (categoryId != null) p.setInt(4, categoryId);
+                else p.setNull(4, Types.INTEGER);
+                p.setString(5, difficulty);
+                p.setTimestamp(6, new Timestamp(takenAt));
+                p.executeUpdate();
+                aggregates.apply(c);
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Waits up to timeoutMs for queued scores to reach the database, so that boards read
+     * afterwards include them. Returns true if nothing is left to write.
+     */
+    @Override
+    public boolean awaitScoresWritten(long timeoutMs) throws InterruptedException {
+        boolean flushed = scoreWriter == null || scoreWriter.awaitFlushed(timeoutMs);
+        if (flushed) leaderboards.clear();
+        return flushed;
+    }
+
+    // --- Leaderboard ---
+
+    /**
+     * Gets the top players of one board, best first. A null category or difficulty means the board
+     * across all of them. Reads the incrementally maintained leaderboard table through its rank index,
+     * so the cost depends on the limit, not on the number of scores. Pages are cached for
+     * leaderboard.cacheMs.
+     */
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(LeaderboardPeriod period, String categoryName,
+                                                 String difficulty, int limit) throws SQLException {
+        LocalDate start = period.startOf(LocalDate.now());
+        String key = period.getKey() + '|' + start + '|' + categoryName + '|' + difficulty + '|' + limit;
+        List<LeaderboardEntry> cached = leaderboards.get(key);
+        if (cached != null) return cached;
+
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        try (Connection c = getConnection()) {
+            Integer categoryId = leaderboardCategoryId(c, categoryName);
+            if (categoryId == null) return entries;
+            try (PreparedStatement p = c.prepareStatement(SqlCatalog.LEADERBOARD_TOP)) {
+                p.setString(1, period.getKey());
+                p.setDate(2, Date.valueOf(start));
+                p.setInt(3, categoryId);
+                p.setString(4, ScoreAggregates.boardDifficulty(difficulty));
+                p.setInt(5, limit);
+                try (ResultSet r = p.executeQuery()) {
+                    int rank = 0;
+                    long previousPoints = -1;
+                    while (r.next()) {
+                        long points = r.getLong(3);
+                        // Competition ranking: ties share a rank and the next rank skips ahead
+                        if (points != previousPoints) rank = entries.size() + 1;
+                        previousPoints = points;
+                        entries.add(new LeaderboardEntry(rank, r.getInt(1), r.getString(2), points, r.getLong(4), r.getInt(5)));
+                    }
+                }
+            }
+        }
+        CallCounters.addRows(entries.size());
+        leaderboards.put(key, entries);
+        return entries;
+    }
+
+    /**
+     * Gets one player's standing on a board, or null if they have no score in it yet.
+     * The rank is one more than the number of players with more points (an index range count).
+     */
+    @Override
+    public LeaderboardEntry getUserRank(int userId, LeaderboardPeriod period, String categoryName,
+                                        String difficulty) throws SQLException {
+        try (Connection c = getConnection()) {
+            Integer categoryId = leaderboardCategoryId(c, categoryName);
+            if (categoryId == null) return null;
+            try (PreparedStatement p = c.prepareStatement(SqlCatalog.LEADERBOARD_USER_RANK)) {
+                p.setString(1, period.getKey());
+                p.setDate(2, Date.valueOf(period.startOf(LocalDate.now())));
+                p.setInt(3, categoryId);
+                p.setString(4, ScoreAggregates.boardDifficulty(difficulty));
+                p.setInt(5, userId);
+                try (ResultSet r = p.executeQuery()) {
+                    if (!r.next()) return null;
+                    return new LeaderboardEntry(r.getInt(5), userId, r.getString(1), r.getLong(2), r.getLong(3), r.getInt(4));
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper to map a category name to its board's category id; null if the category doesn't exist.
+     */
+    private Integer leaderboardCategoryId(Connection c, String categoryName) throws SQLException {
+        if (categoryName == null) return ScoreAggregates.ALL_CATEGORIES;
+        return categories.idOf(c, categoryName);
+    }
+
+    // --- Player History ---
+
+    /**
+     * Gets one page of a player's finished quizzes, newest first. Pass the last attempt of the
+     * previous page as {@code after} (null for the first page); pages are keyset-paginated on
+     * (taken_at, id), so deep pages cost the same as the first.
+     */
+    @Override
+    public List<ScoreAttempt> getUserHistory(int userId, ScoreAttempt after, int limit) throws SQLException {
+        String sql = after == null ? SqlCatalog.HISTORY_FIRST_PAGE : SqlCatalog.HISTORY_NEXT_PAGE;
+        List<ScoreAttempt> attempts = new ArrayList<>();
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+            int i = 1;
+            p.setInt(i++, userId);
+            if (after != null) {
+                p.setTimestamp(i++, Timestamp.from(after.getTakenAt()));
+                p.setInt(i++, after.getId());
+            }
+            p.setInt(i, limit);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) {
+                    int categoryId = r.getInt(4);
+                    String category = r.wasNull() ? null : categories.nameOf(c, categoryId);
+                    attempts.add(new ScoreAttempt(r.getInt(1), r.getInt(2), r.getInt(3), category,
+                            normalizeDifficulty(r.getString(5)), r.getTimestamp(6).toInstant()));
+                }
+            }
+        }
+        CallCounters.addRows(attempts.size());
+        return attempts;
+    }
+
+    /**
+     * Gets a player's all-time totals, or null if they have not finished a quiz yet.
+     * Reads a single rollup row, however many attempts the player has.
+     */
+    @Override
+    public ProgressStats getUserTotals(int userId) throws SQLException {
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.USER_TOTALS)) {
+            p.setInt(1, userId);
+            p.setString(2, LeaderboardPeriod.ALL_TIME.getKey());
+            p.setInt(3, ScoreAggregates.ALL_CATEGORIES);
+            p.setString(4, ScoreAggregates.ALL_DIFFICULTIES);
+            try (ResultSet r = p.executeQuery()) {
+                if (!r.next()) return null;
+                return new ProgressStats(LeaderboardPeriod.ALL_TIME.toString(), r.getLong(1), r.getLong(2), r.getInt(3));
+            }
+        }
+    }
+
+    /**
+     * Gets a player's totals per day for the last {@code days} days, oldest first.
+     * Days without a finished quiz are left out.
+     */
+    @Override
+    public List<ProgressStats> getUserDailyProgress(int userId, int days) throws SQLException {
+        List<ProgressStats> progress = new ArrayList<>();
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.USER_DAILY_PROGRESS)) {
+            p.setInt(1, userId);
+            p.setString(2, LeaderboardPeriod.DAY.getKey());
+            p.setInt(3, ScoreAggregates.ALL_CATEGORIES);
+            p.setString(4, ScoreAggregates.ALL_DIFFICULTIES);
+            p.setDate(5, Date.valueOf(LocalDate.now().minusDays(days - 1L)));
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) {
+                    progress.add(new ProgressStats(r.getDate(1).toLocalDate().toString(), r.getLong(2), r.getLong(3), r.getInt(4)));
+                }
+            }
+        }
+        CallCounters.addRows(progress.size());
+        return progress;
+    }
+
+    /**
+     * Gets a player's all-time totals per category, most played first.
+     * Mixed quizzes only count towards {@link #getUserTotals}.
+     */
+    @Override
+    public List<ProgressStats> getUserCategoryProgress(int userId) throws SQLException {
+        List<ProgressStats> progress = new ArrayList<>();
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.USER_CATEGORY_PROGRESS)) {
+            p.setInt(1, userId);
+            p.setString(2, LeaderboardPeriod.ALL_TIME.getKey());
+            p.setString(3, ScoreAggregates.ALL_DIFFICULTIES);
+            p.setInt(4, ScoreAggregates.ALL_CATEGORIES);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) {
+                    String category = categories.nameOf(c, r.getInt(1));
+                    progress.add(new ProgressStats(category == null ? "(deleted)" : category,
+                            r.getLong(2), r.getLong(3), r.getInt(4)));
+                }
+            }
+        }
+        CallCounters.addRows(progress.size());
+        return progress;
+    }
+
+    // --- Admin Panel - Question Management ---
+
+    /**
+     * [NEW] Gets all questions with category and difficulty for the admin table.
+     */
+    @Override
+    public List<Question> getAllQuestionsWithMeta() throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        String sql = "SELECT q.id, q.question_text, q.category_id, q.difficulty, q.version " +
+                     "FROM questions q " +
+                     "ORDER BY q.id";
+        
+        try (Connection c = getConnection();
+             PreparedStatement p = c.prepareStatement(sql);
+             ResultSet r = p.executeQuery()) {
+            
+            while (r.next()) {
+                questions.add(readQuestionMeta(c, r));
+            }
+        }
+        CallCounters.addRows(questions.size());
+        return questions;
+    }
+
+    /**
+     * Gets one page of questions for the admin table using keyset pagination.
+     * Returns up to {@code limit} questions with an id greater than {@code afterId}, ordered by id.
+     */
+    @Override
+    public List<Question> getQuestionsPage(QuestionFilter filter, int afterId, int limit) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+            "SELECT q.id, q.question_text, q.category_id, q.difficulty, q.version " +
+            "FROM questions q " +
+            "WHERE q.id > ?"
+        );
+        params.add(afterId);
+
+        try (Connection c = getConnection()) {
+            appendFilter(c, sql, params, filter);
+            sql.append(" ORDER BY q.id LIMIT ?");
+            params.add(limit);
+            try (PreparedStatement p = c.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    p.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet r = p.executeQuery()) {
+                    while (r.next()) {
+                        questions.add(readQuestionMeta(c, r));
+                    }
+                }
+            }
+        }
+        CallCounters.addRows(questions.size());
+        return questions;
+    }
+
+    /**
+     * Counts the questions matching the filter.
+     */
+    @Override
+    public int countQuestions(QuestionFilter filter) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM questions q WHERE TRUE");
+
+        try (Connection c = getConnection()) {
+            appendFilter(c, sql, params, filter);
+            try (PreparedStatement p = c.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    p.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet r = p.executeQuery()) {
+                    return r.next() ? r.getInt(1) : 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the id of the question at a 0-based position in the filtered id order.
+     * Used to find the keyset anchor when the admin table jumps straight to a later page.
+     * Only ids are scanned, so this stays cheap compared to an OFFSET over full rows.
+     */
+    @Override
+    public Integer getQuestionIdAtOffset(QuestionFilter filter, int offset) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT q.id FROM questions q WHERE TRUE");
+
+        try (Connection c = getConnection()) {
+            appendFilter(c, sql, params, filter);
+            sql.append(" ORDER BY q.id OFFSET ? LIMIT 1");
+            params.add(offset);
+            try (PreparedStatement p = c.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    p.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet r = p.executeQuery()) {
+                    return r.next() ? r.getInt(1) : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper to append the admin filter conditions (each prefixed with AND) to a query on "questions q".
+     * The category name is resolved to its id in memory; an unknown category matches nothing.
+     */
+    private void appendFilter(Connection c, StringBuilder sql, List<Object> params, QuestionFilter filter) throws SQLException {
+        if (filter == null) return;
+        if (filter.getCategory() != null) {
+            Integer categoryId = categories.idOf(c, filter.getCategory());
+            if (categoryId == null) {
+                sql.append(" AND FALSE");
+            } else {
+                sql.append(" AND q.category_id = ?");
+                params.add(categoryId);
+            }
+        }
+        if (filter.getDifficulty() != null) {
+            sql.append(" AND q.difficulty = ?");
+            params.add(filter.getDifficulty());
+        }
+        if (filter.getText() != null) {
+            sql.append(" AND q.question_text ILIKE ? ESCAPE '\\'");
+            params.add("%" + escapeLike(filter.getText()) + "%");
+        }
+    }
+
+    /**
+     * Helper to read a question row (id, question_text, category_id, difficulty, version) without options.
+     */
+    private Question readQuestionMeta(Connection c, ResultSet r) throws SQLException {
+        Question q = new Question(r.getInt("id"), r.getString("question_text"));
+        int categoryId = r.getInt("category_id");
+        q.setCategoryId(r.wasNull() ? null : categoryId);
+        q.setCategory(categories.nameOf(c, q.getCategoryId()));
+        q.setDifficulty(r.getString("difficulty"));
+        q.setVersion(r.getInt("version"));
+        return q;
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * [NEW] Gets a single question's metadata (no options) by ID.
+     */
+    @Override
+    public Question getQuestionById(int questionId) throws SQLException {
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.QUESTION_META_BY_ID)) {
+            p.setInt(1, questionId);
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) {
+                    return readQuestionMeta(c, r);
+                }
+            }
+        }
+        return null; // Not found
+    }
+
+    /**
+     * [NEW] Gets all options for a specific question ID.
+     */
+    @Override
+    public List<Option> getOptionsForQuestion(int questionId) throws SQLException {
+        List<Option> options = new ArrayList<>();
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.OPTIONS_BY_QUESTION)) {
+            p.setInt(1, questionId);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) {
+                    options.add(new Option(r.getInt("id"), r.getString("option_text"), r.getBoolean("is_correct")));
+                }
+            }
+        }
+        CallCounters.addRows(options.size());
+        return options;
+    }
+    
+    /**
+     * Loads the category names and, if questionId is not -1, the question with its options,
+     * for the question editor. Categories come from the category dictionary; the question and
+     * option queries are sent together on one connection, so opening the editor costs at most
+     * a single round trip.
+     */
+    @Override
+    public EditorData getEditorData(int questionId) throws SQLException {
+        if (questionId == -1) {
+            return new EditorData(categories.names(), null);
+        }
+        Question question = null;
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(SqlCatalog.EDITOR_DATA)) {
+            p.setInt(1, questionId);
+            p.setInt(2, questionId);
+            p.execute();
+
+            try (ResultSet r = p.getResultSet()) {
+                if (r.next()) {
+                    question = readQuestionMeta(c, r);
+                }
+            }
+            if (p.getMoreResults()) {
+                try (ResultSet r = p.getResultSet()) {
+                    while (r.next()) {
+                        if (question != null) {
+                            question.addOption(new Option(r.getInt("id"), r.getString("option_text"), r.getBoolean("is_correct")));
+                        }
+                    }
+                }
+            }
+        }
+        return new EditorData(categories.names(), question);
+    }
+
+    /**
+     * [NEW] Adds a new question and its options in a transaction.
+     */
+    @Override
+    public void addQuestion(String questionText, List<Option> options, String categoryName, String difficulty) throws SQLException {
+        String sqlQuestion = "INSERT INTO questions (question_text, category_id, difficulty) VALUES (?, ?, ?)";
+        String sqlOption = "INSERT INTO options (question_id, option_text, is_correct) VALUES (?, ?, ?)";
+        
+        Connection c = null;
+        try {
+            c = getConnection();
+            c.setAutoCommit(false); // Start transaction
+            
+            // Get category ID
+            Integer categoryId = getCategoryIdByName(c, categoryName);
+            if (categoryId == null) {
+                throw new SQLException("Invalid category name: " + categoryName);
+            }
+
+            // Insert question and get generated ID
+            int newQuestionId;
+            try (PreparedStatement p = c.prepareStatement(sqlQuestion, Statement.RETURN_GENERATED_KEYS)) {
+                p.setString(1, questionText);
+                p.setInt(2, categoryId);
+                p.setString(3, difficulty);
+                p.executeUpdate();
+                try (ResultSet rs = p.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        newQuestionId = rs.getInt(1);
+                    } else {
+                        throw new SQLException("Failed to create question, no ID obtained.");
+                    }
+                }
+            }
+            
+            // Insert options
+            try (PreparedStatement p = c.prepareStatement(sqlOption)) {
+                for (Option opt : options) {
+                    p.setInt(1, newQuestionId);
+                    p.setString(2, opt.getText());
+                    p.setBoolean(3, opt.isCorrect());
+                    p.addBatch();
+                }
+                p.executeBatch();
+            }
+
+            BankChangeListener.publishQuestionChanged(c, INSTANCE_ID, newQuestionId, categoryId, difficulty);
+            c.commit(); // Commit transaction
+            cache.put(buildQuestion(newQuestionId, questionText, options, categoryId, categoryName.intern(), difficulty));
+            
+        } catch (SQLException e) {
+            if (c != null) c.rollback(); // Rollback on error
+            throw e;
+        } finally {
+            if (c != null) {
+                c.setAutoCommit(true);
+                c.close();
+            }
+        }
+    }
+
+    /**
+     * Updates a question and its options in a transaction, writing only what changed.
+     * Options are matched by id: changed ones are updated in place, options without an id are
+     * inserted and stored options missing from the list are deleted. If nothing changed at all,
+     * nothing is written.
+     *
+     * <p>Concurrency is optimistic: {@code expectedVersion} is the version the caller loaded, and
+     * the update is rejected with {@link StaleQuestionException} if the question has changed since.
+     * Returns the question's version after the update.</p>
+     */
+    @Override
+    public int updateQuestion(int questionId, int expectedVersion, String questionText, List<Option> options,
+                              String categoryName, String difficulty) throws SQLException {
+        String sqlCurrent = "SELECT q.question_text, q.category_id, q.difficulty, q.version FROM questions q WHERE q.id = ?; " +
+                            "SELECT id, option_text, is_correct FROM options WHERE question_id = ? ORDER BY id";
+        String sqlUpdateQuestion = "UPDATE questions SET question_text = ?, category_id = ?, difficulty = ?, version = version + 1 " +
+                                   "WHERE id = ? AND version = ?";
+        String sqlUpdateOption = "UPDATE options SET option_text = ?, is_correct = ? WHERE id = ? AND question_id = ?";
+        String sqlInsertOption = "INSERT INTO options (question_id, option_text, is_correct) VALUES (?, ?, ?)";
+        String sqlDeleteOptions = "DELETE FROM options WHERE question_id = ? AND id = ANY(?)";
+
+        Connection c = null;
+        try {
+            c = getConnection();
+            c.setAutoCommit(false); // Start transaction
+
+            // Get category ID
+            Integer categoryId = getCategoryIdByName(c, categoryName);
+            if (categoryId == null) {
+                throw new SQLException("Invalid category name: " + categoryName);
+            }
+
+            // 1. Read the current row and options (one round trip) and check the version
+            boolean questionChanged;
+            Map<Integer, Option> stored = new HashMap<>();
+            try (PreparedStatement p = c.prepareStatement(sqlCurrent)) {
+                p.setInt(1, questionId);
+                p.setInt(2, questionId);
+                p.execute();
+                try (ResultSet r = p.getResultSet()) {
+                    if (!r.next()) {
+                        throw new StaleQuestionException("This question has been deleted by someone else.");
+                    }
+                    if (r.getInt("version") != expectedVersion) {
+                        throw new StaleQuestionException("This question was changed by someone else. Reopen it to see the latest version.");
+                    }
+                    questionChanged = !Objects.equals(r.getString("question_text"), questionText)
+                            || r.getInt("category_id") != categoryId
+                            || !Objects.equals(r.getString("difficulty"), difficulty);
+                }
+                if (p.getMoreResults()) {
+                    try (ResultSet r = p.getResultSet()) {
+                        while (r.next()) {
+                            int id = r.getInt("id");
+                            stored.put(id, new Option(id, r.getString("option_text"), r.getBoolean("is_correct")));
+                        }
+                    }
+                }
+            }
+
+            // 2. Diff the options
+            List<Option> changed = new ArrayList<>();
+            List<Option> added = new ArrayList<>();
+            Map<Integer, Option> removed = new HashMap<>(stored);
+            for (Option opt : options) {
+                Option old = opt.getId() == 0 ? null : removed.remove(opt.getId());
+                if (old == null) {
+                    added.add(opt);
+                } else if (!old.getText().equals(opt.getText()) || old.isCorrect() != opt.isCorrect()) {
+                    changed.add(opt);
+                }
+            }
+
+            if (!questionChanged && changed.isEmpty() && added.isEmpty() && removed.isEmpty()) {
+                c.commit();
+                return expectedVersion; // No-op edit
+            }
+
+            // 3. Bump the version; this also takes the row lock, so a concurrent editor fails here
+            try (PreparedStatement p = c.prepareStatement(sqlUpdateQuestion)) {
+                p.setString(1, questionText);
+                p.setInt(2, categoryId);
+                p.setString(3, difficulty);
+                p.setInt(4, questionId);
+                p.setInt(5, expectedVersion);
+                if (p.executeUpdate() == 0) {
+                    throw new StaleQuestionException("This question was changed by someone else. Reopen it to see the latest version.");
+                }
+            }
+
+            // 4. Write only the option differences
+            if (!changed.isEmpty()) {
+                try (PreparedStatement p = c.prepareStatement(sqlUpdateOption)) {
+                    for (Option opt : changed) {
+                        p.setString(1, opt.getText());
+                        p.setBoolean(2, opt.isCorrect());
+                        p.setInt(3, opt.getId());
+                        p.setInt(4, questionId);
+                        p.addBatch();
+                    }
+                    p.executeBatch();
+                }
+            }
+            if (!removed.isEmpty()) {
+                try (PreparedStatement p = c.prepareStatement(sqlDeleteOptions)) {
+                    p.setInt(1, questionId);
+                    p.setArray(2, c.createArrayOf("integer", removed.keySet().toArray()));
+                    p.executeUpdate();
+                }
+            }
+            if (!added.isEmpty()) {
+                try (PreparedStatement p = c.prepareStatement(sqlInsertOption)) {
+                    for (Option opt : added) {
+                        p.setInt(1, questionId);
+                        p.setString(2, opt.getText());
+                        p.setBoolean(3, opt.isCorrect());
+                        p.addBatch();
+                    }
+                    p.executeBatch();
+                }
+            }
+
+            BankChangeListener.publishQuestionChanged(c, INSTANCE_ID, questionId, categoryId, difficulty);
+            c.commit(); // Commit transaction
+            cache.put(buildQuestion(questionId, questionText, options, categoryId, categoryName.intern(), difficulty));
+            return expectedVersion + 1;
+
+        } catch (SQLException e) {
+            if (c != null) c.rollback();
+            throw e;
+        } finally {
+            if (c != null) {
+                c.setAutoCommit(true);
+                c.close();
+            }
+        }
+    }
+    
+    /**
+     * Bulk-imports a CSV or NDJSON question file (see {@link ImportFormat}) in one transaction.
+     * Missing categories are created. Invalid records are skipped and listed in the result;
+     * any other failure (or interrupting the calling thread) rolls the whole import back.
+     */
+    @Override
+    public ImportResult importQuestions(Path file, ImportFormat format, ImportListener listener) throws SQLException, IOException {
+        return importQuestions(file, format, false, listener);
+    }
+
+    /**
+     * Streams the whole bank like {@link #forEachQuestion}, but with a left join so that
+     * questions without options are included.
+     */
+    @Override
+    public void exportQuestions(Consumer<Question> action) throws SQLException {
+        String sql = "SELECT " + QuestionStreamMapper.COLUMNS + " " +
+                "FROM questions q LEFT JOIN options o ON q.id = o.question_id " +
+                "ORDER BY q.id, o.id";
+        try (Connection c = getConnection()) {
+            c.setAutoCommit(false); // PostgreSQL only fetches through a cursor inside a transaction
+            try (PreparedStatement p = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                p.setFetchSize(FETCH_SIZE);
+                try (ResultSet r = p.executeQuery()) {
+                    QuestionStreamMapper mapper = new QuestionStreamMapper(r, c, categories);
+                    Question q;
+                    while ((q = mapper.next()) != null) {
+                        action.accept(q);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores an export written by {@link com.quizapp.io.BankExporter}. With {@code replace}, the
+     * existing questions and options are deleted in the same transaction, so players keep seeing
+     * the old bank until the new one is committed. Categories are kept and matched by name.
+     */
+    @Override
+    public ImportResult restoreBank(Path file, boolean replace, ImportListener listener) throws SQLException, IOException {
+        return importQuestions(file, ImportFormat.NDJSON, replace, listener);
+    }
+
+    private ImportResult importQuestions(Path file, ImportFormat format, boolean replace, ImportListener listener)
+            throws SQLException, IOException {
+        BulkImporter importer = new BulkImporter(IMPORT_WORKERS, IMPORT_CHUNK_SIZE);
+        ImportResult result;
+        try (Connection c = getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                if (replace) {
+                    // DELETE rather than TRUNCATE: TRUNCATE would lock out readers until commit
+                    try (Statement s = c.createStatement()) {
+                        s.executeUpdate("DELETE FROM options");
+                        s.executeUpdate("DELETE FROM questions");
+                    }
+                }
+                result = importer.importFile(c, file, format, listener);
+                BankChangeListener.publishBankReloaded(c, INSTANCE_ID);
+                c.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+        categories.invalidate();
+        cache.clear();
+        return result;
+    }
+
+    /**
+     * [NEW] Deletes a question. Options are deleted automatically by "ON DELETE CASCADE".
+     */
+    @Override
+    public void deleteQuestion(int questionId) throws SQLException {
+        String sql = "DELETE FROM questions WHERE id = ?";
+        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+            c.setAutoCommit(false);
+            try {
+                p.setInt(1, questionId);
+                p.executeUpdate();
+                BankChangeListener.publishQuestionDeleted(c, INSTANCE_ID, questionId);
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+        cache.remove(questionId);
+    }
+}
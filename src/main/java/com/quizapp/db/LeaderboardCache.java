@@ -0,0 +1,62 @@
+package com.quizapp.db;
+
+import com.quizapp.model.LeaderboardEntry;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps recently read leaderboard pages for a short time, so many players opening the
+ * same board (e.g. at the end of a class quiz) cost one query instead of one each.
+ * Boards change with every score, so entries simply expire rather than being invalidated.
+ */
+class LeaderboardCache {
+
+    private static final class Entry {
+        final List<LeaderboardEntry> rows;
+        final long loadedAt;
+
+        Entry(List<LeaderboardEntry> rows, long loadedAt) {
+            this.rows = rows;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxEntries;
+
+    LeaderboardCache(long ttlMs, int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached page for the key, or null if there is none or it has expired.
+     */
+    List<LeaderboardEntry> get(String key) {
+        if (ttlMs <= 0) return null;
+        Entry e = entries.get(key);
+        if (e == null) return null;
+        if (System.currentTimeMillis() - e.loadedAt > ttlMs) {
+            entries.remove(key, e);
+            return null;
+        }
+        return e.rows;
+    }
+
+    void put(String key, List<LeaderboardEntry> rows) {
+        if (ttlMs <= 0) return;
+        if (entries.size() >= maxEntries) {
+            // Rare (one entry per board and page size); drop expired pages, or everything if none has expired
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> now - e.loadedAt > ttlMs);
+            if (entries.size() >= maxEntries) entries.clear();
+        }
+        entries.put(key, new Entry(List.copyOf(rows), System.currentTimeMillis()));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+}
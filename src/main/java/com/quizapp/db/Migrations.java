@@ -0,0 +1,181 @@
+package com.quizapp.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies the versioned SQL scripts under /db/migration in order and records them in schema_version.
+ * A session advisory lock keeps several clients starting at once from migrating concurrently.
+ */
+class Migrations {
+
+    /** Migration scripts in the order they must be applied. File names are V{version}__{description}.sql. */
+    private static final String[] SCRIPTS = {
+        "V1__hot_path_indexes.sql",
+        "V2__question_version.sql",
+        "V3__leaderboard.sql",
+        "V4__user_history.sql",
+        "V5__score_spool.sql",
+    };
+
+    // Arbitrary key for pg_advisory_lock, shared by every client of this schema
+    private static final long LOCK_KEY = 0x5157495A4D4947L;
+
+    private Migrations() {
+    }
+
+    /**
+     * Applies every pending migration. Returns the number of scripts applied.
+     */
+    static int migrate(Connection c) throws SQLException {
+        try (Statement s = c.createStatement()) {
+            s.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                      "version INT PRIMARY KEY, " +
+                      "description TEXT NOT NULL, " +
+                      "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+
+        lock(c, true);
+        try {
+            Set<Integer> applied = new HashSet<>();
+            try (Statement s = c.createStatement(); ResultSet r = s.executeQuery("SELECT version FROM schema_version")) {
+                while (r.next()) applied.add(r.getInt(1));
+            }
+
+            int count = 0;
+            for (String script : SCRIPTS) {
+                int version = versionOf(script);
+                if (applied.contains(version)) continue;
+                apply(c, script, version);
+                count++;
+            }
+            return count;
+        } finally {
+            lock(c, false);
+        }
+    }
+
+    private static void apply(Connection c, String script, int version) throws SQLException {
+        String sql = load(script);
+        c.setAutoCommit(false);
+        try {
+            try (Statement s = c.createStatement()) {
+                s.execute(sql);
+            }
+            try (PreparedStatement p = c.prepareStatement("INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                p.setInt(1, version);
+                p.setString(2, descriptionOf(script));
+                p.executeUpdate();
+            }
+            c.commit();
+            System.out.println("Applied migration " + script);
+        } catch (SQLException e) {
+            c.rollback();
+            throw new SQLException("Migration " + script + " failed: " + e.getMessage(), e);
+        } finally {
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static void lock(Connection c, boolean acquire) throws SQLException {
+        try (PreparedStatement p = c.prepareStatement(acquire ? "SELECT pg_advisory_lock(?)" : "SELECT pg_advisory_unlock(?)")) {
+            p.setLong(1, LOCK_KEY);
+            p.execute();
+        }
+    }
+
+    private static String load(String script) throws SQLException {
+        try (InputStream in = Migrations.class.getResourceAsStream("/db/migration/" + script)) {
+            if (in == null) throw new SQLException("Missing migration script on classpath: " + script);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Could not read migration " + script, e);
+        }
+    }
+
+    static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String descriptionOf(String script) {
+        return script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' ');
+    }
+
+    // --- Query plan checks ---
+
+    /**
+     * A hot repository query and the index it is expected to use.
+     */
+    private static final class PlanCheck {
+        final String name;
+        final String sql;
+        final Object[] params;
+        final String expectedIndex;
+
+        PlanCheck(String name, String sql, String expectedIndex, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+            this.expectedIndex = expectedIndex;
+        }
+    }
+
+    // The statements the repository runs (see SqlCatalog), so the check covers their exact text
+    private static final PlanCheck[] PLAN_CHECKS = {
+        new PlanCheck("options by question", SqlCatalog.OPTIONS_BY_QUESTION,
+                "idx_options_question_id", 1),
+        new PlanCheck("quiz ids by category and difficulty", SqlCatalog.playableIds(1, "easy"),
+                "idx_questions_category_difficulty", 1, "easy"),
+        new PlanCheck("player score history page", SqlCatalog.HISTORY_NEXT_PAGE,
+                "idx_scores_user_history", 1, new Timestamp(0), 1, 20),
+        new PlanCheck("leaderboard top players", SqlCatalog.LEADERBOARD_TOP,
+                "idx_leaderboard_rank", "week", Date.valueOf("1970-01-05"), 0, "", 50),
+        new PlanCheck("player daily rollup", SqlCatalog.USER_DAILY_PROGRESS,
+                "idx_leaderboard_user", 1, "day", 0, "", Date.valueOf("1970-01-01")),
+    };
+
+    /**
+     * Runs EXPLAIN on each hot query and returns a description of every query whose plan
+     * does not use its expected index. An empty list means all checks passed.
+     * Sequential scans are disabled for the check so small test tables don't hide a missing index.
+     */
+    static List<String> checkQueryPlans(Connection c) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        c.setAutoCommit(false);
+        try {
+            try (Statement s = c.createStatement()) {
+                s.execute("SET LOCAL enable_seqscan = off");
+            }
+            for (PlanCheck check : PLAN_CHECKS) {
+                StringBuilder plan = new StringBuilder();
+                try (PreparedStatement p = c.prepareStatement("EXPLAIN " + check.sql)) {
+                    for (int i = 0; i < check.params.length; i++) {
+                        p.setObject(i + 1, check.params[i]);
+                    }
+                    try (ResultSet r = p.executeQuery()) {
+                        while (r.next()) plan.append(r.getString(1)).append('\n');
+                    }
+                }
+                if (!plan.toString().contains(check.expectedIndex)) {
+                    problems.add(check.name + ": expected index " + check.expectedIndex + " but plan was:\n" + plan);
+                }
+            }
+        } finally {
+            c.rollback();
+            c.setAutoCommit(true);
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,472 @@
+package com.quizapp.db;
+
+import com.quizapp.metrics.CallCounters;
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A local copy of the question bank in a compact binary file, read through a memory mapping,
+ * so quizzes can be drawn without the database (when it is down or overloaded).
+ * Opening a snapshot only reads the header; questions are decoded when drawn.
+ *
+ * <p>File layout (all integers big-endian):</p>
+ * <pre>
+ * header:  magic, formatVersion, bankFingerprint (long), createdAt (long), count, stringsOffset, indexOffset
+ * records: per question: textLength, text (UTF-8), optionCount (byte), per option: correct (byte), length, text
+ * strings: count, per string: length, UTF-8 bytes        (category names and difficulties)
+ * index:   per question, sorted by (categoryId, difficulty, id): id, categoryId (-1 if none), difficulty (u16 string),
+ *          category (u16 string), recordOffset
+ * </pre>
+ * Since the index is sorted by filter, the questions matching any (category, difficulty) filter
+ * are one run of index entries, or one run per category when only the difficulty is set. Loading
+ * records these runs once, so a draw reads only the entries it picks.
+ * Each rebuild goes to a new file named after the bank fingerprint and build time, e.g.
+ * {@code questions-<fingerprint>-<createdAt>.snapshot}, so a reader never sees a partial file and the
+ * mapped file is never replaced (Windows refuses to replace or delete a file while it is mapped).
+ * Older files are deleted best-effort once the new one is mapped, and again at the next load.
+ */
+class OfflineSnapshot {
+
+    interface QuestionSource {
+        /** Streams every playable question, in id order. */
+        void forEach(Consumer<Question> action) throws SQLException;
+    }
+
+    private static final int MAGIC = 0x515A534E; // "QZSN"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 36;
+    private static final int INDEX_ENTRY_SIZE = 16;
+    private static final int NO_STRING = 0xFFFF;
+
+    /**
+     * The index entries matching one filter: runs of consecutive entries, numbered 0..size-1 across the runs.
+     */
+    private static final class Ranges {
+        int[] starts = new int[1]; // first entry of each run
+        int[] before = new int[1]; // entries in the runs before each run
+        int runs;
+        int size;
+
+        void add(int from, int to) {
+            if (runs > 0 && starts[runs - 1] + (size - before[runs - 1]) == from) {
+                size += to - from; // Continues the last run
+                return;
+            }
+            if (runs == starts.length) {
+                starts = Arrays.copyOf(starts, runs * 2);
+                before = Arrays.copyOf(before, runs * 2);
+            }
+            starts[runs] = from;
+            before[runs] = size;
+            runs++;
+            size += to - from;
+        }
+
+        /** Index entry number of the k-th matching entry. */
+        int entry(int k) {
+            int run = Arrays.binarySearch(before, 0, runs, k);
+            if (run < 0) run = -run - 2;
+            return starts[run] + k - before[run];
+        }
+    }
+
+    private static final class Mapped {
+        final Path path;
+        final MappedByteBuffer buf;
+        final long fingerprint;
+        final long createdAt;
+        final int count;
+        final String[] strings;
+        final int indexOffset;
+        final Map<String, Ranges> ranges;
+
+        Mapped(Path path, MappedByteBuffer buf, long fingerprint, long createdAt, int count, String[] strings,
+               int indexOffset, Map<String, Ranges> ranges) {
+            this.path = path;
+            this.buf = buf;
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+            this.count = count;
+            this.strings = strings;
+            this.indexOffset = indexOffset;
+            this.ranges = ranges;
+        }
+    }
+
+    private final Path dir;
+    // Snapshot files are <prefix>-<fingerprint>-<createdAt><suffix>; <prefix><suffix> is the unversioned file of older releases
+    private final String prefix;
+    private final String suffix;
+    private volatile Mapped current;
+
+    /**
+     * @param file the snapshot's base name, e.g. ~/.quizapp/questions.snapshot
+     */
+    OfflineSnapshot(Path file) {
+        this.dir = file.toAbsolutePath().getParent();
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.prefix = dot > 0 ? name.substring(0, dot) : name;
+        this.suffix = dot > 0 ? name.substring(dot) : "";
+    }
+
+    /**
+     * Maps the newest valid snapshot file and deletes the older ones. Returns false (and keeps any
+     * previous mapping) if there is none, or they are all from another format version or damaged.
+     */
+    boolean load() {
+        for (Path path : snapshotFiles()) {
+            Mapped m = map(path);
+            if (m != null) {
+                current = m;
+                deleteAllBut(path);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Snapshot files in the directory, newest first.
+     */
+    private List<Path> snapshotFiles() {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path path : stream) {
+                if (Files.isRegularFile(path)) files.add(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not list offline snapshots in " + dir + ": " + e.getMessage());
+        }
+        files.sort(Comparator.comparingLong(OfflineSnapshot::lastModified).reversed());
+        return files;
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Deletes every snapshot file except {@code keep}. A file another reader still maps may not be
+     * deletable yet (on Windows); it is tried again next time.
+     */
+    private void deleteAllBut(Path keep) {
+        for (Path path : snapshotFiles()) {
+            if (path.equals(keep)) continue;
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Still mapped somewhere
+            }
+        }
+    }
+
+    /**
+     * Maps one snapshot file, or returns null if it is from another format version or damaged.
+     */
+    private static Mapped map(Path file) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC || buf.getInt(4) != FORMAT_VERSION) {
+                System.err.println("Offline snapshot " + file + " has an unknown format; ignoring it.");
+                return null;
+            }
+            long fingerprint = buf.getLong(8);
+            long createdAt = buf.getLong(16);
+            int count = buf.getInt(24);
+            int stringsOffset = buf.getInt(28);
+            int indexOffset = buf.getInt(32);
+            if ((long) indexOffset + (long) count * INDEX_ENTRY_SIZE != buf.capacity()) {
+                System.err.println("Offline snapshot " + file + " is truncated; ignoring it.");
+                return null;
+            }
+
+            String[] strings = new String[buf.getInt(stringsOffset)];
+            int pos = stringsOffset + 4;
+            for (int i = 0; i < strings.length; i++) {
+                int len = buf.getInt(pos);
+                strings[i] = readString(buf, pos + 4, len);
+                pos += 4 + len;
+            }
+            Map<String, Ranges> ranges = ranges(buf, count, strings, indexOffset);
+            if (ranges == null) {
+                System.err.println("Offline snapshot " + file + " has an unsorted index; ignoring it.");
+                return null;
+            }
+            return new Mapped(file, buf, fingerprint, createdAt, count, strings, indexOffset, ranges);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not open offline snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String key(Integer categoryId, String difficulty) {
+        return categoryId + "|" + difficulty;
+    }
+
+    /**
+     * Finds the run of index entries for each (category, difficulty) pair and adds it to the ranges of
+     * every filter it matches. Returns null if the index is not sorted by filter.
+     */
+    private static Map<String, Ranges> ranges(MappedByteBuffer buf, int count, String[] strings, int indexOffset) {
+        Map<String, Ranges> ranges = new HashMap<>();
+        int runStart = 0;
+        long runKey = 0;
+        for (int i = 0; i <= count; i++) {
+            long key = Long.MIN_VALUE;
+            if (i < count) {
+                int entry = indexOffset + i * INDEX_ENTRY_SIZE;
+                key = ((long) buf.getInt(entry + 4) << 16) | (buf.getShort(entry + 8) & 0xFFFF);
+                if (i > runStart && key == runKey) continue;
+                if (i > runStart && key < runKey) return null;
+            }
+            if (i > runStart) {
+                int categoryId = (int) (runKey >> 16);
+                int difficultyIdx = (int) (runKey & 0xFFFF);
+                Integer category = categoryId < 0 ? null : categoryId;
+                String difficulty = difficultyIdx == NO_STRING ? null : strings[difficultyIdx];
+                ranges.computeIfAbsent(key(null, null), k -> new Ranges()).add(runStart, i);
+                if (category != null) {
+                    ranges.computeIfAbsent(key(category, null), k -> new Ranges()).add(runStart, i);
+                }
+                if (difficulty != null) {
+                    ranges.computeIfAbsent(key(null, difficulty), k -> new Ranges()).add(runStart, i);
+                    if (category != null) {
+                        ranges.computeIfAbsent(key(category, difficulty), k -> new Ranges()).add(runStart, i);
+                    }
+                }
+            }
+            runStart = i;
+            runKey = key;
+        }
+        return ranges;
+    }
+
+    boolean isLoaded() {
+        return current != null;
+    }
+
+    /**
+     * Fingerprint of the bank the loaded snapshot was built from, or 0 if none is loaded.
+     */
+    long getFingerprint() {
+        Mapped m = current;
+        return m == null ? 0 : m.fingerprint;
+    }
+
+    /**
+     * When the loaded snapshot was built (epoch millis), or 0 if none is loaded.
+     */
+    long getCreatedAt() {
+        Mapped m = current;
+        return m == null ? 0 : m.createdAt;
+    }
+
+    /**
+     * Draws up to n random questions matching the filter (null means any), in random order.
+     * Returns null if no snapshot is loaded.
+     */
+    List<Question> sample(Integer categoryId, String difficulty, int n) {
+        Mapped m = current;
+        if (m == null) return null;
+
+        Ranges r = m.ranges.get(key(categoryId, difficulty));
+        if (r == null) return new ArrayList<>();
+        int[] chosen = QuestionCache.samplePositions(r.size, n);
+        List<Question> questions = new ArrayList<>(chosen.length);
+        for (int k : chosen) {
+            questions.add(readQuestion(m, m.indexOffset + r.entry(k) * INDEX_ENTRY_SIZE));
+        }
+        return questions;
+    }
+
+    private static Question readQuestion(Mapped m, int entry) {
+        MappedByteBuffer buf = m.buf;
+        int id = buf.getInt(entry);
+        int categoryId = buf.getInt(entry + 4);
+        int difficultyIdx = buf.getShort(entry + 8) & 0xFFFF;
+        int categoryIdx = buf.getShort(entry + 10) & 0xFFFF;
+        int start = buf.getInt(entry + 12);
+        int pos = start;
+
+        int textLen = buf.getInt(pos);
+        Question q = new Question(id, readString(buf, pos + 4, textLen));
+        pos += 4 + textLen;
+        q.setCategoryId(categoryId < 0 ? null : categoryId);
+        q.setCategory(categoryIdx == NO_STRING ? null : m.strings[categoryIdx]);
+        q.setDifficulty(difficultyIdx == NO_STRING ? null : m.strings[difficultyIdx]);
+
+        int options = buf.get(pos++) & 0xFF;
+        for (int i = 0; i < options; i++) {
+            boolean correct = buf.get(pos++) != 0;
+            int len = buf.getInt(pos);
+            q.addOption(new Option(readString(buf, pos + 4, len), correct));
+            pos += 4 + len;
+        }
+        CallCounters.addBytesMapped(pos - start);
+        return q.snapshot();
+    }
+
+    private static String readString(MappedByteBuffer buf, int pos, int len) {
+        byte[] bytes = new byte[len];
+        buf.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rebuilds the snapshot from the database into a new file, maps it and deletes the old ones.
+     * Memory use is one small index entry per question; records stream straight to disk.
+     */
+    void rebuild(long fingerprint, QuestionSource source) throws SQLException, IOException {
+        Files.createDirectories(dir);
+        long createdAt = System.currentTimeMillis();
+        Path target = dir.resolve(prefix + "-" + Long.toHexString(fingerprint) + "-" + Long.toHexString(createdAt) + suffix);
+        Path tmp = Files.createTempFile(dir, prefix, ".part");
+        try {
+            Builder b = new Builder();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.write(new byte[HEADER_SIZE]); // Filled in once the offsets are known
+                try {
+                    source.forEach(q -> {
+                        try {
+                            b.add(out, q);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+
+                int stringsOffset = out.size();
+                out.writeInt(b.strings.size());
+                for (String str : b.strings) {
+                    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                int indexOffset = out.size();
+                if (indexOffset < 0 || (long) indexOffset + (long) b.count * INDEX_ENTRY_SIZE > Integer.MAX_VALUE) {
+                    throw new IOException("Question bank is too large for an offline snapshot");
+                }
+                for (int i : b.sortedByFilter()) {
+                    int e = i * Builder.FIELDS;
+                    out.writeInt(b.index[e]);
+                    out.writeInt(b.index[e + 1]);
+                    out.writeShort(b.index[e + 2]);
+                    out.writeShort(b.index[e + 3]);
+                    out.writeInt(b.index[e + 4]);
+                }
+                out.flush();
+
+                try (RandomAccessFile raf = new RandomAccessFile(tmp.toFile(), "rw")) {
+                    raf.writeInt(MAGIC);
+                    raf.writeInt(FORMAT_VERSION);
+                    raf.writeLong(fingerprint);
+                    raf.writeLong(createdAt);
+                    raf.writeInt(b.count);
+                    raf.writeInt(stringsOffset);
+                    raf.writeInt(indexOffset);
+                    raf.getFD().sync();
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        Mapped m = map(target);
+        if (m == null) throw new IOException("Rebuilt offline snapshot " + target + " could not be read back");
+        current = m;
+        deleteAllBut(target);
+    }
+
+    /**
+     * Accumulates the string table and index while records are written.
+     */
+    private static final class Builder {
+        static final int FIELDS = 5; // id, categoryId, difficulty, category, recordOffset
+
+        final List<String> strings = new ArrayList<>();
+        final Map<String, Integer> stringIds = new HashMap<>();
+        int[] index = new int[1024 * FIELDS];
+        int count = 0;
+
+        void add(DataOutputStream out, Question q) throws IOException {
+            if (q.getOptions().size() > 255) return; // Not playable anyway
+            int offset = out.size();
+            if (offset < 0) throw new IOException("Question bank is too large for an offline snapshot");
+
+            if ((count + 1) * FIELDS > index.length) index = Arrays.copyOf(index, index.length * 2);
+            int e = count++ * FIELDS;
+            index[e] = q.getId();
+            index[e + 1] = q.getCategoryId() == null ? -1 : q.getCategoryId();
+            index[e + 2] = stringId(q.getDifficulty());
+            index[e + 3] = stringId(q.getCategory());
+            index[e + 4] = offset;
+
+            byte[] text = q.getText().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(text.length);
+            out.write(text);
+            out.writeByte(q.getOptions().size());
+            for (Option o : q.getOptions()) {
+                byte[] bytes = o.getText().getBytes(StandardCharsets.UTF_8);
+                out.writeByte(o.isCorrect() ? 1 : 0);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        /**
+         * Positions of the index entries in (categoryId, difficulty, id) order.
+         */
+        int[] sortedByFilter() {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) order[i] = i;
+            Arrays.sort(order, Comparator.<Integer>comparingInt(i -> index[i * FIELDS + 1])
+                    .thenComparingInt(i -> index[i * FIELDS + 2])
+                    .thenComparingInt(i -> index[i * FIELDS]));
+            int[] out = new int[count];
+            for (int i = 0; i < count; i++) out[i] = order[i];
+            return out;
+        }
+
+        private int stringId(String s) throws IOException {
+            if (s == null) return NO_STRING;
+            Integer id = stringIds.get(s);
+            if (id == null) {
+                if (strings.size() == NO_STRING) throw new IOException("Too many distinct categories for an offline snapshot");
+                id = strings.size();
+                strings.add(s);
+                stringIds.put(s, id);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.quizapp.db;
+
+/**
+ * Point-in-time snapshot of connection pool metrics.
+ */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final long acquireCount;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+    private final long timeouts;
+
+    public PoolStats(int active, int idle, int total, int maxSize, long acquireCount,
+                     long totalWaitMillis, long maxWaitMillis, long timeouts) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.acquireCount = acquireCount;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.timeouts = timeouts;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    public double getAverageWaitMillis() {
+        return acquireCount == 0 ? 0.0 : (double) totalWaitMillis / acquireCount;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoolStats[active=%d, idle=%d, total=%d/%d, acquires=%d, avgWait=%.2fms, maxWait=%dms, timeouts=%d]",
+                active, idle, total, maxSize, acquireCount, getAverageWaitMillis(), maxWaitMillis, timeouts);
+    }
+}
@@ -0,0 +1,28 @@
+package com.quizapp.db;
+
+import java.util.List;
+
+/**
+ * Command-line check that the repository's hot queries still use their indexes.
+ * Exits with status 1 if any query plan regressed, so it can gate a CI build:
+ * <pre>java -cp target/java-quiz-app.jar com.quizapp.db.QueryPlanCheck</pre>
+ */
+public class QueryPlanCheck {
+    public static void main(String[] args) {
+        try {
+            Repository.migrate();
+            List<String> problems = Repository.checkQueryPlans();
+            if (problems.isEmpty()) {
+                System.out.println("All hot queries use their indexes.");
+                System.exit(0);
+            }
+            for (String problem : problems) {
+                System.err.println("FAIL " + problem);
+            }
+            System.exit(1);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.quizapp.db;
+
+import com.quizapp.model.Question;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of read-only question snapshots (with options), plus an index of
+ * playable question ids per (category, difficulty) filter.
+ * Snapshots are bounded and evicted least-recently-used first. Local admin writes patch
+ * the cache in place, changes from other instances arrive through {@link BankChangeListener},
+ * and entries older than the TTL are reloaded as a safety net.
+ */
+class QuestionCache {
+
+    interface IdLoader {
+        int[] load(Integer categoryId, String difficulty) throws SQLException;
+    }
+
+    interface QuestionLoader {
+        /** Loads the given questions with options; ids that no longer exist are simply missing. */
+        List<Question> load(int[] ids) throws SQLException;
+    }
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private static final class IdEntry {
+        final Integer categoryId;
+        final String difficulty;
+        final int[] ids; // sorted, never modified after publication
+        final long loadedAt;
+
+        IdEntry(Integer categoryId, String difficulty, int[] ids, long loadedAt) {
+            this.categoryId = categoryId;
+            this.difficulty = difficulty;
+            this.ids = ids;
+            this.loadedAt = loadedAt;
+        }
+
+        IdEntry withIds(int[] newIds) {
+            return new IdEntry(categoryId, difficulty, newIds, loadedAt);
+        }
+    }
+
+    private static final class Cached {
+        final Question question;
+        final long loadedAt;
+
+        Cached(Question question, long loadedAt) {
+            this.question = question;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final int maxQuestions;
+    private final long ttlMs;
+
+    private final ConcurrentHashMap<String, IdEntry> idIndex = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Integer, Cached> questions;
+
+    // Bumped by every write so loads that started before it don't publish stale data
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    QuestionCache(int maxQuestions, long ttlMs) {
+        this.maxQuestions = maxQuestions;
+        this.ttlMs = ttlMs;
+        this.questions = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Cached> eldest) {
+                if (size() > QuestionCache.this.maxQuestions) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private static String key(Integer categoryId, String difficulty) {
+        return categoryId + "|" + difficulty;
+    }
+
+    private boolean expired(long loadedAt, long now) {
+        return ttlMs > 0 && now - loadedAt > ttlMs;
+    }
+
+    /**
+     * Returns the sorted ids of playable questions for the filter, loading them on a miss.
+     */
+    int[] getIds(Integer categoryId, String difficulty, IdLoader loader) throws SQLException {
+        String key = key(categoryId, difficulty);
+        long now = System.currentTimeMillis();
+        IdEntry e = idIndex.get(key);
+        if (e != null && !expired(e.loadedAt, now)) {
+            hits.incrementAndGet();
+            return e.ids;
+        }
+        misses.incrementAndGet();
+        long gen = generation.get();
+        int[] ids = loader.load(categoryId, difficulty);
+        synchronized (this) {
+            if (generation.get() == gen) {
+                idIndex.put(key, new IdEntry(categoryId, difficulty, ids, now));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns snapshots for the given ids in the same order, loading misses in batches.
+     * Ids that no longer exist are skipped.
+     */
+    List<Question> getAll(int[] ids, QuestionLoader loader) throws SQLException {
+        long now = System.currentTimeMillis();
+        Question[] found = new Question[ids.length];
+        int[] missing = new int[ids.length];
+        int missingCount = 0;
+
+        synchronized (this) {
+            for (int i = 0; i < ids.length; i++) {
+                Cached c = questions.get(ids[i]);
+                if (c != null && !expired(c.loadedAt, now)) {
+                    found[i] = c.question;
+                } else {
+                    missing[missingCount++] = ids[i];
+                }
+            }
+        }
+        hits.addAndGet(ids.length - missingCount);
+        misses.addAndGet(missingCount);
+
+        if (missingCount > 0) {
+            Map<Integer, Question> loaded = new HashMap<>(missingCount * 2);
+            long gen = generation.get();
+            for (int from = 0; from < missingCount; from += LOAD_BATCH_SIZE) {
+                int[] batch = Arrays.copyOfRange(missing, from, Math.min(from + LOAD_BATCH_SIZE, missingCount));
+                for (Question q : loader.load(batch)) {
+                    loaded.put(q.getId(), q.snapshot());
+                }
+            }
+            synchronized (this) {
+                if (generation.get() == gen) {
+                    for (Question q : loaded.values()) {
+                        questions.put(q.getId(), new Cached(q, now));
+                    }
+                }
+            }
+            for (int i = 0; i < ids.length; i++) {
+                if (found[i] == null) found[i] = loaded.get(ids[i]);
+            }
+        }
+
+        List<Question> result = new ArrayList<>(ids.length);
+        for (Question q : found) {
+            if (q != null) result.add(q);
+        }
+        return result;
+    }
+
+    /**
+     * Stores a freshly written question and patches every cached id list it belongs to.
+     */
+    synchronized void put(Question question) {
+        generation.incrementAndGet();
+        Question snapshot = question.snapshot();
+        questions.put(snapshot.getId(), new Cached(snapshot, System.currentTimeMillis()));
+        reindex(snapshot.getId(), snapshot.getCategoryId(), snapshot.getDifficulty(), !snapshot.getOptions().isEmpty());
+    }
+
+    /**
+     * Handles a question changed by another instance: the snapshot is dropped (it is reloaded
+     * on next use) and the id lists are patched from the new category and difficulty.
+     */
+    synchronized void evict(int id, Integer categoryId, String difficulty) {
+        generation.incrementAndGet();
+        questions.remove(id);
+        reindex(id, categoryId, difficulty, true);
+    }
+
+    /**
+     * Drops the snapshots and id lists that depend on a category.
+     */
+    synchronized void invalidateCategory(int categoryId) {
+        generation.incrementAndGet();
+        questions.values().removeIf(c -> Integer.valueOf(categoryId).equals(c.question.getCategoryId()));
+        idIndex.values().removeIf(e -> Integer.valueOf(categoryId).equals(e.categoryId));
+    }
+
+    private void reindex(int id, Integer categoryId, String difficulty, boolean playable) {
+        for (Map.Entry<String, IdEntry> me : idIndex.entrySet()) {
+            IdEntry e = me.getValue();
+            boolean matches = playable
+                    && (e.categoryId == null || e.categoryId.equals(categoryId))
+                    && (e.difficulty == null || e.difficulty.equals(difficulty));
+            int[] patched = matches ? insertSorted(e.ids, id) : removeSorted(e.ids, id);
+            if (patched != e.ids) {
+                me.setValue(e.withIds(patched));
+            }
+        }
+    }
+
+    /**
+     * Removes a deleted question from the cache and from every cached id list.
+     */
+    synchronized void remove(int id) {
+        generation.incrementAndGet();
+        questions.remove(id);
+        for (Map.Entry<String, IdEntry> me : idIndex.entrySet()) {
+            IdEntry e = me.getValue();
+            int[] patched = removeSorted(e.ids, id);
+            if (patched != e.ids) {
+                me.setValue(e.withIds(patched));
+            }
+        }
+    }
+
+    synchronized void clear() {
+        generation.incrementAndGet();
+        questions.clear();
+        idIndex.clear();
+    }
+
+    synchronized CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), questions.size(), maxQuestions, idIndex.size());
+    }
+
+    private static int[] insertSorted(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) return ids;
+        pos = -pos - 1;
+        int[] out = new int[ids.length + 1];
+        System.arraycopy(ids, 0, out, 0, pos);
+        out[pos] = id;
+        System.arraycopy(ids, pos, out, pos + 1, ids.length - pos);
+        return out;
+    }
+
+    private static int[] removeSorted(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) return ids;
+        int[] out = new int[ids.length - 1];
+        System.arraycopy(ids, 0, out, 0, pos);
+        System.arraycopy(ids, pos + 1, out, pos, ids.length - pos - 1);
+        return out;
+    }
+
+    /**
+     * Picks up to n distinct ids in random order. Runs in O(n) when n is small
+     * compared to the number of ids.
+     */
+    static int[] sample(int[] ids, int n) {
+        int[] picked = samplePositions(ids.length, n);
+        for (int i = 0; i < picked.length; i++) {
+            picked[i] = ids[picked[i]];
+        }
+        return picked;
+    }
+
+    /**
+     * Picks up to n distinct positions in [0, size) in random order, in O(n) time and memory.
+     */
+    static int[] samplePositions(int size, int n) {
+        Random rnd = ThreadLocalRandom.current();
+        int count = Math.min(n, size);
+        if (count * 2 >= size) {
+            // Large sample: shuffle all positions (Fisher-Yates) and take the prefix
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) all[i] = i;
+            for (int i = 0; i < count; i++) {
+                int j = i + rnd.nextInt(size - i);
+                int tmp = all[i];
+                all[i] = all[j];
+                all[j] = tmp;
+            }
+            return Arrays.copyOf(all, count);
+        }
+        int[] out = new int[count];
+        Set<Integer> picked = new HashSet<>(count * 2);
+        int i = 0;
+        while (i < count) {
+            int pos = rnd.nextInt(size);
+            if (picked.add(pos)) {
+                out[i++] = pos;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,42 @@
+package com.quizapp.db;
+
+/**
+ * Optional filters for admin question listings. A null field means "don't filter on it".
+ */
+public final class QuestionFilter {
+
+    public static final QuestionFilter NONE = new QuestionFilter(null, null, null);
+
+    private final String category;
+    private final String difficulty;
+    private final String text;
+
+    public QuestionFilter(String category, String difficulty, String text) {
+        this.category = blankToNull(category);
+        this.difficulty = blankToNull(difficulty);
+        this.text = blankToNull(text);
+    }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.trim().isEmpty()) ? null : s.trim();
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Case-insensitive substring to match against the question text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    public boolean isEmpty() {
+        return category == null && difficulty == null && text == null;
+    }
+}
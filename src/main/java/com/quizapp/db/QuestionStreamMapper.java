@@ -0,0 +1,102 @@
+package com.quizapp.db;
+
+import com.quizapp.metrics.CallCounters;
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Turns a questions-join-options result set into questions one at a time.
+ * The rows must be ordered by question id, so all options of a question are adjacent
+ * and each question can be emitted as soon as the id changes, without buffering the result.
+ *
+ * Category names come from the {@link CategoryDictionary}, so the query needs no join on categories.
+ *
+ * <p>Expected columns: id, question_text, category_id, difficulty, option_text, is_correct.
+ * A row with a null option_text (from a left join) stands for a question without options.</p>
+ */
+final class QuestionStreamMapper {
+
+    /** Select list matching what the mapper reads; the query must alias questions as q and options as o. */
+    static final String COLUMNS =
+            "q.id, q.question_text, q.category_id, q.difficulty, o.option_text, o.is_correct";
+
+    private final ResultSet r;
+    private final Connection connection;
+    private final CategoryDictionary categories;
+    private final int idCol;
+    private final int textCol;
+    private final int categoryIdCol;
+    private final int difficultyCol;
+    private final int optionTextCol;
+    private final int correctCol;
+
+    private Question pending;
+    private int rows = 0;
+    private boolean exhausted = false;
+
+    /**
+     * @param connection the connection the result set came from, used if a category name must be reloaded
+     */
+    QuestionStreamMapper(ResultSet r, Connection connection, CategoryDictionary categories) throws SQLException {
+        this.r = r;
+        this.connection = connection;
+        this.categories = categories;
+        this.idCol = r.findColumn("id");
+        this.textCol = r.findColumn("question_text");
+        this.categoryIdCol = r.findColumn("category_id");
+        this.difficultyCol = r.findColumn("difficulty");
+        this.optionTextCol = r.findColumn("option_text");
+        this.correctCol = r.findColumn("is_correct");
+    }
+
+    /**
+     * Returns the next complete question, or null when the result set is exhausted.
+     */
+    Question next() throws SQLException {
+        if (!exhausted) {
+            while (r.next()) {
+                rows++;
+                int id = r.getInt(idCol);
+                if (pending != null && pending.getId() == id) {
+                    addOption(pending);
+                    continue;
+                }
+                Question done = pending;
+                pending = readQuestion(id);
+                addOption(pending);
+                if (done != null) return done;
+            }
+            exhausted = true;
+            CallCounters.addRows(rows);
+        }
+        Question last = pending;
+        pending = null;
+        return last;
+    }
+
+    /**
+     * Number of result rows consumed so far.
+     */
+    int getRowCount() {
+        return rows;
+    }
+
+    private Question readQuestion(int id) throws SQLException {
+        Question q = new Question(id, r.getString(textCol));
+        int categoryId = r.getInt(categoryIdCol);
+        Integer category = r.wasNull() ? null : categoryId;
+        q.setCategoryId(category);
+        q.setCategory(categories.nameOf(connection, category));
+        q.setDifficulty(r.getString(difficultyCol));
+        return q;
+    }
+
+    private void addOption(Question q) throws SQLException {
+        String text = r.getString(optionTextCol);
+        if (text != null) q.addOption(new Option(text, r.getBoolean(correctCol)));
+    }
+}
@@ -0,0 +1,232 @@
+package com.quizapp.db;
+
+import com.quizapp.auth.CredentialStats;
+import com.quizapp.io.ImportFormat;
+import com.quizapp.io.ImportListener;
+import com.quizapp.io.ImportResult;
+import com.quizapp.model.EditorData;
+import com.quizapp.model.LeaderboardEntry;
+import com.quizapp.model.LeaderboardPeriod;
+import com.quizapp.model.Option;
+import com.quizapp.model.ProgressStats;
+import com.quizapp.model.Question;
+import com.quizapp.model.ScoreAttempt;
+import com.quizapp.model.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A storage engine behind {@link Repository}. The engine is chosen once at startup with
+ * storage.engine (jdbc or memory); see {@link Repository} for the engines.
+ *
+ * <p>Implementations must be safe to call from any thread. Failures are reported as
+ * {@link SQLException} whatever the engine, so callers handle errors the same way.
+ * Questions returned for players may be shared read-only snapshots.</p>
+ */
+public interface QuizStore {
+
+    // --- Lifecycle and metrics ---
+
+    /**
+     * Brings the storage up to the current schema. Safe to call from several clients at once.
+     */
+    default void migrate() throws SQLException {
+    }
+
+    /**
+     * Lists hot queries that no longer use their index. Empty for engines without a query planner.
+     */
+    default List<String> checkQueryPlans() throws SQLException {
+        return List.of();
+    }
+
+    /**
+     * Connection pool metrics, or null if the engine has no connection pool.
+     */
+    default PoolStats getPoolStats() {
+        return null;
+    }
+
+    /**
+     * Background score writer metrics, or null if scores are written synchronously.
+     */
+    default ScoreWriterStats getScoreWriterStats() {
+        return null;
+    }
+
+    /**
+     * Question cache metrics, or null if the engine does not cache questions.
+     */
+    default CacheStats getCacheStats() {
+        return null;
+    }
+
+    /**
+     * Drops any cached questions, so the next reads see the stored bank.
+     */
+    default void invalidateQuestionCache() {
+    }
+
+    CredentialStats getCredentialStats();
+
+    // --- Users ---
+
+    /**
+     * Verifies a login without blocking the caller. Completes with the user, or null if the
+     * username or password is wrong; fails with {@link com.quizapp.auth.LoginThrottledException}
+     * when rate limited.
+     */
+    CompletableFuture<User> authenticateAsync(String username, String password);
+
+    User authenticate(String username, String password) throws SQLException;
+
+    /**
+     * Creates a user. A taken username fails with SQLState 23505 and the users_username_key constraint name.
+     */
+    void createUser(String username, String password, boolean isAdmin) throws SQLException;
+
+    // --- Categories ---
+
+    /**
+     * All category names, sorted. The list is unmodifiable.
+     */
+    List<String> getAllCategoryNames() throws SQLException;
+
+    int addCategory(String name) throws SQLException;
+
+    // --- Player quiz ---
+
+    /**
+     * All questions that have options, matching the filters (null for any), ordered by id.
+     */
+    List<Question> getQuestionsForPlayer(Integer categoryId, String difficulty) throws SQLException;
+
+    /**
+     * Up to n random questions that have options, matching the filters, in random order.
+     */
+    List<Question> getRandomQuiz(Integer categoryId, String difficulty, int n) throws SQLException;
+
+    /**
+     * Passes every question with options matching the filters to {@code action}, in id order.
+     */
+    void forEachQuestion(Integer categoryId, String difficulty, Consumer<Question> action) throws SQLException;
+
+    /**
+     * Stream form of {@link #forEachQuestion}. Always close the stream.
+     */
+    Stream<Question> streamQuestions(Integer categoryId, String difficulty) throws SQLException;
+
+    /**
+     * Records a score, possibly in the background. Falls back to {@link #saveScore} where needed.
+     */
+    void submitScore(int userId, int score, int total, Integer categoryId, String difficulty) throws SQLException;
+
+    /**
+     * Records a score and its leaderboard totals before returning.
+     */
+    void saveScore(int userId, int score, int total, Integer categoryId, String difficulty) throws SQLException;
+
+    /**
+     * Waits up to timeoutMs for submitted scores to be stored. Returns true if nothing is left to write.
+     */
+    boolean awaitScoresWritten(long timeoutMs) throws InterruptedException;
+
+    // --- Leaderboard and history ---
+
+    /**
+     * The top players of one board, best first, with competition ranking. A null category or
+     * difficulty means the board across all of them; an unknown category has no entries.
+     */
+    List<LeaderboardEntry> getLeaderboard(LeaderboardPeriod period, String categoryName,
+                                          String difficulty, int limit) throws SQLException;
+
+    /**
+     * One player's standing on a board, or null if they have no score in it yet.
+     */
+    LeaderboardEntry getUserRank(int userId, LeaderboardPeriod period, String categoryName,
+                                 String difficulty) throws SQLException;
+
+    /**
+     * One page of a player's attempts, newest first, after the given attempt (null for the first page).
+     */
+    List<ScoreAttempt> getUserHistory(int userId, ScoreAttempt after, int limit) throws SQLException;
+
+    /**
+     * A player's all-time totals, or null if they have not finished a quiz yet.
+     */
+    ProgressStats getUserTotals(int userId) throws SQLException;
+
+    /**
+     * A player's totals per day for the last {@code days} days, oldest first, leaving out days without a quiz.
+     */
+    List<ProgressStats> getUserDailyProgress(int userId, int days) throws SQLException;
+
+    /**
+     * A player's all-time totals per category, most played first.
+     */
+    List<ProgressStats> getUserCategoryProgress(int userId) throws SQLException;
+
+    // --- Admin ---
+
+    /**
+     * Every question's metadata (no options), ordered by id.
+     */
+    List<Question> getAllQuestionsWithMeta() throws SQLException;
+
+    /**
+     * Up to {@code limit} questions (no options) matching the filter with an id greater than {@code afterId}, ordered by id.
+     */
+    List<Question> getQuestionsPage(QuestionFilter filter, int afterId, int limit) throws SQLException;
+
+    int countQuestions(QuestionFilter filter) throws SQLException;
+
+    /**
+     * The id of the question at a 0-based position in the filtered id order, or null past the end.
+     */
+    Integer getQuestionIdAtOffset(QuestionFilter filter, int offset) throws SQLException;
+
+    /**
+     * One question's metadata (no options), or null if it does not exist.
+     */
+    Question getQuestionById(int questionId) throws SQLException;
+
+    List<Option> getOptionsForQuestion(int questionId) throws SQLException;
+
+    /**
+     * The category names and, unless questionId is -1, the question with its options, for the editor.
+     */
+    EditorData getEditorData(int questionId) throws SQLException;
+
+    void addQuestion(String questionText, List<Option> options, String categoryName, String difficulty) throws SQLException;
+
+    /**
+     * Updates a question if it is still at {@code expectedVersion}, otherwise fails with
+     * {@link StaleQuestionException}. Returns the question's version after the update.
+     */
+    int updateQuestion(int questionId, int expectedVersion, String questionText, List<Option> options,
+                       String categoryName, String difficulty) throws SQLException;
+
+    /**
+     * Imports a CSV or NDJSON question file as a whole: either every valid record is added or none.
+     */
+    ImportResult importQuestions(Path file, ImportFormat format, ImportListener listener) throws SQLException, IOException;
+
+    /**
+     * Passes every question with its options to {@code action}, in id order, including questions
+     * without options, which {@link #forEachQuestion} leaves out. Used for backups.
+     */
+    void exportQuestions(Consumer<Question> action) throws SQLException;
+
+    /**
+     * Restores an export written by {@link com.quizapp.io.BankExporter}, optionally replacing the current questions.
+     */
+    ImportResult restoreBank(Path file, boolean replace, ImportListener listener) throws SQLException, IOException;
+
+    void deleteQuestion(int questionId) throws SQLException;
+}
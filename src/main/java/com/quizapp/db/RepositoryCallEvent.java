@@ -0,0 +1,46 @@
+package com.quizapp.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one {@link QuizStore} call, committed by {@link RepositoryMetrics}. Only costs
+ * anything while a recording with this event enabled is running; set a threshold in the recording
+ * settings (e.g. {@code com.quizapp.RepositoryCall#threshold=20 ms}) to keep only slow calls.
+ */
+@Name("com.quizapp.RepositoryCall")
+@Label("Repository Call")
+@Category({"QuizApp", "Database"})
+@Description("One storage operation, with the connection wait, rows read and mapped bytes it took")
+@StackTrace(false)
+final class RepositoryCallEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Connection Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long connectionWait;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes Mapped")
+    @DataAmount
+    long bytesMapped;
+
+    @Label("Failed")
+    boolean failed;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,343 @@
+package com.quizapp.db;
+
+import com.quizapp.AppConfig;
+import com.quizapp.auth.CredentialStats;
+import com.quizapp.metrics.CallCounters;
+import com.quizapp.metrics.LatencySnapshot;
+import com.quizapp.metrics.MetricsHttpServer;
+import com.quizapp.metrics.OperationStats;
+import com.quizapp.metrics.PrometheusText;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import static com.quizapp.metrics.PrometheusText.labels;
+
+/**
+ * Per-operation metrics for every {@link QuizStore} call made through {@link Repository}.
+ *
+ * <p>{@link #instrument} wraps the engine in a proxy that times each call into an HDR histogram and
+ * adds up its errors, the time it waited for a pooled connection, the rows it read and the bytes it
+ * read from the offline snapshot (see {@link CallCounters}). Each call is also a
+ * {@link RepositoryCallEvent} for JFR recordings. The totals are published as MXBeans named
+ * {@code com.quizapp:type=Repository,operation=<method>} and, when metrics.http.port is set, on a
+ * Prometheus endpoint together with the pool, cache, score writer, credential and bulkhead stats.</p>
+ *
+ * <p>Asynchronous calls are timed until their future completes. {@link QuizStore#streamQuestions}
+ * is timed until the stream is open; reading it is not part of the call.</p>
+ */
+public final class RepositoryMetrics {
+
+    private static final boolean ENABLED = AppConfig.getBoolean("metrics.enabled", true);
+    private static final boolean JMX_ENABLED = AppConfig.getBoolean("metrics.jmx", true);
+    private static final int HTTP_PORT = AppConfig.getInt("metrics.http.port", 0);
+    private static final String HTTP_HOST = AppConfig.get("metrics.http.host", "127.0.0.1");
+
+    // Stats getters are polled by monitoring and would only measure themselves
+    private static final Set<String> UNTIMED = Set.of(
+            "getPoolStats", "getScoreWriterStats", "getCacheStats", "getCredentialStats");
+
+    // Sorted by operation name so scrapes and dumps are stable
+    private static final Map<String, OperationStats> OPERATIONS = new TreeMap<>();
+    private static volatile QuizStore store;
+    private static volatile MetricsHttpServer httpServer;
+
+    private RepositoryMetrics() {
+    }
+
+    /**
+     * Wraps {@code target} so every call is measured, or returns it unchanged if metrics.enabled is false.
+     * Meant to be called once, for the engine {@link Repository} uses.
+     */
+    static synchronized QuizStore instrument(QuizStore target, String engine) {
+        store = target;
+        if (!ENABLED) return target;
+
+        Map<Method, OperationStats> byMethod = new HashMap<>();
+        for (Method method : QuizStore.class.getMethods()) {
+            if (UNTIMED.contains(method.getName())) continue;
+            OperationStats stats = OPERATIONS.computeIfAbsent(method.getName(), OperationStats::new);
+            byMethod.put(method, stats);
+        }
+        if (JMX_ENABLED) registerMBeans();
+        if (HTTP_PORT > 0 && httpServer == null) startHttpServer();
+
+        return (QuizStore) Proxy.newProxyInstance(QuizStore.class.getClassLoader(), new Class<?>[]{QuizStore.class},
+                new Handler(target, engine, Map.copyOf(byMethod)));
+    }
+
+    /**
+     * The stats of every instrumented operation, by method name. Empty if metrics are disabled.
+     */
+    public static synchronized Collection<OperationStats> getOperations() {
+        return Collections.unmodifiableCollection(new ArrayList<>(OPERATIONS.values()));
+    }
+
+    /**
+     * The port the Prometheus endpoint listens on, or -1 if it is not running.
+     */
+    public static int getHttpPort() {
+        MetricsHttpServer server = httpServer;
+        return server == null ? -1 : server.getPort();
+    }
+
+    // --- Proxy ---
+
+    private static final class Handler implements InvocationHandler {
+        private final QuizStore target;
+        private final String engine;
+        private final Map<Method, OperationStats> operations;
+
+        Handler(QuizStore target, String engine, Map<Method, OperationStats> operations) {
+            this.target = target;
+            this.engine = engine;
+            this.operations = operations;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            OperationStats stats = operations.get(method);
+            if (stats == null) {
+                if (method.getDeclaringClass() == Object.class) {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "Instrumented " + target;
+                        default: break;
+                    }
+                }
+                return call(method, args);
+            }
+
+            CallCounters counters = CallCounters.current();
+            long waitBefore = counters.getConnectionWaitNanos();
+            long rowsBefore = counters.getRows();
+            long bytesBefore = counters.getBytesMapped();
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            event.begin();
+            long start = System.nanoTime();
+
+            Object result;
+            try {
+                result = call(method, args);
+            } catch (Throwable t) {
+                finish(stats, event, start, counters, waitBefore, rowsBefore, bytesBefore, t);
+                throw t;
+            }
+
+            if (result instanceof CompletableFuture) {
+                // The caller's counters stop here; the rest of the work happens on another executor
+                long wait = counters.getConnectionWaitNanos() - waitBefore;
+                long rows = counters.getRows() - rowsBefore;
+                long bytes = counters.getBytesMapped() - bytesBefore;
+                ((CompletableFuture<?>) result).whenComplete((value, error) ->
+                        record(stats, event, start, wait, rows, bytes, error));
+            } else {
+                finish(stats, event, start, counters, waitBefore, rowsBefore, bytesBefore, null);
+            }
+            return result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void finish(OperationStats stats, RepositoryCallEvent event, long start, CallCounters counters,
+                            long waitBefore, long rowsBefore, long bytesBefore, Throwable error) {
+            record(stats, event, start,
+                    counters.getConnectionWaitNanos() - waitBefore,
+                    counters.getRows() - rowsBefore,
+                    counters.getBytesMapped() - bytesBefore,
+                    error);
+        }
+
+        private void record(OperationStats stats, RepositoryCallEvent event, long start,
+                            long wait, long rows, long bytes, Throwable error) {
+            stats.record(System.nanoTime() - start, error != null, wait, rows, bytes);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = stats.getOperation();
+                event.engine = engine;
+                event.connectionWait = wait;
+                event.rows = rows;
+                event.bytesMapped = bytes;
+                event.failed = error != null;
+                event.error = error == null ? null : error.toString();
+                event.commit();
+            }
+        }
+    }
+
+    // --- JMX ---
+
+    private static void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationStats stats : OPERATIONS.values()) {
+            try {
+                ObjectName name = new ObjectName("com.quizapp:type=Repository,operation=" + stats.getOperation());
+                if (!server.isRegistered(name)) server.registerMBean(stats, name);
+            } catch (JMException e) {
+                System.err.println("Warning: Repository metrics for " + stats.getOperation()
+                        + " not registered with JMX (" + e.getMessage() + ").");
+            }
+        }
+    }
+
+    // --- Prometheus ---
+
+    private static void startHttpServer() {
+        try {
+            httpServer = MetricsHttpServer.start(HTTP_HOST, HTTP_PORT, RepositoryMetrics::scrape);
+        } catch (Exception e) {
+            System.err.println("Warning: Metrics endpoint not started on " + HTTP_HOST + ":" + HTTP_PORT
+                    + " (" + e.getMessage() + ").");
+        }
+    }
+
+    /**
+     * Every metric in the Prometheus text format, as served on /metrics.
+     */
+    public static String scrape() {
+        PrometheusText out = new PrometheusText();
+        writeOperations(out);
+
+        QuizStore engine = store;
+        if (engine != null) {
+            writePool(out, engine.getPoolStats());
+            writeCache(out, engine.getCacheStats());
+            writeScoreWriter(out, engine.getScoreWriterStats());
+            writeCredentials(out, engine.getCredentialStats());
+        }
+        writeBulkheads(out);
+        return out.toString();
+    }
+
+    private static void writeOperations(PrometheusText out) {
+        Collection<OperationStats> operations = getOperations();
+        if (operations.isEmpty()) return;
+
+        out.family("quizapp_repository_latency_seconds", "summary", "Repository call latency by operation.");
+        for (OperationStats op : operations) {
+            LatencySnapshot latency = op.getLatency();
+            String name = op.getOperation();
+            out.sample("quizapp_repository_latency_seconds", labels("operation", name, "quantile", "0.5"), latency.getP50() / 1e3);
+            out.sample("quizapp_repository_latency_seconds", labels("operation", name, "quantile", "0.99"), latency.getP99() / 1e3);
+            out.sample("quizapp_repository_latency_seconds", labels("operation", name, "quantile", "0.999"), latency.getP999() / 1e3);
+            out.sample("quizapp_repository_latency_seconds_sum", labels("operation", name), op.getTotalNanos() / 1e9);
+            out.sample("quizapp_repository_latency_seconds_count", labels("operation", name), latency.getCount());
+        }
+        out.family("quizapp_repository_errors_total", "counter", "Repository calls that failed, by operation.");
+        for (OperationStats op : operations) {
+            out.sample("quizapp_repository_errors_total", labels("operation", op.getOperation()), op.getErrors());
+        }
+        out.family("quizapp_repository_rows_total", "counter", "Result rows read by repository calls, by operation.");
+        for (OperationStats op : operations) {
+            out.sample("quizapp_repository_rows_total", labels("operation", op.getOperation()), op.getRows());
+        }
+        out.family("quizapp_repository_mapped_bytes_total", "counter", "Bytes read from the offline snapshot, by operation.");
+        for (OperationStats op : operations) {
+            out.sample("quizapp_repository_mapped_bytes_total", labels("operation", op.getOperation()), op.getBytesMapped());
+        }
+        out.family("quizapp_repository_connection_wait_seconds_total", "counter",
+                "Time repository calls waited for a pooled connection, by operation.");
+        for (OperationStats op : operations) {
+            out.sample("quizapp_repository_connection_wait_seconds_total", labels("operation", op.getOperation()),
+                    op.getConnectionWaitNanos() / 1e9);
+        }
+    }
+
+    private static void writePool(PrometheusText out, PoolStats pool) {
+        if (pool == null) return;
+        out.family("quizapp_pool_connections", "gauge", "Pooled connections by state.");
+        out.sample("quizapp_pool_connections", labels("state", "active"), pool.getActive());
+        out.sample("quizapp_pool_connections", labels("state", "idle"), pool.getIdle());
+        out.family("quizapp_pool_max_connections", "gauge", "Connection pool size limit.")
+                .sample("quizapp_pool_max_connections", pool.getMaxSize());
+        out.family("quizapp_pool_acquires_total", "counter", "Connections handed out by the pool.")
+                .sample("quizapp_pool_acquires_total", pool.getAcquireCount());
+        out.family("quizapp_pool_wait_seconds_total", "counter", "Time spent waiting for a pooled connection.")
+                .sample("quizapp_pool_wait_seconds_total", pool.getTotalWaitMillis() / 1e3);
+        out.family("quizapp_pool_timeouts_total", "counter", "Connection requests that timed out.")
+                .sample("quizapp_pool_timeouts_total", pool.getTimeouts());
+    }
+
+    private static void writeCache(PrometheusText out, CacheStats cache) {
+        if (cache == null) return;
+        out.family("quizapp_question_cache_requests_total", "counter", "Question cache lookups by result.");
+        out.sample("quizapp_question_cache_requests_total", labels("result", "hit"), cache.getHits());
+        out.sample("quizapp_question_cache_requests_total", labels("result", "miss"), cache.getMisses());
+        out.family("quizapp_question_cache_evictions_total", "counter", "Questions evicted from the cache.")
+                .sample("quizapp_question_cache_evictions_total", cache.getEvictions());
+        out.family("quizapp_question_cache_size", "gauge", "Questions held in the cache.")
+                .sample("quizapp_question_cache_size", cache.getSize());
+    }
+
+    private static void writeScoreWriter(PrometheusText out, ScoreWriterStats writer) {
+        if (writer == null) return;
+        out.family("quizapp_score_queue_depth", "gauge", "Scores waiting to be written.")
+                .sample("quizapp_score_queue_depth", writer.getQueueDepth());
+        out.family("quizapp_scores_total", "counter", "Scores by outcome in the background writer.");
+        out.sample("quizapp_scores_total", labels("outcome", "submitted"), writer.getSubmitted());
+        out.sample("quizapp_scores_total", labels("outcome", "written"), writer.getWritten());
+        out.sample("quizapp_scores_total", labels("outcome", "dropped"), writer.getDropped());
+        out.sample("quizapp_scores_total", labels("outcome", "spooled_only"), writer.getSpooledOnly());
+        out.sample("quizapp_scores_total", labels("outcome", "dead_lettered"), writer.getDeadLettered());
+        out.family("quizapp_score_flush_failures_total", "counter", "Score batches that failed to write.")
+                .sample("quizapp_score_flush_failures_total", writer.getFailures());
+    }
+
+    private static void writeCredentials(PrometheusText out, CredentialStats credentials) {
+        if (credentials == null) return;
+        out.family("quizapp_credential_latency_seconds", "summary", "BCrypt hashing and verification latency.");
+        writeSummary(out, "quizapp_credential_latency_seconds", "op", "hash", credentials.getHashLatency());
+        writeSummary(out, "quizapp_credential_latency_seconds", "op", "verify", credentials.getVerifyLatency());
+        out.family("quizapp_credential_queue_depth", "gauge", "Credential checks waiting for a thread.")
+                .sample("quizapp_credential_queue_depth", credentials.getQueueDepth());
+        out.family("quizapp_credential_throttled_total", "counter", "Logins refused by rate limiting.")
+                .sample("quizapp_credential_throttled_total", credentials.getThrottled());
+    }
+
+    private static void writeSummary(PrometheusText out, String name, String label, String value, LatencySnapshot s) {
+        out.sample(name, labels(label, value, "quantile", "0.5"), s.getP50() / 1e3);
+        out.sample(name, labels(label, value, "quantile", "0.99"), s.getP99() / 1e3);
+        out.sample(name + "_sum", labels(label, value), s.getMean() * s.getCount() / 1e3);
+        out.sample(name + "_count", labels(label, value), s.getCount());
+    }
+
+    private static void writeBulkheads(PrometheusText out) {
+        out.family("quizapp_bulkhead_active", "gauge", "Calls running in each async bulkhead.");
+        for (Bulkhead b : AsyncRepository.getBulkheads()) {
+            out.sample("quizapp_bulkhead_active", labels("bulkhead", b.getName()), b.getActiveCount());
+        }
+        out.family("quizapp_bulkhead_queued", "gauge", "Calls queued in each async bulkhead.");
+        for (Bulkhead b : AsyncRepository.getBulkheads()) {
+            out.sample("quizapp_bulkhead_queued", labels("bulkhead", b.getName()), b.getQueuedCount());
+        }
+        out.family("quizapp_bulkhead_rejected_total", "counter", "Calls rejected by a full bulkhead.");
+        for (Bulkhead b : AsyncRepository.getBulkheads()) {
+            out.sample("quizapp_bulkhead_rejected_total", labels("bulkhead", b.getName()), b.getRejectedCount());
+        }
+        out.family("quizapp_bulkhead_timed_out_total", "counter", "Calls that exceeded their bulkhead timeout.");
+        for (Bulkhead b : AsyncRepository.getBulkheads()) {
+            out.sample("quizapp_bulkhead_timed_out_total", labels("bulkhead", b.getName()), b.getTimedOutCount());
+        }
+    }
+}
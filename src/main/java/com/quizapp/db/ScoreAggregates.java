@@ -0,0 +1,156 @@
+package com.quizapp.db;
+
+import com.quizapp.model.LeaderboardPeriod;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Folds a batch of scores into per-board deltas and adds them to the leaderboard table.
+ * Each score counts towards the overall board and, when set, its category and difficulty boards,
+ * for every period. The caller applies the deltas in the transaction that inserts the scores,
+ * so the boards never disagree with the scores table.
+ */
+final class ScoreAggregates {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO leaderboard (period, period_start, category_id, difficulty, user_id, points, questions, quizzes, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (period, period_start, category_id, difficulty, user_id) DO UPDATE SET " +
+            "points = leaderboard.points + EXCLUDED.points, " +
+            "questions = leaderboard.questions + EXCLUDED.questions, " +
+            "quizzes = leaderboard.quizzes + EXCLUDED.quizzes, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    /** Category id of the board covering all categories. */
+    static final int ALL_CATEGORIES = 0;
+    /** Difficulty of the board covering all difficulties. */
+    static final String ALL_DIFFICULTIES = "";
+
+    private static final class Key {
+        final LeaderboardPeriod period;
+        final LocalDate start;
+        final int categoryId;
+        final String difficulty;
+        final int userId;
+
+        Key(LeaderboardPeriod period, LocalDate start, int categoryId, String difficulty, int userId) {
+            this.period = period;
+            this.start = start;
+            this.categoryId = categoryId;
+            this.difficulty = difficulty;
+            this.userId = userId;
+        }
+    }
+
+    // Rows are upserted in primary key order, so concurrent writers lock them in the same order and cannot deadlock
+    private static final Comparator<Key> ORDER = Comparator.<Key, String>comparing(k -> k.period.getKey())
+            .thenComparing(k -> k.start)
+            .thenComparingInt(k -> k.categoryId)
+            .thenComparing(k -> k.difficulty)
+            .thenComparingInt(k -> k.userId);
+
+    private final ZoneId zone;
+    // Per board: points, questions, quizzes
+    private final Map<Key, long[]> deltas = new TreeMap<>(ORDER);
+
+    ScoreAggregates() {
+        this(ZoneId.systemDefault());
+    }
+
+    ScoreAggregates(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Normalizes a difficulty to its board key: trimmed, lower case, and {@link #ALL_DIFFICULTIES} if unset.
+     */
+    static String boardDifficulty(String difficulty) {
+        return (difficulty == null || difficulty.trim().isEmpty())
+                ? ALL_DIFFICULTIES : difficulty.trim().toLowerCase(Locale.ROOT);
+    }
+
+    void add(ScoreRecord r) {
+        // taken_at is stored as local time, so the day and week follow the same zone as the scores table
+        LocalDate day = Instant.ofEpochMilli(r.getTakenAt()).atZone(zone).toLocalDate();
+        int categoryId = r.getCategoryId() == null ? ALL_CATEGORIES : r.getCategoryId();
+        String difficulty = boardDifficulty(r.getDifficulty());
+
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            LocalDate start = period.startOf(day);
+            add(new Key(period, start, ALL_CATEGORIES, ALL_DIFFICULTIES, r.getUserId()), r);
+            if (categoryId != ALL_CATEGORIES) {
+                add(new Key(period, start, categoryId, ALL_DIFFICULTIES, r.getUserId()), r);
+            }
+            if (!difficulty.equals(ALL_DIFFICULTIES)) {
+                add(new Key(period, start, ALL_CATEGORIES, difficulty, r.getUserId()), r);
+                if (categoryId != ALL_CATEGORIES) {
+                    add(new Key(period, start, categoryId, difficulty, r.getUserId()), r);
+                }
+            }
+        }
+    }
+
+    private void add(Key key, ScoreRecord r) {
+        long[] d = deltas.computeIfAbsent(key, k -> new long[3]);
+        d[0] += r.getScore();
+        d[1] += r.getTotal();
+        d[2]++;
+    }
+
+    /**
+     * Receives one accumulated board row from {@link #forEach}.
+     */
+    interface RowConsumer {
+        void accept(LeaderboardPeriod period, LocalDate start, int categoryId, String difficulty, int userId,
+                    long points, long questions, int quizzes);
+    }
+
+    /**
+     * Passes the accumulated deltas to {@code action} in primary key order, for stores that keep boards in memory.
+     */
+    void forEach(RowConsumer action) {
+        for (Map.Entry<Key, long[]> e : deltas.entrySet()) {
+            Key k = e.getKey();
+            long[] d = e.getValue();
+            action.accept(k.period, k.start, k.categoryId, k.difficulty, k.userId, d[0], d[1], (int) d[2]);
+        }
+    }
+
+    boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    /**
+     * Adds the accumulated deltas to the leaderboard table, one batched upsert per board row.
+     * Must run inside the caller's transaction.
+     */
+    void apply(Connection c) throws SQLException {
+        if (deltas.isEmpty()) return;
+        try (PreparedStatement p = c.prepareStatement(UPSERT_SQL)) {
+            for (Map.Entry<Key, long[]> e : deltas.entrySet()) {
+                Key k = e.getKey();
+                long[] d = e.getValue();
+                p.setString(1, k.period.getKey());
+                p.setDate(2, Date.valueOf(k.start));
+                p.setInt(3, k.categoryId);
+                p.setString(4, k.difficulty);
+                p.setInt(5, k.userId);
+                p.setLong(6, d[0]);
+                p.setLong(7, d[1]);
+                p.setInt(8, (int) d[2]);
+                p.addBatch();
+            }
+            p.executeBatch();
+        }
+    }
+}
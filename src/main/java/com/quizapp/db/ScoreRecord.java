@@ -0,0 +1,71 @@
+package com.quizapp.db;
+
+/**
+ * One finished quiz attempt waiting to be written to the scores table.
+ */
+public final class ScoreRecord {
+    private final int userId;
+    private final int score;
+    private final int total;
+    private final Integer categoryId;
+    private final String difficulty;
+    private final long takenAt;
+
+    public ScoreRecord(int userId, int score, int total, Integer categoryId, String difficulty, long takenAt) {
+        this.userId = userId;
+        this.score = score;
+        this.total = total;
+        this.categoryId = categoryId;
+        this.difficulty = difficulty;
+        this.takenAt = takenAt;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * When the quiz was finished, in epoch milliseconds.
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Encodes the record as a single spool line (without the trailing newline).
+     * Difficulty goes last so it may contain commas.
+     */
+    String toSpoolLine() {
+        String diff = difficulty == null ? "" : difficulty.replace('\n', ' ').replace('\r', ' ');
+        return userId + "," + score + "," + total + "," + (categoryId == null ? "" : categoryId)
+                + "," + takenAt + "," + (difficulty == null ? "-" : "+" + diff);
+    }
+
+    static ScoreRecord fromSpoolLine(String line) {
+        String[] f = line.split(",", 6);
+        if (f.length != 6) throw new IllegalArgumentException("Bad spool line: " + line);
+        return new ScoreRecord(
+                Integer.parseInt(f[0]),
+                Integer.parseInt(f[1]),
+                Integer.parseInt(f[2]),
+                f[3].isEmpty() ? null : Integer.valueOf(f[3]),
+                f[5].startsWith("+") ? f[5].substring(1) : null,
+                Long.parseLong(f[4]));
+    }
+}
@@ -0,0 +1,619 @@
+package com.quizapp.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes finished quiz scores to the database in batches from a background thread.
+ *
+ * <p>Every accepted score is first appended to a local spool file, so queued scores survive
+ * a crash. A checkpoint file records how much of the spool has been committed. Normally the
+ * flusher takes scores from an in-memory queue; when the database fails or the queue overflows
+ * it switches to replay mode and reads the uncommitted tail of the spool instead, until it has
+ * caught up.</p>
+ *
+ * <p>Each batch also adds its totals to the leaderboard table in the same transaction.</p>
+ *
+ * <p>The spool starts with a header line naming it with a random id, and each batch also records in
+ * the score_spool table how far that spool has been committed. The checkpoint file is only a hint:
+ * if the process dies after a batch commits but before the checkpoint is written, the replay finds
+ * the rows below the database's offset and skips them instead of inserting them twice. Scores
+ * written synchronously by CALLER_RUNS are not in the spool and are not tracked.</p>
+ *
+ * <p>A batch that fails with a data exception or constraint violation (SQLState class 22 or 23,
+ * e.g. a deleted user or an over-long difficulty) would fail the same way on every retry. Its rows
+ * are then written one at a time, and those that still fail are appended to a dead-letter file next
+ * to the spool and skipped, so they do not hold up the scores behind them. Any other error is taken
+ * as the database being unavailable and switches to replay mode.</p>
+ */
+public class ScoreWriter implements AutoCloseable {
+
+    /**
+     * What happens when the in-memory queue is full.
+     */
+    public enum BackpressurePolicy {
+        /** Wait up to the offer timeout for space, then fall back to the spool. */
+        BLOCK,
+        /** Append to the spool only; the flusher picks it up in replay mode. */
+        SPOOL,
+        /** Discard the score. */
+        DROP,
+        /** Insert the score synchronously on the calling thread. */
+        CALLER_RUNS
+    }
+
+    private static final int MAX_SPOOL_FILES = 8;
+
+    private static final String SPOOL_HEADER = "#spool ";
+
+    private static final class Pending {
+        final ScoreRecord record;
+        final long spoolEnd;
+
+        Pending(ScoreRecord record, long spoolEnd) {
+            this.record = record;
+            this.spoolEnd = spoolEnd;
+        }
+    }
+
+    private final ConnectionSource connections;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BackpressurePolicy policy;
+    private final long offerTimeoutMs;
+    private final boolean syncSpool;
+
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Semaphore slots;
+
+    // Guards spool appends, queue inserts, the checkpoint and the replay flag
+    private final Object lock = new Object();
+    private final Path spoolPath;
+    private final Path checkpointPath;
+    private final Path deadLetterPath;
+    private final FileChannel spool;
+    private final FileLock spoolLock;
+    private long committedOffset;
+    // Offset just past the spool's header line, where its first record starts
+    private long spoolStart;
+    private volatile boolean replaying;
+    // Id of the current spool in score_spool, and of the one it replaced until its row is deleted
+    private volatile String spoolId;
+    private volatile String retiredSpoolId;
+
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    // --- Metrics ---
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spooledOnly = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    ScoreWriter(ConnectionSource connections, Path spoolDir, int capacity, int batchSize, long flushIntervalMs,
+                BackpressurePolicy policy, long offerTimeoutMs, boolean syncSpool) throws IOException {
+        this.connections = connections;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.policy = policy;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.syncSpool = syncSpool;
+        this.slots = new Semaphore(Math.max(1, capacity));
+
+        // Pick the first spool not locked by another running instance on this machine
+        Files.createDirectories(spoolDir);
+        FileChannel channel = null;
+        FileLock fileLock = null;
+        Path path = null;
+        for (int i = 0; i < MAX_SPOOL_FILES && fileLock == null; i++) {
+            path = spoolDir.resolve(i == 0 ? "scores.spool" : "scores-" + i + ".spool");
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                fileLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                fileLock = null;
+            }
+            if (fileLock == null) channel.close();
+        }
+        if (fileLock == null) {
+            throw new IOException("All score spool files in " + spoolDir + " are in use");
+        }
+        this.spool = channel;
+        this.spoolLock = fileLock;
+        this.spoolPath = path;
+        this.checkpointPath = path.resolveSibling(path.getFileName() + ".checkpoint");
+        this.deadLetterPath = path.resolveSibling(path.getFileName() + ".dead");
+        recover();
+
+        this.flusher = new Thread(this::runFlusher, "quizapp-score-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Accepts a score for writing. Returns false only if the DROP policy discarded it.
+     */
+    public boolean submit(ScoreRecord record) throws SQLException {
+        submitted.incrementAndGet();
+
+        boolean haveSlot;
+        if (policy == BackpressurePolicy.BLOCK) {
+            try {
+                haveSlot = slots.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                haveSlot = false;
+            }
+        } else {
+            haveSlot = slots.tryAcquire();
+        }
+
+        if (!haveSlot && policy == BackpressurePolicy.DROP) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (!haveSlot && policy == BackpressurePolicy.CALLER_RUNS && !replaying) {
+            try {
+                insert(List.of(new Pending(record, -1)));
+                written.incrementAndGet();
+                return true;
+            } catch (SQLException e) {
+                failures.incrementAndGet();
+                // Fall through and keep it in the spool
+            }
+        }
+
+        synchronized (lock) {
+            try {
+                long end = appendToSpool(record);
+                if (haveSlot && !replaying) {
+                    queue.add(new Pending(record, end));
+                    return true;
+                }
+                spooledOnly.incrementAndGet();
+                enterReplayMode();
+            } catch (IOException e) {
+                if (haveSlot && !replaying) slots.release();
+                throw new SQLException("Could not spool score: " + e.getMessage(), e);
+            } finally {
+                if (haveSlot && replaying) {
+                    slots.release();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Waits until everything submitted so far has been written, or the timeout elapses.
+     * Returns true if the writer is fully caught up.
+     */
+    public boolean awaitFlushed(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (lock) {
+                try {
+                    if (queue.isEmpty() && committedOffset >= spool.size()) return true;
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    public ScoreWriterStats getStats() {
+        long count = flushes.get();
+        long pendingBytes;
+        synchronized (lock) {
+            try {
+                pendingBytes = spool.size() - committedOffset;
+            } catch (IOException e) {
+                pendingBytes = -1;
+            }
+        }
+        return new ScoreWriterStats(queue.size(), submitted.get(), written.get(), dropped.get(), spooledOnly.get(),
+                count, count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(flushNanos.get() / count) / 1000.0,
+                TimeUnit.NANOSECONDS.toMicros(lastFlushNanos.get()) / 1000.0,
+                TimeUnit.NANOSECONDS.toMicros(maxFlushNanos.get()) / 1000.0,
+                failures.get(), deadLettered.get(), replaying, pendingBytes, spoolPath.toString());
+    }
+
+    /**
+     * Stops the flusher after it has written what is queued. Anything not written stays in the spool.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            flusher.join(flushIntervalMs * 2 + 5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            spoolLock.release();
+            spool.close();
+        } catch (IOException ignored) {
+            // Shutting down anyway
+        }
+    }
+
+    // --- Spool ---
+
+    private void recover() throws IOException {
+        long size = spool.size();
+        // Drop a partially written last line left behind by a crash
+        long validEnd = size;
+        if (size > 0) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            while (validEnd > 0) {
+                one.clear();
+                spool.read(one, validEnd - 1);
+                if (one.get(0) == '\n') break;
+                validEnd--;
+            }
+            if (validEnd < size) spool.truncate(validEnd);
+        }
+
+        if (validEnd == 0) {
+            startSpool();
+            Files.deleteIfExists(checkpointPath);
+            return;
+        }
+
+        long headerEnd = readHeader();
+        spoolStart = headerEnd;
+        if (spoolId == null) {
+            // Spooled before spools had ids: replayed at least once, as it always was
+            spoolId = UUID.randomUUID().toString();
+        }
+        committedOffset = headerEnd;
+        if (Files.exists(checkpointPath)) {
+            try {
+                committedOffset = Long.parseLong(new String(Files.readAllBytes(checkpointPath), StandardCharsets.US_ASCII).trim());
+            } catch (NumberFormatException e) {
+                committedOffset = headerEnd;
+            }
+        }
+        if (committedOffset < headerEnd) committedOffset = headerEnd;
+        if (committedOffset > validEnd) committedOffset = validEnd;
+        replaying = committedOffset < validEnd;
+        if (replaying) {
+            System.err.println("Score writer: replaying " + (validEnd - committedOffset) + " spooled bytes from " + spoolPath);
+        }
+    }
+
+    /**
+     * Reads the spool id from the header line into spoolId. Returns the offset just past the header,
+     * or 0 if the spool has none.
+     */
+    private long readHeader() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(SPOOL_HEADER.length() + 64);
+        int n = spool.read(buf, 0);
+        String head = new String(buf.array(), 0, Math.max(n, 0), StandardCharsets.UTF_8);
+        int eol = head.indexOf('\n');
+        if (!head.startsWith(SPOOL_HEADER) || eol < 0) return 0;
+        spoolId = head.substring(SPOOL_HEADER.length(), eol).trim();
+        return head.substring(0, eol + 1).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /** Caller holds the lock, or is the constructor. Empties the spool and starts it over under a new id. */
+    private void startSpool() throws IOException {
+        String id = UUID.randomUUID().toString();
+        ByteBuffer header = ByteBuffer.wrap((SPOOL_HEADER + id + "\n").getBytes(StandardCharsets.UTF_8));
+        spool.truncate(0);
+        long pos = 0;
+        while (header.hasRemaining()) {
+            pos += spool.write(header, pos);
+        }
+        spool.force(false);
+        spoolId = id;
+        spoolStart = pos;
+        committedOffset = pos;
+    }
+
+    /** Caller holds the lock. Returns the spool offset just past the record. */
+    private long appendToSpool(ScoreRecord record) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap((record.toSpoolLine() + "\n").getBytes(StandardCharsets.UTF_8));
+        long pos = spool.size();
+        while (buf.hasRemaining()) {
+            pos += spool.write(buf, pos);
+        }
+        if (syncSpool) spool.force(false);
+        return pos;
+    }
+
+    /** Caller holds the lock. Everything queued is also in the spool, so it is simply dropped. */
+    private void enterReplayMode() {
+        replaying = true;
+        int n = queue.size();
+        queue.clear();
+        slots.release(n);
+    }
+
+    private void checkpoint(long offset) throws IOException {
+        synchronized (lock) {
+            committedOffset = offset;
+            if (committedOffset >= spool.size() && queue.isEmpty() && spool.size() > spoolStart) {
+                // Fully caught up: start the spool over. The old id's row goes with the next batch.
+                String old = spoolId;
+                startSpool();
+                if (old != null && !old.equals(spoolId)) retiredSpoolId = old;
+                Files.deleteIfExists(checkpointPath);
+                return;
+            }
+            if (committedOffset <= spoolStart) {
+                Files.deleteIfExists(checkpointPath);
+                return;
+            }
+            Path tmp = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+            Files.write(tmp, Long.toString(committedOffset).getBytes(StandardCharsets.US_ASCII));
+            Files.move(tmp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // --- Flusher ---
+
+    private void runFlusher() {
+        long backoffMs = 500;
+        while (true) {
+            try {
+                if (replaying) {
+                    replayOnce();
+                } else if (!flushOnce() && !running) {
+                    break;
+                }
+                backoffMs = 500;
+            } catch (SQLException | IOException e) {
+                failures.incrementAndGet();
+                System.err.println("Score writer: flush failed, scores kept in spool: " + e.getMessage());
+                synchronized (lock) {
+                    enterReplayMode();
+                }
+                if (!running) break;
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            }
+        }
+    }
+
+    /**
+     * Collects up to batchSize queued scores, waiting at most flushIntervalMs after the first, and writes them.
+     */
+    private boolean flushOnce() throws SQLException, IOException, InterruptedException {
+        Pending first = queue.poll(running ? flushIntervalMs : 0, TimeUnit.MILLISECONDS);
+        if (first == null) return false;
+
+        List<Pending> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            long remaining = running ? deadline - System.nanoTime() : 0;
+            Pending p = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (p == null) break;
+            batch.add(p);
+        }
+        slots.release(batch.size());
+
+        write(batch);
+        checkpoint(batch.get(batch.size() - 1).spoolEnd);
+        return true;
+    }
+
+    /**
+     * Writes the next batch of uncommitted scores from the spool file.
+     */
+    private void replayOnce() throws SQLException, IOException {
+        long start;
+        long size;
+        synchronized (lock) {
+            start = committedOffset;
+            size = spool.size();
+            if (start >= size) {
+                checkpoint(size);
+                replaying = false;
+                return;
+            }
+        }
+
+        List<Pending> records = new ArrayList<>(batchSize);
+        long end = start;
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        byte[] lineBytes = new byte[256];
+        int lineLen = 0;
+        long pos = start;
+        outer:
+        while (pos < size && records.size() < batchSize) {
+            buf.clear();
+            int n = spool.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                byte b = buf.get(i);
+                if (b != '\n') {
+                    if (lineLen == lineBytes.length) lineBytes = Arrays.copyOf(lineBytes, lineLen * 2);
+                    lineBytes[lineLen++] = b;
+                    continue;
+                }
+                end = pos + i + 1;
+                String line = new String(lineBytes, 0, lineLen, StandardCharsets.UTF_8);
+                lineLen = 0;
+                if (line.startsWith("#")) continue;
+                try {
+                    records.add(new Pending(ScoreRecord.fromSpoolLine(line), end));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Score writer: skipping corrupt spool line: " + line);
+                }
+                if (records.size() >= batchSize) break outer;
+            }
+            pos += n;
+        }
+
+        if (!records.isEmpty()) {
+            write(records);
+        }
+        checkpoint(end);
+    }
+
+    /**
+     * Writes a batch of spooled scores. If it fails in a way retrying cannot fix, writes the rows one by
+     * one instead, checkpointing after each, and moves the ones that still fail to the dead-letter file.
+     */
+    private void write(List<Pending> batch) throws SQLException, IOException {
+        try {
+            insertTimed(batch);
+            return;
+        } catch (SQLException e) {
+            if (!isPermanent(e)) throw e;
+        }
+
+        for (Pending p : batch) {
+            try {
+                insertTimed(List.of(p));
+            } catch (SQLException e) {
+                if (!isPermanent(e)) throw e;
+                deadLetter(p.record, e);
+                // Move the database's offset past it too, so a replay does not dead-letter it again
+                insert(List.of(), p.spoolEnd);
+            }
+            checkpoint(p.spoolEnd);
+        }
+    }
+
+    /**
+     * True for errors caused by the rows themselves, which fail again however often they are retried:
+     * data exceptions (SQLState class 22) and integrity constraint violations (class 23).
+     * Connection failures, serialization failures and the like are worth retrying.
+     */
+    static boolean isPermanent(SQLException e) {
+        for (SQLException x = e; x != null; x = x.getNextException()) {
+            String state = x.getSQLState();
+            if (state != null && (state.startsWith("22") || state.startsWith("23"))) return true;
+        }
+        return false;
+    }
+
+    private void deadLetter(ScoreRecord record, SQLException e) throws IOException {
+        String reason = String.valueOf(e.getMessage()).replace('\n', ' ').replace('\r', ' ');
+        String entry = "# " + Instant.now() + " SQLState " + e.getSQLState() + ": " + reason + "\n"
+                + record.toSpoolLine() + "\n";
+        Files.write(deadLetterPath, entry.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        deadLettered.incrementAndGet();
+        System.err.println("Score writer: score cannot be written, moved to " + deadLetterPath + ": " + reason);
+    }
+
+    private void insertTimed(List<Pending> batch) throws SQLException {
+        long t0 = System.nanoTime();
+        int count = insert(batch);
+        long nanos = System.nanoTime() - t0;
+        flushes.incrementAndGet();
+        flushNanos.addAndGet(nanos);
+        lastFlushNanos.set(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+        written.addAndGet(count);
+    }
+
+    private int insert(List<Pending> batch) throws SQLException {
+        return insert(batch, batch.get(batch.size() - 1).spoolEnd);
+    }
+
+    /**
+     * Inserts the scores not yet committed and moves the spool's offset in score_spool to {@code end},
+     * in one transaction. A negative end means the scores are not in the spool. Returns the number inserted.
+     */
+    private int insert(List<Pending> batch, long end) throws SQLException {
+        String id = spoolId;
+        String retired = retiredSpoolId;
+        try (Connection c = connections.get()) {
+            c.setAutoCommit(false);
+            try {
+                long committed = end < 0 ? -1 : committedInDatabase(c, id);
+                ScoreAggregates aggregates = new ScoreAggregates();
+                int count = 0;
+                try (PreparedStatement p = c.prepareStatement(SqlCatalog.INSERT_SCORE)) {
+                    for (Pending pending : batch) {
+                        // Committed before a crash that lost the checkpoint
+                        if (pending.spoolEnd >= 0 && pending.spoolEnd <= committed) continue;
+                        ScoreRecord r = pending.record;
+                        aggregates.add(r);
+                        p.setInt(1, r.getUserId());
+                        p.setInt(2, r.getScore());
+                        p.setInt(3, r.getTotal());
+                        if (r.getCategoryId() != null) p.setInt(4, r.getCategoryId());
+                        else p.setNull(4, Types.INTEGER);
+                        p.setString(5, r.getDifficulty());
+                        p.setTimestamp(6, new Timestamp(r.getTakenAt()));
+                        p.addBatch();
+                        count++;
+                    }
+                    if (count > 0) p.executeBatch();
+                }
+                aggregates.apply(c);
+                if (end > committed) {
+                    try (PreparedStatement p = c.prepareStatement(SqlCatalog.UPSERT_SPOOL_OFFSET)) {
+                        p.setString(1, id);
+                        p.setLong(2, end);
+                        p.executeUpdate();
+                    }
+                    if (retired != null) {
+                        try (PreparedStatement p = c.prepareStatement(SqlCatalog.DELETE_SPOOL_OFFSET)) {
+                            p.setString(1, retired);
+                            p.executeUpdate();
+                        }
+                    }
+                }
+                c.commit();
+                if (retired != null && end > committed && retired.equals(retiredSpoolId)) retiredSpoolId = null;
+                return count;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static long committedInDatabase(Connection c, String id) throws SQLException {
+        try (PreparedStatement p = c.prepareStatement(SqlCatalog.SPOOL_OFFSET)) {
+            p.setString(1, id);
+            try (ResultSet r = p.executeQuery()) {
+                return r.next() ? r.getLong(1) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.quizapp.db;
+
+/**
+ * Point-in-time snapshot of score writer metrics.
+ */
+public class ScoreWriterStats {
+    private final int queueDepth;
+    private final long submitted;
+    private final long written;
+    private final long dropped;
+    private final long spooledOnly;
+    private final long flushes;
+    private final double avgFlushMillis;
+    private final double lastFlushMillis;
+    private final double maxFlushMillis;
+    private final long failures;
+    private final long deadLettered;
+    private final boolean replaying;
+    private final long pendingSpoolBytes;
+    private final String spoolFile;
+
+    public ScoreWriterStats(int queueDepth, long submitted, long written, long dropped, long spooledOnly,
+                            long flushes, double avgFlushMillis, double lastFlushMillis, double maxFlushMillis,
+                            long failures, long deadLettered, boolean replaying, long pendingSpoolBytes, String spoolFile) {
+        this.queueDepth = queueDepth;
+        this.submitted = submitted;
+        this.written = written;
+        this.dropped = dropped;
+        this.spooledOnly = spooledOnly;
+        this.flushes = flushes;
+        this.avgFlushMillis = avgFlushMillis;
+        this.lastFlushMillis = lastFlushMillis;
+        this.maxFlushMillis = maxFlushMillis;
+        this.failures = failures;
+        this.deadLettered = deadLettered;
+        this.replaying = replaying;
+        this.pendingSpoolBytes = pendingSpoolBytes;
+        this.spoolFile = spoolFile;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Scores that went straight to the spool because the queue was full or the database was down.
+     */
+    public long getSpooledOnly() {
+        return spooledOnly;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public double getAvgFlushMillis() {
+        return avgFlushMillis;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushMillis;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Scores that could never be written (bad data, deleted user) and were moved to the dead-letter file.
+     */
+    public long getDeadLettered() {
+        return deadLettered;
+    }
+
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * Bytes in the spool file that have not been committed to the database yet.
+     */
+    public long getPendingSpoolBytes() {
+        return pendingSpoolBytes;
+    }
+
+    public String getSpoolFile() {
+        return spoolFile;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScoreWriterStats[queue=%d, submitted=%d, written=%d, dropped=%d, spooledOnly=%d, "
+                        + "flushes=%d, avgFlush=%.2fms, lastFlush=%.2fms, maxFlush=%.2fms, failures=%d, deadLettered=%d, replaying=%b, pendingBytes=%d]",
+                queueDepth, submitted, written, dropped, spooledOnly, flushes, avgFlushMillis, lastFlushMillis,
+                maxFlushMillis, failures, deadLettered, replaying, pendingSpoolBytes);
+    }
+}
@@ -0,0 +1,155 @@
+package com.quizapp.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * The statements on the player and login paths, each with one fixed text.
+ *
+ * <p>pgjdbc keeps a per-connection cache of prepared statements keyed by SQL text: once a text has
+ * been executed db.prepareThreshold times on a connection, it becomes a named server-side statement
+ * that later executions bind and run without being parsed or planned again, even after the
+ * PreparedStatement is closed and the connection goes back to the pool. That only pays off if a hot
+ * query always has the same text, so optional filters get one fixed statement per combination
+ * instead of SQL assembled per call. {@link Migrations#checkQueryPlans} explains these exact texts.</p>
+ *
+ * <p>Admin screens with free-form filters still build their SQL per call; they are not hot enough
+ * to be worth a statement per combination.</p>
+ */
+final class SqlCatalog {
+
+    private SqlCatalog() {
+    }
+
+    // --- Users ---
+
+    static final String USER_BY_NAME = "SELECT id, username, password_hash, is_admin FROM users WHERE username = ?";
+
+    static final String UPDATE_PASSWORD_HASH = "UPDATE users SET password_hash = ? WHERE id = ?";
+
+    // --- Questions ---
+
+    private static final String PLAYABLE_IDS =
+            "SELECT q.id FROM questions q " +
+            "WHERE EXISTS (SELECT 1 FROM options o WHERE o.question_id = q.id)";
+
+    private static final String QUESTION_STREAM =
+            "SELECT " + QuestionStreamMapper.COLUMNS + " " +
+            "FROM questions q " +
+            "JOIN options o ON q.id = o.question_id " +
+            "WHERE TRUE";
+
+    // Indexed by filterVariant(categoryId, difficulty)
+    private static final String[] PLAYABLE_IDS_BY_FILTER = byFilter(PLAYABLE_IDS, " ORDER BY q.id");
+    private static final String[] QUESTION_STREAM_BY_FILTER = byFilter(QUESTION_STREAM, " ORDER BY q.id, o.id");
+
+    static final String QUESTIONS_BY_IDS =
+            "SELECT " + QuestionStreamMapper.COLUMNS + " " +
+            "FROM questions q " +
+            "JOIN options o ON q.id = o.question_id " +
+            "WHERE q.id = ANY(?) " +
+            "ORDER BY q.id, o.id";
+
+    static final String QUESTION_META_BY_ID =
+            "SELECT q.id, q.question_text, q.category_id, q.difficulty, q.version " +
+            "FROM questions q " +
+            "WHERE q.id = ?";
+
+    static final String OPTIONS_BY_QUESTION = "SELECT id, option_text, is_correct FROM options WHERE question_id = ? ORDER BY id";
+
+    // Two result sets in one round trip; the server prepares each part separately
+    static final String EDITOR_DATA = QUESTION_META_BY_ID + "; " + OPTIONS_BY_QUESTION;
+
+    // --- Scores and leaderboards ---
+
+    static final String INSERT_SCORE =
+            "INSERT INTO scores (user_id, score, total, category_id, difficulty, taken_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String SPOOL_OFFSET = "SELECT committed_offset FROM score_spool WHERE spool_id = ?";
+
+    static final String UPSERT_SPOOL_OFFSET =
+            "INSERT INTO score_spool (spool_id, committed_offset) VALUES (?, ?) " +
+            "ON CONFLICT (spool_id) DO UPDATE SET " +
+            "committed_offset = GREATEST(score_spool.committed_offset, EXCLUDED.committed_offset), " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    static final String DELETE_SPOOL_OFFSET = "DELETE FROM score_spool WHERE spool_id = ?";
+
+    static final String LEADERBOARD_TOP =
+            "SELECT l.user_id, u.username, l.points, l.questions, l.quizzes " +
+            "FROM leaderboard l JOIN users u ON u.id = l.user_id " +
+            "WHERE l.period = ? AND l.period_start = ? AND l.category_id = ? AND l.difficulty = ? " +
+            "ORDER BY l.points DESC, l.user_id LIMIT ?";
+
+    static final String LEADERBOARD_USER_RANK =
+            "SELECT u.username, l.points, l.questions, l.quizzes, " +
+            "(SELECT COUNT(*) FROM leaderboard o WHERE o.period = l.period AND o.period_start = l.period_start " +
+            "AND o.category_id = l.category_id AND o.difficulty = l.difficulty AND o.points > l.points) + 1 " +
+            "FROM leaderboard l JOIN users u ON u.id = l.user_id " +
+            "WHERE l.period = ? AND l.period_start = ? AND l.category_id = ? AND l.difficulty = ? AND l.user_id = ?";
+
+    static final String HISTORY_FIRST_PAGE =
+            "SELECT id, score, total, category_id, difficulty, taken_at FROM scores " +
+            "WHERE user_id = ? AND taken_at IS NOT NULL " +
+            "ORDER BY taken_at DESC, id DESC LIMIT ?";
+
+    static final String HISTORY_NEXT_PAGE =
+            "SELECT id, score, total, category_id, difficulty, taken_at FROM scores " +
+            "WHERE user_id = ? AND taken_at IS NOT NULL AND (taken_at, id) < (?, ?) " +
+            "ORDER BY taken_at DESC, id DESC LIMIT ?";
+
+    static final String USER_TOTALS =
+            "SELECT points, questions, quizzes FROM leaderboard " +
+            "WHERE user_id = ? AND period = ? AND category_id = ? AND difficulty = ?";
+
+    static final String USER_DAILY_PROGRESS =
+            "SELECT period_start, points, questions, quizzes FROM leaderboard " +
+            "WHERE user_id = ? AND period = ? AND category_id = ? AND difficulty = ? AND period_start >= ? " +
+            "ORDER BY period_start";
+
+    static final String USER_CATEGORY_PROGRESS =
+            "SELECT category_id, points, questions, quizzes FROM leaderboard " +
+            "WHERE user_id = ? AND period = ? AND difficulty = ? AND category_id <> ? " +
+            "ORDER BY quizzes DESC, category_id";
+
+    // --- Filter variants ---
+
+    /**
+     * The ids of questions with options, optionally filtered, ordered by id.
+     * Bind the filters with {@link #bindFilters}.
+     */
+    static String playableIds(Integer categoryId, String difficulty) {
+        return PLAYABLE_IDS_BY_FILTER[filterVariant(categoryId, difficulty)];
+    }
+
+    /**
+     * Questions joined to their options, optionally filtered, ordered by question and option id.
+     * Bind the filters with {@link #bindFilters}.
+     */
+    static String questionStream(Integer categoryId, String difficulty) {
+        return QUESTION_STREAM_BY_FILTER[filterVariant(categoryId, difficulty)];
+    }
+
+    /**
+     * Binds the non-null filters, category first, starting at parameter {@code index}.
+     * Returns the next free parameter index.
+     */
+    static int bindFilters(PreparedStatement p, int index, Integer categoryId, String difficulty) throws SQLException {
+        if (categoryId != null) p.setInt(index++, categoryId);
+        if (difficulty != null) p.setString(index++, difficulty);
+        return index;
+    }
+
+    private static int filterVariant(Integer categoryId, String difficulty) {
+        return (categoryId != null ? 2 : 0) + (difficulty != null ? 1 : 0);
+    }
+
+    private static String[] byFilter(String head, String tail) {
+        return new String[]{
+            head + tail,
+            head + " AND q.difficulty = ?" + tail,
+            head + " AND q.category_id = ?" + tail,
+            head + " AND q.category_id = ? AND q.difficulty = ?" + tail,
+        };
+    }
+}
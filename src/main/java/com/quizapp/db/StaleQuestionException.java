@@ -0,0 +1,13 @@
+package com.quizapp.db;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown when a question update is based on an outdated version, because someone else
+ * changed or deleted the question after it was loaded. The message is safe to show to the user.
+ */
+public class StaleQuestionException extends SQLException {
+    public StaleQuestionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.quizapp.db;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a SQLException where a checked exception cannot be thrown, e.g. inside a Stream.
+ */
+public class UncheckedSQLException extends RuntimeException {
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,134 @@
+package com.quizapp.io;
+
+import com.quizapp.db.Repository;
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the whole question bank as NDJSON (gzip-compressed if the file name ends in .gz),
+ * in the format {@link BulkImporter} reads, so an export can be restored anywhere.
+ *
+ * <p>All categories come first as category-only records, then every question with its options,
+ * streamed from a server-side cursor, so memory use does not depend on bank size. The file is
+ * written next to the target and moved into place at the end, so a failed export never leaves
+ * a truncated file behind.</p>
+ *
+ * <p>Every question is written, but a restore only adds those that pass the import checks in
+ * {@link QuestionRecords#build}. Questions without options, without a category, or without
+ * exactly one correct option are still in the file for reference, and are counted in
+ * {@link ExportResult#getQuestionsUnrestorable()}.</p>
+ */
+public class BankExporter {
+
+    private static final int PROGRESS_EVERY = 1000;
+
+    private BankExporter() {
+    }
+
+    /**
+     * Exports the bank to {@code file}.
+     *
+     * @param progress called with the number of questions written so far, may be null
+     */
+    public static ExportResult export(Path file, LongConsumer progress) throws SQLException, IOException {
+        long start = System.nanoTime();
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+        long[] count = {0};
+        long[] unrestorable = {0};
+        try {
+            try (OutputStream out = open(tmp, file.toString().endsWith(".gz"));
+                 Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16)) {
+                StringBuilder line = new StringBuilder(512);
+                for (String category : Repository.getAllCategoryNames()) {
+                    line.setLength(0);
+                    line.append("{\"category\":");
+                    Json.quote(line, category);
+                    line.append("}\n");
+                    w.append(line);
+                }
+
+                Repository.exportQuestions(q -> {
+                    if (!restorable(q)) unrestorable[0]++;
+                    try {
+                        line.setLength(0);
+                        appendQuestion(line, q);
+                        w.append(line);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++count[0] % PROGRESS_EVERY == 0 && progress != null) progress.accept(count[0]);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        if (progress != null) progress.accept(count[0]);
+        return new ExportResult(count[0], unrestorable[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Helper to check a question against the same rules a restore applies to its record.
+     */
+    private static boolean restorable(Question q) {
+        try {
+            QuestionRecords.build(q.getText(), q.getCategory(), q.getDifficulty(), q.getOptions());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static OutputStream open(Path file, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        if (!gzip) return out;
+        // Fastest compression level: the export should run at disk speed, not CPU speed
+        return new GZIPOutputStream(out, 1 << 16) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+    }
+
+    private static void appendQuestion(StringBuilder line, Question q) {
+        line.append("{\"question\":");
+        Json.quote(line, q.getText());
+        if (q.getCategory() != null) {
+            line.append(",\"category\":");
+            Json.quote(line, q.getCategory());
+        }
+        if (q.getDifficulty() != null) {
+            line.append(",\"difficulty\":");
+            Json.quote(line, q.getDifficulty());
+        }
+        line.append(",\"options\":[");
+        boolean first = true;
+        for (Option o : q.getOptions()) {
+            if (!first) line.append(',');
+            first = false;
+            line.append("{\"text\":");
+            Json.quote(line, o.getText());
+            line.append(",\"correct\":").append(o.isCorrect()).append('}');
+        }
+        line.append("]}\n");
+    }
+}
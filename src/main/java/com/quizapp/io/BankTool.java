@@ -0,0 +1,61 @@
+package com.quizapp.io;
+
+import com.quizapp.db.Repository;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line backup and restore of the question bank:
+ * <pre>
+ * java -cp target/java-quiz-app.jar com.quizapp.io.BankTool export bank.ndjson.gz
+ * java -cp target/java-quiz-app.jar com.quizapp.io.BankTool restore bank.ndjson.gz [--replace]
+ * </pre>
+ * Restore adds to the current bank unless --replace is given. Exits with status 1 on failure.
+ * Export writes every question, but restore skips those that fail the import checks (such as
+ * questions without options); export prints how many of those the file holds.
+ */
+public class BankTool {
+    public static void main(String[] args) {
+        boolean replace = args.length == 3 && args[2].equals("--replace");
+        if (args.length < 2 || (args.length == 3 && !replace) || args.length > 3
+                || !(args[0].equals("export") || args[0].equals("restore"))) {
+            System.err.println("Usage: BankTool export <file.ndjson[.gz]>");
+            System.err.println("       BankTool restore <file.ndjson[.gz]> [--replace]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[1]);
+        try {
+            Repository.migrate();
+            if (args[0].equals("export")) {
+                ExportResult result = BankExporter.export(file, n -> System.err.println(n + " questions written"));
+                System.out.println(file + ": " + result);
+            } else {
+                ImportResult result = Repository.restoreBank(file, replace, new ImportListener() {
+                    private long lastPrinted;
+
+                    @Override
+                    public void progress(long records, long bytesRead, long totalBytes) {
+                        long now = System.currentTimeMillis();
+                        if (now - lastPrinted < 1000) return;
+                        lastPrinted = now;
+                        System.err.println(records + " records read");
+                    }
+
+                    @Override
+                    public void merging() {
+                        System.err.println("Merging staged rows...");
+                    }
+                });
+                for (String error : result.getErrors()) {
+                    System.err.println("SKIP " + error);
+                }
+                System.out.println(result);
+            }
+            System.exit(0);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.quizapp.io;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a CSV or NDJSON question file into the database.
+ *
+ * <p>The calling thread reads raw records in chunks, worker threads parse, validate and encode
+ * each chunk as COPY data, and the calling thread streams the encoded chunks (in file order)
+ * through one PostgreSQL {@code COPY} into a temporary staging table. Only a bounded window of
+ * chunks is in flight, so memory use does not depend on file size. The staged rows are then
+ * merged into categories, questions and options with a few set-based statements.</p>
+ *
+ * <p>Everything runs in the caller's transaction: the caller turns off autocommit before
+ * and commits (or rolls back) after. Invalid records are skipped and reported.</p>
+ */
+public class BulkImporter {
+
+    /** At most this many error messages are kept in the result. */
+    static final int MAX_ERRORS = 100;
+
+    // One row per question (opt_no = 0, question columns set), per option (opt_no >= 1, option columns set)
+    // and per category-only record (opt_no = -1, category set)
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE import_rows (" +
+            "seq BIGINT NOT NULL, opt_no INT NOT NULL, " +
+            "question_text TEXT, category TEXT, difficulty TEXT, " +
+            "option_text TEXT, is_correct BOOLEAN) ON COMMIT DROP";
+    private static final String COPY_SQL = "COPY import_rows FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MERGE_CATEGORIES =
+            "INSERT INTO categories (name) " +
+            "SELECT DISTINCT category FROM import_rows WHERE opt_no <= 0 " +
+            "ON CONFLICT (name) DO NOTHING";
+    private static final String ASSIGN_IDS =
+            "CREATE TEMP TABLE import_ids ON COMMIT DROP AS " +
+            "SELECT seq, nextval(pg_get_serial_sequence('questions', 'id'))::int AS question_id " +
+            "FROM import_rows WHERE opt_no = 0 ORDER BY seq";
+    private static final String MERGE_QUESTIONS =
+            "INSERT INTO questions (id, question_text, category_id, difficulty) " +
+            "SELECT i.question_id, r.question_text, c.id, r.difficulty " +
+            "FROM import_rows r " +
+            "JOIN import_ids i ON i.seq = r.seq " +
+            "JOIN categories c ON c.name = r.category " +
+            "WHERE r.opt_no = 0";
+    private static final String MERGE_OPTIONS =
+            "INSERT INTO options (question_id, option_text, is_correct) " +
+            "SELECT i.question_id, r.option_text, r.is_correct " +
+            "FROM import_rows r " +
+            "JOIN import_ids i ON i.seq = r.seq " +
+            "WHERE r.opt_no > 0 " +
+            "ORDER BY r.seq, r.opt_no";
+
+    private final int workers;
+    private final int chunkSize;
+
+    /**
+     * @param workers   parser threads
+     * @param chunkSize records per chunk handed to a parser thread
+     */
+    public BulkImporter(int workers, int chunkSize) {
+        this.workers = Math.max(1, workers);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Imports one file (optionally gzip-compressed, by .gz extension) on the given connection.
+     * Cancels with an {@link InterruptedIOException} if the calling thread is interrupted.
+     */
+    public ImportResult importFile(Connection c, Path file, ImportFormat format, ImportListener listener)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        long totalBytes = Files.size(file);
+
+        try (Statement s = c.createStatement()) {
+            s.execute(CREATE_STAGING);
+        }
+
+        long questions = 0;
+        long options = 0;
+        long skipped = 0;
+        List<String> errors = new ArrayList<>();
+
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "quizapp-import-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        CountingInputStream counting = new CountingInputStream(Files.newInputStream(file));
+        CopyIn copy = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                file.toString().endsWith(".gz") ? new GZIPInputStream(counting, 1 << 16) : counting,
+                StandardCharsets.UTF_8), 1 << 16)) {
+            RecordReader records = new RecordReader(reader, format == ImportFormat.CSV);
+            QuestionRecords.CsvLayout layout = null;
+            if (format == ImportFormat.CSV) {
+                String header = records.next();
+                if (header == null) throw new IOException("The file is empty");
+                try {
+                    layout = QuestionRecords.CsvLayout.fromHeader(header);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+            final QuestionRecords.CsvLayout csvLayout = layout;
+
+            copy = c.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+
+            // Chunks are parsed in parallel but written in submission order, with a bounded window
+            ArrayDeque<Future<ParsedChunk>> window = new ArrayDeque<>();
+            long seq = 0;
+            long recordCount = 0;
+            boolean eof = false;
+            while (!eof || !window.isEmpty()) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Import cancelled");
+
+                if (!eof && window.size() < workers * 2) {
+                    List<String> chunk = new ArrayList<>(chunkSize);
+                    long[] lines = new long[chunkSize];
+                    String record;
+                    while (chunk.size() < chunkSize && (record = records.next()) != null) {
+                        lines[chunk.size()] = records.recordLine();
+                        chunk.add(record);
+                    }
+                    if (chunk.size() < chunkSize) eof = true;
+                    if (!chunk.isEmpty()) {
+                        long firstSeq = seq;
+                        seq += chunk.size();
+                        window.addLast(pool.submit(() -> parse(chunk, lines, firstSeq, csvLayout)));
+                    }
+                    continue;
+                }
+
+                ParsedChunk parsed = await(window.removeFirst());
+                copy.writeToCopy(parsed.copyData, 0, parsed.copyData.length);
+                questions += parsed.questions;
+                options += parsed.options;
+                skipped += parsed.skipped;
+                for (String error : parsed.errors) {
+                    if (errors.size() < MAX_ERRORS) errors.add(error);
+                }
+                recordCount += parsed.records;
+                if (listener != null) listener.progress(recordCount, counting.count, totalBytes);
+            }
+            copy.endCopy();
+        } catch (SQLException | IOException | RuntimeException e) {
+            if (copy != null && copy.isActive()) {
+                try {
+                    copy.cancelCopy();
+                } catch (SQLException ignored) {
+                    // The transaction is rolled back by the caller anyway
+                }
+            }
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (listener != null) listener.merging();
+        int categoriesCreated;
+        try (Statement s = c.createStatement()) {
+            s.execute("ANALYZE import_rows");
+            categoriesCreated = s.executeUpdate(MERGE_CATEGORIES);
+            s.execute(ASSIGN_IDS);
+            s.executeUpdate(MERGE_QUESTIONS);
+            s.executeUpdate(MERGE_OPTIONS);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new ImportResult(questions, options, categoriesCreated, skipped, errors, elapsedMs);
+    }
+
+    /**
+     * Receives the records of {@link #readFile}, in file order.
+     */
+    public interface RecordSink {
+        /** A category-only record, as written by the exporter. */
+        void category(String name);
+
+        /** A valid question with its category name, difficulty and options, but no ids. */
+        void question(Question q);
+    }
+
+    /**
+     * Parses and validates one file on the calling thread and hands every valid record to the sink,
+     * without a database; for stores that keep the bank in memory. The result's categoriesCreated is
+     * always 0, since only the sink knows which categories are new.
+     * Cancels with an {@link InterruptedIOException} if the calling thread is interrupted.
+     */
+    public ImportResult readFile(Path file, ImportFormat format, ImportListener listener, RecordSink sink) throws IOException {
+        long start = System.nanoTime();
+        long totalBytes = Files.size(file);
+
+        long questions = 0;
+        long options = 0;
+        long skipped = 0;
+        List<String> errors = new ArrayList<>();
+
+        CountingInputStream counting = new CountingInputStream(Files.newInputStream(file));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                file.toString().endsWith(".gz") ? new GZIPInputStream(counting, 1 << 16) : counting,
+                StandardCharsets.UTF_8), 1 << 16)) {
+            RecordReader records = new RecordReader(reader, format == ImportFormat.CSV);
+            QuestionRecords.CsvLayout layout = null;
+            if (format == ImportFormat.CSV) {
+                String header = records.next();
+                if (header == null) throw new IOException("The file is empty");
+                try {
+                    layout = QuestionRecords.CsvLayout.fromHeader(header);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+
+            long recordCount = 0;
+            String record;
+            while ((record = records.next()) != null) {
+                recordCount++;
+                Question q;
+                try {
+                    if (layout != null) {
+                        q = QuestionRecords.fromCsv(record, layout);
+                    } else {
+                        Map<?, ?> m = QuestionRecords.jsonObject(record);
+                        String category = QuestionRecords.categoryOnly(m);
+                        if (category != null) {
+                            sink.category(category);
+                            continue;
+                        }
+                        q = QuestionRecords.fromJson(m);
+                    }
+                } catch (IllegalArgumentException e) {
+                    skipped++;
+                    if (errors.size() < MAX_ERRORS) errors.add("Line " + records.recordLine() + ": " + e.getMessage());
+                    continue;
+                }
+                sink.question(q);
+                questions++;
+                options += q.getOptions().size();
+
+                if (recordCount % chunkSize == 0) {
+                    if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Import cancelled");
+                    if (listener != null) listener.progress(recordCount, counting.count, totalBytes);
+                }
+            }
+            if (listener != null) listener.progress(recordCount, counting.count, totalBytes);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new ImportResult(questions, options, 0, skipped, errors, elapsedMs);
+    }
+
+    /**
+     * Parses, validates and encodes one chunk. Runs on a worker thread.
+     */
+    private static ParsedChunk parse(List<String> records, long[] lines, long firstSeq, QuestionRecords.CsvLayout layout) {
+        StringBuilder out = new StringBuilder(records.size() * 256);
+        ParsedChunk chunk = new ParsedChunk();
+        chunk.records = records.size();
+        for (int i = 0; i < records.size(); i++) {
+            long seq = firstSeq + i;
+            Question q;
+            try {
+                if (layout != null) {
+                    q = QuestionRecords.fromCsv(records.get(i), layout);
+                } else {
+                    Map<?, ?> m = QuestionRecords.jsonObject(records.get(i));
+                    String category = QuestionRecords.categoryOnly(m);
+                    if (category != null) {
+                        out.append(seq).append(",-1,,");
+                        csv(out, category);
+                        out.append(",,,\n");
+                        continue;
+                    }
+                    q = QuestionRecords.fromJson(m);
+                }
+            } catch (IllegalArgumentException e) {
+                chunk.skipped++;
+                if (chunk.errors.size() < MAX_ERRORS) chunk.errors.add("Line " + lines[i] + ": " + e.getMessage());
+                continue;
+            }
+
+            out.append(seq).append(",0,");
+            csv(out, q.getText());
+            out.append(',');
+            csv(out, q.getCategory());
+            out.append(',');
+            csv(out, q.getDifficulty());
+            out.append(",,\n");
+
+            int optNo = 1;
+            for (Option o : q.getOptions()) {
+                out.append(seq).append(',').append(optNo++).append(",,,,");
+                csv(out, o.getText());
+                out.append(',').append(o.isCorrect() ? 't' : 'f').append('\n');
+            }
+            chunk.questions++;
+            chunk.options += q.getOptions().size();
+        }
+        chunk.copyData = out.toString().getBytes(StandardCharsets.UTF_8);
+        return chunk;
+    }
+
+    /**
+     * Appends a value as a quoted COPY CSV field (quoted, so an empty string is not read as NULL).
+     */
+    private static void csv(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') out.append('"');
+            out.append(ch);
+        }
+        out.append('"');
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Parsing failed", cause);
+        }
+    }
+
+    /**
+     * Result of parsing one chunk: COPY rows plus counts.
+     */
+    private static final class ParsedChunk {
+        byte[] copyData;
+        int records;
+        int questions;
+        int options;
+        int skipped;
+        final List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Splits the input into records: one per non-blank line, except that a CSV record
+     * continues onto the next line while it has an unclosed quote.
+     */
+    private static final class RecordReader {
+        private final BufferedReader reader;
+        private final boolean csv;
+        private long line = 0;
+        private long recordLine = 0;
+
+        RecordReader(BufferedReader reader, boolean csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        String next() throws IOException {
+            String first;
+            do {
+                first = reader.readLine();
+                if (first == null) return null;
+                line++;
+            } while (first.trim().isEmpty());
+            recordLine = line;
+
+            if (!csv || quotes(first) % 2 == 0) return first;
+            StringBuilder sb = new StringBuilder(first);
+            int quotes = quotes(first);
+            String more;
+            while (quotes % 2 != 0 && (more = reader.readLine()) != null) {
+                line++;
+                sb.append('\n').append(more);
+                quotes += quotes(more);
+            }
+            return sb.toString(); // An unterminated quote is reported by the parser
+        }
+
+        /** Line number (1-based) where the last returned record started. */
+        long recordLine() {
+            return recordLine;
+        }
+
+        private static int quotes(String s) {
+            int n = 0;
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) == '"') n++;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Counts bytes read from the file, for progress reporting.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.quizapp.io;
+
+/**
+ * Summary of a finished export.
+ */
+public class ExportResult {
+    private final long questionsExported;
+    private final long questionsUnrestorable;
+    private final long elapsedMs;
+
+    public ExportResult(long questionsExported, long questionsUnrestorable, long elapsedMs) {
+        this.questionsExported = questionsExported;
+        this.questionsUnrestorable = questionsUnrestorable;
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getQuestionsExported() {
+        return questionsExported;
+    }
+
+    /**
+     * Number of exported questions that a restore will skip, because they fail the import
+     * checks (for example no options, or not exactly one correct option).
+     */
+    public long getQuestionsUnrestorable() {
+        return questionsUnrestorable;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Exported %d questions (%d will be skipped on restore) in %.1fs",
+                questionsExported, questionsUnrestorable, elapsedMs / 1000.0);
+    }
+}
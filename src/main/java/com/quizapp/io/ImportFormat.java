@@ -0,0 +1,33 @@
+package com.quizapp.io;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Supported question file formats.
+ *
+ * <ul>
+ *   <li>CSV: a header row with the columns question, category, difficulty, correct and
+ *       option1..optionN; correct is the 1-based number of the correct option.</li>
+ *   <li>NDJSON: one object per line, e.g.
+ *       {@code {"question":"...","category":"Java","difficulty":"easy","options":[{"text":"...","correct":true}, ...]}}</li>
+ * </ul>
+ */
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * Picks the format from a file extension (.csv, .ndjson, .jsonl or .json, optionally followed by .gz).
+     *
+     * @throws IllegalArgumentException for any other extension
+     */
+    public static ImportFormat fromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) name = name.substring(0, name.length() - 3);
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) return NDJSON;
+        throw new IllegalArgumentException("Unknown question file type: " + file.getFileName()
+                + " (expected .csv, .ndjson or .jsonl)");
+    }
+}
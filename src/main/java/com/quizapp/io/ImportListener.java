@@ -0,0 +1,22 @@
+package com.quizapp.io;
+
+/**
+ * Receives progress from a running import. Called on the importing thread.
+ */
+public interface ImportListener {
+
+    /**
+     * Called after each chunk of records has been sent to the database.
+     *
+     * @param records    records read so far (including skipped ones)
+     * @param bytesRead  bytes of the file read so far
+     * @param totalBytes file size, or -1 if unknown
+     */
+    void progress(long records, long bytesRead, long totalBytes);
+
+    /**
+     * Called once every record has been sent, before the staged rows are merged.
+     */
+    default void merging() {
+    }
+}
@@ -0,0 +1,61 @@
+package com.quizapp.io;
+
+import java.util.List;
+
+/**
+ * Summary of a finished import.
+ */
+public class ImportResult {
+    private final long questionsImported;
+    private final long optionsImported;
+    private final int categoriesCreated;
+    private final long recordsSkipped;
+    private final List<String> errors;
+    private final long elapsedMs;
+
+    public ImportResult(long questionsImported, long optionsImported, int categoriesCreated,
+                        long recordsSkipped, List<String> errors, long elapsedMs) {
+        this.questionsImported = questionsImported;
+        this.optionsImported = optionsImported;
+        this.categoriesCreated = categoriesCreated;
+        this.recordsSkipped = recordsSkipped;
+        this.errors = List.copyOf(errors);
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getQuestionsImported() {
+        return questionsImported;
+    }
+
+    public long getOptionsImported() {
+        return optionsImported;
+    }
+
+    public int getCategoriesCreated() {
+        return categoriesCreated;
+    }
+
+    /**
+     * Number of invalid records that were skipped.
+     */
+    public long getRecordsSkipped() {
+        return recordsSkipped;
+    }
+
+    /**
+     * Messages for the first skipped records (capped, see {@link BulkImporter}).
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d questions (%d options), created %d categories, skipped %d records in %.1fs",
+                questionsImported, optionsImported, categoriesCreated, recordsSkipped, elapsedMs / 1000.0);
+    }
+}
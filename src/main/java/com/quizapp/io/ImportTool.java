@@ -0,0 +1,63 @@
+package com.quizapp.io;
+
+import com.quizapp.db.Repository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line bulk import of a question file, without the UI:
+ * <pre>java -cp target/java-quiz-app.jar com.quizapp.io.ImportTool questions.ndjson [csv|ndjson]</pre>
+ * The format is taken from the file extension unless given. Exits with status 1 if the
+ * import failed, 0 otherwise (skipped records are printed but do not fail the import).
+ */
+public class ImportTool {
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: ImportTool <file.csv|file.ndjson[.gz]> [csv|ndjson]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        if (!Files.isReadable(file)) {
+            System.err.println("Cannot read " + file);
+            System.exit(2);
+        }
+        try {
+            ImportFormat format = args.length == 2
+                    ? ImportFormat.valueOf(args[1].trim().toUpperCase())
+                    : ImportFormat.fromFileName(file);
+
+            Repository.migrate();
+            ImportResult result = Repository.importQuestions(file, format, new ImportListener() {
+                private long lastPrinted;
+
+                @Override
+                public void progress(long records, long bytesRead, long totalBytes) {
+                    long now = System.currentTimeMillis();
+                    if (now - lastPrinted < 1000) return;
+                    lastPrinted = now;
+                    String pct = totalBytes > 0 ? String.format(" (%d%%)", Math.min(100, bytesRead * 100 / totalBytes)) : "";
+                    System.err.println(records + " records read" + pct);
+                }
+
+                @Override
+                public void merging() {
+                    System.err.println("Merging staged rows...");
+                }
+            });
+
+            for (String error : result.getErrors()) {
+                System.err.println("SKIP " + error);
+            }
+            if (result.getRecordsSkipped() > result.getErrors().size()) {
+                System.err.println("... and " + (result.getRecordsSkipped() - result.getErrors().size()) + " more skipped records");
+            }
+            System.out.println(result);
+            System.exit(0);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.quizapp.io;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses and validates single question records from the import formats.
+ * Every method throws IllegalArgumentException with a user-readable message for a bad record.
+ */
+final class QuestionRecords {
+
+    static final Set<String> DIFFICULTIES = Set.of("easy", "medium", "hard");
+
+    private QuestionRecords() {
+    }
+
+    // --- NDJSON ---
+
+    /**
+     * Parses one NDJSON line into its object.
+     */
+    static Map<?, ?> jsonObject(String line) {
+        Object value = Json.parse(line);
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<?, ?>) value;
+    }
+
+    /**
+     * Returns the trimmed name if the object is a category-only record ({@code {"category":"..."}}),
+     * as written by the exporter so that categories without questions survive a round trip; null otherwise.
+     */
+    static String categoryOnly(Map<?, ?> m) {
+        if (m.containsKey("question") || m.containsKey("options")) return null;
+        String name = string(m, "category");
+        if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Category is required");
+        return name.trim();
+    }
+
+    static Question fromJson(Map<?, ?> m) {
+        Object opts = m.get("options");
+        if (!(opts instanceof List)) throw new IllegalArgumentException("\"options\" must be an array");
+        List<Option> options = new ArrayList<>();
+        for (Object o : (List<?>) opts) {
+            if (!(o instanceof Map)) throw new IllegalArgumentException("Each option must be an object");
+            Map<?, ?> om = (Map<?, ?>) o;
+            options.add(new Option(string(om, "text"), Boolean.TRUE.equals(om.get("correct"))));
+        }
+        return build(string(m, "question"), string(m, "category"), string(m, "difficulty"), options);
+    }
+
+    private static String string(Map<?, ?> m, String key) {
+        Object v = m.get(key);
+        if (v != null && !(v instanceof String)) throw new IllegalArgumentException("\"" + key + "\" must be a string");
+        return (String) v;
+    }
+
+    // --- CSV ---
+
+    /**
+     * Column positions taken from a CSV header row.
+     */
+    static final class CsvLayout {
+        final int question;
+        final int category;
+        final int difficulty;
+        final int correct;
+        final int[] options;
+
+        private CsvLayout(int question, int category, int difficulty, int correct, int[] options) {
+            this.question = question;
+            this.category = category;
+            this.difficulty = difficulty;
+            this.correct = correct;
+            this.options = options;
+        }
+
+        static CsvLayout fromHeader(String headerRecord) {
+            List<String> header = splitCsv(headerRecord);
+            int question = -1, category = -1, difficulty = -1, correct = -1;
+            List<Integer> options = new ArrayList<>();
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (name.equals("question")) question = i;
+                else if (name.equals("category")) category = i;
+                else if (name.equals("difficulty")) difficulty = i;
+                else if (name.equals("correct")) correct = i;
+                else if (name.startsWith("option")) options.add(i);
+            }
+            if (question < 0 || category < 0 || correct < 0 || options.size() < 2) {
+                throw new IllegalArgumentException("CSV header must have question, category, correct and at least "
+                        + "two option columns (difficulty is optional), found: " + header);
+            }
+            return new CsvLayout(question, category, difficulty, correct,
+                    options.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    static Question fromCsv(String record, CsvLayout layout) {
+        List<String> f = splitCsv(record);
+        String correctField = field(f, layout.correct);
+        int correct;
+        try {
+            correct = Integer.parseInt(correctField.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("\"correct\" must be an option number, got '" + correctField + "'");
+        }
+
+        List<Option> options = new ArrayList<>();
+        for (int i = 0; i < layout.options.length; i++) {
+            String text = field(f, layout.options[i]);
+            if (text.trim().isEmpty()) continue; // Fewer options than columns
+            options.add(new Option(text, i + 1 == correct));
+        }
+        String difficulty = layout.difficulty < 0 ? null : field(f, layout.difficulty);
+        return build(field(f, layout.question), field(f, layout.category), difficulty, options);
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    /**
+     * Splits one CSV record (which may span lines) into fields, RFC 4180 style.
+     */
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char ch = record.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        fields.add(cur.toString());
+        return fields;
+    }
+
+    // --- Validation ---
+
+    /**
+     * Validates and normalizes one record into a new (unsaved) question.
+     * Text and category are trimmed, difficulty defaults to medium, and exactly one
+     * of at least two non-empty options must be correct.
+     */
+    static Question build(String text, String category, String difficulty, List<Option> options) {
+        if (text == null || text.trim().isEmpty()) throw new IllegalArgumentException("Question text is required");
+        if (category == null || category.trim().isEmpty()) throw new IllegalArgumentException("Category is required");
+
+        String diff = (difficulty == null || difficulty.trim().isEmpty())
+                ? "medium" : difficulty.trim().toLowerCase(Locale.ROOT);
+        if (!DIFFICULTIES.contains(diff)) {
+            throw new IllegalArgumentException("Difficulty must be one of easy, medium or hard, got '" + difficulty + "'");
+        }
+        if (options.size() < 2) throw new IllegalArgumentException("At least two options are required");
+
+        Question q = new Question(0, text.trim());
+        q.setCategory(category.trim());
+        q.setDifficulty(diff);
+        int correct = 0;
+        for (Option o : options) {
+            if (o.getText() == null || o.getText().trim().isEmpty()) {
+                throw new IllegalArgumentException("Option text is required");
+            }
+            if (o.isCorrect()) correct++;
+            q.addOption(new Option(o.getText().trim(), o.isCorrect()));
+        }
+        if (correct != 1) throw new IllegalArgumentException("Exactly one option must be correct, found " + correct);
+        return q;
+    }
+}
@@ -0,0 +1,52 @@
+package com.quizapp.metrics;
+
+/**
+ * Per-thread running totals of work done on behalf of repository calls: time spent waiting for a
+ * pooled connection, result rows read and bytes read from memory-mapped files.
+ *
+ * <p>The totals only ever grow; whoever wants the cost of one call reads them before and after it
+ * and takes the difference, so nested calls need no bookkeeping. Work done on other threads (a
+ * background flush, a parallel import worker) is counted on those threads, not on the caller's.</p>
+ */
+public final class CallCounters {
+
+    private static final ThreadLocal<CallCounters> CURRENT = ThreadLocal.withInitial(CallCounters::new);
+
+    private long connectionWaitNanos;
+    private long rows;
+    private long bytesMapped;
+
+    private CallCounters() {
+    }
+
+    /**
+     * The counters of the calling thread.
+     */
+    public static CallCounters current() {
+        return CURRENT.get();
+    }
+
+    public static void addConnectionWait(long nanos) {
+        CURRENT.get().connectionWaitNanos += nanos;
+    }
+
+    public static void addRows(long count) {
+        CURRENT.get().rows += count;
+    }
+
+    public static void addBytesMapped(long bytes) {
+        CURRENT.get().bytesMapped += bytes;
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytesMapped() {
+        return bytesMapped;
+    }
+}
@@ -0,0 +1,55 @@
+package com.quizapp.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe latency recorder backed by an HDR histogram (nanosecond values, 2 significant digits).
+ * Recording is wait-free and cheap enough for every call on a hot path.
+ */
+public class LatencyHistogram {
+
+    private final ConcurrentHistogram histogram = new ConcurrentHistogram(2);
+
+    public void recordNanos(long nanos) {
+        histogram.recordValue(Math.max(0, nanos));
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} start value.
+     */
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    /**
+     * Returns a copy of the underlying histogram, e.g. for percentile distribution output.
+     */
+    public Histogram copy() {
+        return histogram.copy();
+    }
+
+    public void reset() {
+        histogram.reset();
+    }
+
+    public LatencySnapshot snapshot() {
+        Histogram h = histogram.copy();
+        return new LatencySnapshot(h.getTotalCount(),
+                toMillis(h.getMean()),
+                toMillis(h.getValueAtPercentile(50)),
+                toMillis(h.getValueAtPercentile(99)),
+                toMillis(h.getValueAtPercentile(99.9)),
+                toMillis(h.getMaxValue()));
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.quizapp.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Serves GET /metrics in the Prometheus text format on the JDK's built-in HTTP server.
+ * One daemon thread answers scrapes, so a slow scrape never competes with the application's pools.
+ */
+public final class MetricsHttpServer {
+
+    private final HttpServer server;
+
+    private MetricsHttpServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts serving {@code scrape}'s output on host:port. Port 0 picks a free port.
+     */
+    public static MetricsHttpServer start(String host, int port, Supplier<String> scrape) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/metrics", exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                byte[] body;
+                try {
+                    body = scrape.get().getBytes(StandardCharsets.UTF_8);
+                } catch (RuntimeException e) {
+                    byte[] error = ("Scrape failed: " + e).getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(500, error.length);
+                    exchange.getResponseBody().write(error);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", PrometheusText.CONTENT_TYPE);
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "quizapp-metrics-http");
+            t.setDaemon(true);
+            return t;
+        }));
+        // The dispatcher thread inherits daemon status from whoever starts it, so start it from a daemon
+        // thread; otherwise the endpoint alone would keep the JVM alive after the last window closes
+        Thread starter = new Thread(server::start, "quizapp-metrics-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new MetricsHttpServer(server);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,112 @@
+package com.quizapp.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for one instrumented operation: a latency histogram plus call, error, row,
+ * mapped-byte and connection-wait counters. Recording is lock-free; the getters read a
+ * consistent-enough view for monitoring, not an atomic snapshot of all counters together.
+ */
+public class OperationStats implements OperationStatsMXBean {
+
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytesMapped = new LongAdder();
+    private final LongAdder connectionWaitNanos = new LongAdder();
+
+    public OperationStats(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Records one finished call.
+     */
+    public void record(long nanos, boolean failed, long waitNanos, long rowCount, long bytes) {
+        latency.recordNanos(nanos);
+        totalNanos.add(nanos);
+        if (failed) errors.increment();
+        if (rowCount > 0) rows.add(rowCount);
+        if (bytes > 0) bytesMapped.add(bytes);
+        if (waitNanos > 0) connectionWaitNanos.add(waitNanos);
+    }
+
+    public LatencySnapshot getLatency() {
+        return latency.snapshot();
+    }
+
+    /**
+     * Sum of all recorded call durations, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos.sum();
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return getLatency().getMean();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return getLatency().getP50();
+    }
+
+    @Override
+    public double getP99Millis() {
+        return getLatency().getP99();
+    }
+
+    @Override
+    public double getP999Millis() {
+        return getLatency().getP999();
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return getLatency().getMax();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getBytesMapped() {
+        return bytesMapped.sum();
+    }
+
+    @Override
+    public double getConnectionWaitMillis() {
+        return (double) getConnectionWaitNanos() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: calls=%d, errors=%d, rows=%d, bytesMapped=%d, connectionWait=%.1fms, latency=%s",
+                operation, getCalls(), getErrors(), getRows(), getBytesMapped(), getConnectionWaitMillis(), getLatency());
+    }
+}
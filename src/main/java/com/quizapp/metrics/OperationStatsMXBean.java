@@ -0,0 +1,29 @@
+package com.quizapp.metrics;
+
+/**
+ * JMX view of one instrumented operation. Latencies are in milliseconds since startup.
+ */
+public interface OperationStatsMXBean {
+
+    String getOperation();
+
+    long getCalls();
+
+    long getErrors();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    long getRows();
+
+    long getBytesMapped();
+
+    double getConnectionWaitMillis();
+}
@@ -0,0 +1,71 @@
+package com.quizapp.metrics;
+
+/**
+ * Helper to build a scrape response in the Prometheus text exposition format (version 0.0.4).
+ * Write each family's {@link #family header} once, followed by its samples.
+ */
+public final class PrometheusText {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    /**
+     * Starts a metric family. {@code type} is counter, gauge or summary.
+     */
+    public PrometheusText family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    public PrometheusText sample(String name, double value) {
+        return sample(name, null, value);
+    }
+
+    /**
+     * Writes one sample. {@code labels} alternate names and values, e.g. {@code "operation", "getRandomQuiz"}.
+     */
+    public PrometheusText sample(String name, String[] labels, double value) {
+        out.append(name);
+        if (labels != null && labels.length > 0) {
+            out.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) out.append(',');
+                out.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                out.append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+        return this;
+    }
+
+    public static String[] labels(String... namesAndValues) {
+        return namesAndValues;
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\': out.append("\\\\"); break;
+                case '"': out.append("\\\""); break;
+                case '\n': out.append("\\n"); break;
+                default: out.append(ch);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.quizapp.model;
+
+import java.util.List;
+
+/**
+ * Everything the question editor needs to open: the category names and,
+ * when editing, the question with its options in display order.
+ */
+public final class EditorData {
+    private final List<String> categories;
+    private final Question question;
+
+    public EditorData(List<String> categories, Question question) {
+        this.categories = categories;
+        this.question = question;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    /**
+     * The question being edited, or null for a new question (or one that no longer exists).
+     */
+    public Question getQuestion() {
+        return question;
+    }
+}
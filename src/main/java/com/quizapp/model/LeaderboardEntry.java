@@ -0,0 +1,59 @@
+package com.quizapp.model;
+
+/**
+ * One player's standing on a leaderboard. Players with equal points share a rank (1, 2, 2, 4).
+ */
+public final class LeaderboardEntry {
+    private final int rank;
+    private final int userId;
+    private final String username;
+    private final long points;
+    private final long questions;
+    private final int quizzes;
+
+    public LeaderboardEntry(int rank, int userId, String username, long points, long questions, int quizzes) {
+        this.rank = rank;
+        this.userId = userId;
+        this.username = username;
+        this.points = points;
+        this.questions = questions;
+        this.quizzes = quizzes;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Correct answers summed over the player's quizzes in the window.
+     */
+    public long getPoints() {
+        return points;
+    }
+
+    /**
+     * Questions answered over the player's quizzes in the window.
+     */
+    public long getQuestions() {
+        return questions;
+    }
+
+    public int getQuizzes() {
+        return quizzes;
+    }
+
+    /**
+     * Share of questions answered correctly, from 0 to 1.
+     */
+    public double getAccuracy() {
+        return questions == 0 ? 0 : (double) points / questions;
+    }
+}
@@ -0,0 +1,50 @@
+package com.quizapp.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The time windows a leaderboard can cover.
+ */
+public enum LeaderboardPeriod {
+    DAY("day", "Today"),
+    WEEK("week", "This week"),
+    ALL_TIME("all", "All time");
+
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+
+    private final String key;
+    private final String label;
+
+    LeaderboardPeriod(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    /**
+     * The value stored in the leaderboard table's period column.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * First day of the window containing the given day. Weeks start on Monday.
+     */
+    public LocalDate startOf(LocalDate day) {
+        switch (this) {
+            case DAY:
+                return day;
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                return EPOCH;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
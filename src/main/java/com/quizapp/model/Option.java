@@ -1,14 +1,30 @@
 package com.quizapp.model;
 
 public class Option {
-    private String text;
-    private boolean correct;
+    private final int id;
+    private final String text;
+    private final boolean correct;
 
+    /**
+     * Creates an option that has not been stored yet.
+     */
     public Option(String text, boolean correct) {
+        this(0, text, correct);
+    }
+
+    public Option(int id, String text, boolean correct) {
+        this.id = id;
         this.text = text;
         this.correct = correct;
     }
 
+    /**
+     * The database id, or 0 if the option has not been stored yet.
+     */
+    public int getId() {
+        return id;
+    }
+
     public String getText() {
         return text;
     }
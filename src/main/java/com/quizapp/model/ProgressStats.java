@@ -0,0 +1,44 @@
+package com.quizapp.model;
+
+/**
+ * A player's totals for one day or one category, read from the rollups.
+ */
+public final class ProgressStats {
+    private final String label;
+    private final long points;
+    private final long questions;
+    private final int quizzes;
+
+    public ProgressStats(String label, long points, long questions, int quizzes) {
+        this.label = label;
+        this.points = points;
+        this.questions = questions;
+        this.quizzes = quizzes;
+    }
+
+    /**
+     * The day (ISO date) or category name these totals are for.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public long getPoints() {
+        return points;
+    }
+
+    public long getQuestions() {
+        return questions;
+    }
+
+    public int getQuizzes() {
+        return quizzes;
+    }
+
+    /**
+     * Share of questions answered correctly, from 0 to 1.
+     */
+    public double getAccuracy() {
+        return questions == 0 ? 0 : (double) points / questions;
+    }
+}
@@ -11,6 +11,13 @@ public class Question {
     // [NEW] Added fields for admin panel
     private String category;
     private String difficulty;
+    private Integer categoryId;
+
+    // Row version for optimistic concurrency; 0 if unknown
+    private int version;
+
+    // Snapshots handed out by the question cache are shared, so they must not change
+    private boolean readOnly = false;
 
     public Question(int id, String text) {
         this.id = id;
@@ -26,6 +33,7 @@ public class Question {
     }
 
     public void addOption(Option o) {
+        checkWritable();
         options.add(o);
     }
 
@@ -40,6 +48,7 @@ public class Question {
     }
 
     public void setCategory(String category) {
+        checkWritable();
         this.category = category;
     }
 
@@ -48,6 +57,50 @@ public class Question {
     }
 
     public void setDifficulty(String difficulty) {
+        checkWritable();
         this.difficulty = difficulty;
     }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        checkWritable();
+        this.categoryId = categoryId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        checkWritable();
+        this.version = version;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Returns a read-only copy of this question that can be safely shared between threads.
+     */
+    public Question snapshot() {
+        if (readOnly) return this;
+        Question q = new Question(id, text);
+        q.options = List.copyOf(options);
+        q.category = category;
+        q.difficulty = difficulty;
+        q.categoryId = categoryId;
+        q.version = version;
+        q.readOnly = true;
+        return q;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Question " + id + " is a read-only snapshot");
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package com.quizapp.model;
+
+import java.time.Instant;
+
+/**
+ * One finished quiz from a player's history.
+ */
+public final class ScoreAttempt {
+    private final int id;
+    private final int score;
+    private final int total;
+    private final String category;
+    private final String difficulty;
+    private final Instant takenAt;
+
+    public ScoreAttempt(int id, int score, int total, String category, String difficulty, Instant takenAt) {
+        this.id = id;
+        this.score = score;
+        this.total = total;
+        this.category = category;
+        this.difficulty = difficulty;
+        this.takenAt = takenAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * The category the quiz was drawn from, or null for a mixed quiz.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * The difficulty the quiz was drawn from, or null for a mixed quiz.
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * When the quiz was finished, at the database's full precision (it is also the page cursor).
+     */
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.quizapp.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one Event Dispatch Thread stall, committed by {@link EdtWatchdog} when the stalled
+ * dispatch finally returns, or from the watchdog thread once it has run for ui.watchdog.hangMs.
+ * The JFR stack trace would only show the end of the dispatch or the watchdog thread, so the stack
+ * sampled while the EDT was stuck is carried in {@link #stack} instead.
+ */
+@Name("com.quizapp.EdtStall")
+@Label("EDT Stall")
+@Category({"QuizApp", "UI"})
+@Description("An event dispatch that kept the Swing UI from repainting for longer than ui.watchdog.thresholdMs")
+@StackTrace(false)
+final class EdtStallEvent extends Event {
+
+    @Label("Stalled")
+    @Timespan(Timespan.MILLISECONDS)
+    long stalled;
+
+    @Label("AWT Event")
+    String awtEvent;
+
+    @Label("GC Time")
+    @Description("Garbage collection time while the dispatch was running, to within one watchdog tick")
+    @Timespan(Timespan.MILLISECONDS)
+    long gcTime;
+
+    @Label("Hung")
+    @Description("The dispatch was still running when the event was committed; stalled is the time so far")
+    boolean hung;
+
+    @Label("EDT Stack")
+    String stack;
+}
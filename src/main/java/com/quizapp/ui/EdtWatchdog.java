@@ -0,0 +1,330 @@
+package com.quizapp.ui;
+
+import com.quizapp.AppConfig;
+import com.quizapp.metrics.LatencyHistogram;
+import com.quizapp.metrics.LatencySnapshot;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects Event Dispatch Thread tasks that run longer than ui.watchdog.thresholdMs, i.e. the
+ * moments the UI is frozen.
+ *
+ * <p>{@link #install} pushes an {@link EventQueue} that notes when each dispatch starts and ends.
+ * A daemon thread checks every quarter threshold whether the current dispatch has been running too
+ * long and, if so, samples the EDT's stack while it is still stuck. When the dispatch returns, the
+ * stall is counted, committed as a {@link EdtStallEvent} for JFR and, with ui.watchdog.log, printed
+ * with its stack. The garbage collection time during the stall is reported alongside, so a freeze
+ * caused by the code can be told apart from one caused by GC.</p>
+ *
+ * <p>A dispatch that never returns (a deadlock, an endless wait) would never be reported that way.
+ * Once a dispatch has run for ui.watchdog.hangMs (default ten times the threshold), the watchdog
+ * thread reports it itself, with a fresh stack; if the dispatch returns after all, only its final
+ * duration is added to the stats.</p>
+ *
+ * <p>A modal dialog runs a nested event loop inside the dispatch that opened it. The time spent in
+ * the nested loop is not the outer dispatch's stall: each stretch the EDT spends in one dispatch
+ * without returning to the queue is timed on its own.</p>
+ */
+public final class EdtWatchdog implements EdtWatchdogMXBean {
+
+    private static final long THRESHOLD_MS = AppConfig.getLong("ui.watchdog.thresholdMs", 250);
+    private static final boolean LOG_STALLS = AppConfig.getBoolean("ui.watchdog.log", true);
+    private static final long HANG_MS = AppConfig.getLong("ui.watchdog.hangMs", THRESHOLD_MS * 10);
+    private static final int STACK_DEPTH = AppConfig.getInt("ui.watchdog.stackDepth", 40);
+
+    private static EdtWatchdog instance;
+
+    private final long thresholdNanos;
+    private final long hangNanos;
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private final LatencyHistogram dispatchLatency = new LatencyHistogram();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong hangs = new AtomicLong();
+    private final AtomicLong longestStallNanos = new AtomicLong();
+    private volatile String lastStall;
+
+    // Written by the EDT only. A stretch ends when the dispatch returns or a nested one starts.
+    private int depth;
+    private AWTEvent[] dispatching = new AWTEvent[8];
+    private volatile Thread edt;
+    private volatile long stretch;       // Incremented whenever a stretch starts
+    private volatile long stretchStart;  // 0 while the EDT waits for events
+    private volatile AWTEvent stretchEvent;
+
+    // Written by the watchdog thread, taken by the EDT when the stretch it belongs to ends
+    private volatile StackSample sample;
+    // The last stretch reported, claimed by whichever of the EDT and the watchdog thread reports it first
+    private final AtomicLong reportedStretch = new AtomicLong(-1);
+
+    private static final class StackSample {
+        final long stretch;
+        final StackTraceElement[] stack;
+        final long gcMillisAtStart;
+
+        StackSample(long stretch, StackTraceElement[] stack, long gcMillisAtStart) {
+            this.stretch = stretch;
+            this.stack = stack;
+            this.gcMillisAtStart = gcMillisAtStart;
+        }
+    }
+
+    private EdtWatchdog(long thresholdMs, long hangMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, thresholdMs));
+        this.hangNanos = Math.max(thresholdNanos, TimeUnit.MILLISECONDS.toNanos(hangMs));
+    }
+
+    /**
+     * Starts watching the EDT, if not already done. Call once at startup, before the first window opens.
+     */
+    public static synchronized EdtWatchdog install() {
+        if (instance != null) return instance;
+        EdtWatchdog watchdog = new EdtWatchdog(THRESHOLD_MS, HANG_MS);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog.new MonitoredQueue());
+
+        Thread t = new Thread(watchdog::watch, "quizapp-edt-watchdog");
+        t.setDaemon(true);
+        t.start();
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(watchdog,
+                    new ObjectName("com.quizapp:type=Ui,name=EdtWatchdog"));
+        } catch (JMException e) {
+            System.err.println("Warning: EDT watchdog not registered with JMX (" + e.getMessage() + ").");
+        }
+        instance = watchdog;
+        return watchdog;
+    }
+
+    /**
+     * The installed watchdog, or null if {@link #install} was not called.
+     */
+    public static synchronized EdtWatchdog get() {
+        return instance;
+    }
+
+    // --- EDT side ---
+
+    private final class MonitoredQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            long now = System.nanoTime();
+            if (depth > 0) endStretch(now, dispatching[depth - 1]);
+            if (depth == dispatching.length) dispatching = Arrays.copyOf(dispatching, depth * 2);
+            dispatching[depth++] = event;
+            startStretch(now, event);
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long end = System.nanoTime();
+                endStretch(end, event);
+                dispatching[--depth] = null;
+                if (depth > 0) {
+                    startStretch(end, dispatching[depth - 1]); // Back in the dispatch that opened the nested loop
+                } else {
+                    stretchStart = 0;
+                    stretchEvent = null;
+                }
+            }
+        }
+    }
+
+    private void startStretch(long now, AWTEvent event) {
+        if (edt == null) edt = Thread.currentThread();
+        stretchEvent = event;
+        stretch++;
+        stretchStart = now;
+    }
+
+    private void endStretch(long end, AWTEvent event) {
+        long nanos = end - stretchStart;
+        dispatchLatency.recordNanos(nanos);
+        if (nanos < thresholdNanos) return;
+
+        StackSample s = sample;
+        if (s != null && s.stretch != stretch) s = null; // Left over from an earlier stretch
+        sample = null;
+        if (!claim(stretch)) {
+            // Already reported by the watchdog thread while it was stuck
+            longestStallNanos.accumulateAndGet(nanos, Math::max);
+            if (LOG_STALLS) {
+                System.err.println("EDT recovered after " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms dispatching " + describe(event));
+            }
+            return;
+        }
+        reportStall(nanos, event, s, false);
+    }
+
+    /**
+     * Marks a stretch as reported. Returns false if it already was.
+     */
+    private boolean claim(long current) {
+        while (true) {
+            long last = reportedStretch.get();
+            if (last == current) return false;
+            if (reportedStretch.compareAndSet(last, current)) return true;
+        }
+    }
+
+    /**
+     * Counts, records and logs a stall. Runs on the EDT when the stall ended, or on the watchdog
+     * thread for a dispatch that is still running ({@code hung}).
+     */
+    private void reportStall(long nanos, AWTEvent event, StackSample s, boolean hung) {
+        stalls.incrementAndGet();
+        if (hung) hangs.incrementAndGet();
+        longestStallNanos.accumulateAndGet(nanos, Math::max);
+
+        long stalledMs = TimeUnit.NANOSECONDS.toMillis(nanos);
+        long gcMs = s == null ? 0 : Math.max(0, gcMillis() - s.gcMillisAtStart);
+        String what = describe(event);
+        String stack = s == null ? "\t(stack not sampled)\n" : formatStack(s.stack);
+        String summary = (hung ? "EDT hung: stuck for " + stalledMs + " ms so far" : "EDT stalled for " + stalledMs + " ms")
+                + " (" + gcMs + " ms in GC) dispatching " + what;
+        lastStall = summary + "\n" + stack;
+
+        EdtStallEvent jfr = new EdtStallEvent();
+        if (jfr.isEnabled()) {
+            jfr.stalled = stalledMs;
+            jfr.awtEvent = what;
+            jfr.gcTime = gcMs;
+            jfr.hung = hung;
+            jfr.stack = stack;
+            jfr.commit();
+        }
+        if (LOG_STALLS) System.err.print("Warning: " + lastStall);
+    }
+
+    private static String describe(AWTEvent event) {
+        if (event == null) return "an unknown event";
+        Object source = event.getSource();
+        return event.getClass().getSimpleName() + " from " + (source == null ? "null" : source.getClass().getName());
+    }
+
+    private static String formatStack(StackTraceElement[] stack) {
+        StringBuilder out = new StringBuilder();
+        int frames = Math.min(stack.length, STACK_DEPTH);
+        for (int i = 0; i < frames; i++) {
+            out.append("\tat ").append(stack[i]).append('\n');
+        }
+        if (stack.length > frames) out.append("\t... ").append(stack.length - frames).append(" more\n");
+        return out.toString();
+    }
+
+    // --- Watchdog thread ---
+
+    private void watch() {
+        long tickMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4);
+        long seen = -1;
+        long sampled = -1;
+        long gcAtStart = 0;
+        while (true) {
+            try {
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long current = stretch;
+            long start = stretchStart;
+            if (start == 0 || current != stretch) continue; // Idle, or a new stretch began while reading
+
+            if (current != seen) {
+                seen = current;
+                gcAtStart = gcMillis();
+            }
+            long running = System.nanoTime() - start;
+            if (current != sampled && running >= thresholdNanos) {
+                sampled = current;
+                Thread t = edt;
+                if (t != null) sample = new StackSample(current, t.getStackTrace(), gcAtStart);
+            }
+            if (running >= hangNanos && reportedStretch.get() != current) {
+                // The dispatch may never return, so report it from here, with the stack where it is stuck now
+                AWTEvent event = stretchEvent;
+                Thread t = edt;
+                StackSample now = t == null ? null : new StackSample(current, t.getStackTrace(), gcAtStart);
+                if (current != stretch || !claim(current)) continue; // It returned while the stack was taken
+                reportStall(running, event, now, true);
+            }
+        }
+    }
+
+    private long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : collectors) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    // --- Stats ---
+
+    @Override
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    @Override
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    @Override
+    public long getHangs() {
+        return hangs.get();
+    }
+
+    @Override
+    public double getLongestStallMillis() {
+        return longestStallNanos.get() / 1e6;
+    }
+
+    @Override
+    public String getLastStall() {
+        return lastStall;
+    }
+
+    /**
+     * Distribution of the time the EDT spent in each dispatch.
+     */
+    public LatencySnapshot getDispatchLatency() {
+        return dispatchLatency.snapshot();
+    }
+
+    @Override
+    public long getDispatches() {
+        return dispatchLatency.getCount();
+    }
+
+    @Override
+    public double getDispatchP50Millis() {
+        return getDispatchLatency().getP50();
+    }
+
+    @Override
+    public double getDispatchP99Millis() {
+        return getDispatchLatency().getP99();
+    }
+
+    @Override
+    public double getDispatchMaxMillis() {
+        return getDispatchLatency().getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("stalls=%d (threshold %d ms, longest %.0f ms), hangs=%d, dispatch latency: %s",
+                getStalls(), getThresholdMillis(), getLongestStallMillis(), getHangs(), getDispatchLatency());
+    }
+}
@@ -0,0 +1,31 @@
+package com.quizapp.ui;
+
+/**
+ * JMX view of the {@link EdtWatchdog}. Times are in milliseconds since it was installed.
+ */
+public interface EdtWatchdogMXBean {
+
+    long getThresholdMillis();
+
+    long getStalls();
+
+    /**
+     * Stalls reported while the dispatch was still running, after ui.watchdog.hangMs.
+     */
+    long getHangs();
+
+    double getLongestStallMillis();
+
+    /**
+     * The most recent stall with its EDT stack, or null if there has been none.
+     */
+    String getLastStall();
+
+    long getDispatches();
+
+    double getDispatchP50Millis();
+
+    double getDispatchP99Millis();
+
+    double getDispatchMaxMillis();
+}
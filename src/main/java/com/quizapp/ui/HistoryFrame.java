@@ -0,0 +1,174 @@
+package com.quizapp.ui;
+
+import com.quizapp.db.AsyncRepository;
+import com.quizapp.db.Repository;
+import com.quizapp.model.ProgressStats;
+import com.quizapp.model.ScoreAttempt;
+import com.quizapp.model.User;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shows a player's past quizzes page by page, with their daily trend and per-category totals.
+ */
+public class HistoryFrame extends JFrame {
+
+    private static final int PAGE_SIZE = 25;
+    private static final int TREND_DAYS = 30;
+
+    private final User user;
+    private final JLabel summaryLabel;
+    private final DefaultTableModel attemptsModel;
+    private final DefaultTableModel dailyModel;
+    private final DefaultTableModel categoryModel;
+    private final JButton loadMoreButton;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+
+    // Last attempt shown, the keyset cursor for the next page
+    private ScoreAttempt lastAttempt;
+
+    private static final class Progress {
+        final ProgressStats totals;
+        final List<ProgressStats> daily;
+        final List<ProgressStats> categories;
+        final List<ScoreAttempt> firstPage;
+
+        Progress(ProgressStats totals, List<ProgressStats> daily, List<ProgressStats> categories, List<ScoreAttempt> firstPage) {
+            this.totals = totals;
+            this.daily = daily;
+            this.categories = categories;
+            this.firstPage = firstPage;
+        }
+    }
+
+    public HistoryFrame(User user) {
+        this.user = user;
+
+        setTitle("QuizApp - History: " + user.getUsername());
+        setSize(750, 600);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(new EmptyBorder(15, 20, 15, 20));
+        setContentPane(mainPanel);
+
+        // --- Header and totals (North) ---
+        JPanel northPanel = new JPanel(new BorderLayout());
+        JLabel headerLabel = new JLabel("My Progress", SwingConstants.LEFT);
+        headerLabel.setFont(new Font("Arial", Font.BOLD, 28));
+        summaryLabel = new JLabel("Loading...");
+        summaryLabel.setFont(new Font("Arial", Font.PLAIN, 16));
+        northPanel.add(headerLabel, BorderLayout.NORTH);
+        northPanel.add(summaryLabel, BorderLayout.SOUTH);
+        mainPanel.add(northPanel, BorderLayout.NORTH);
+
+        // --- Tabs (Center) ---
+        attemptsModel = readOnlyModel("Finished", "Score", "Category", "Difficulty");
+        dailyModel = readOnlyModel("Day", "Quizzes", "Points", "Accuracy");
+        categoryModel = readOnlyModel("Category", "Quizzes", "Points", "Accuracy");
+
+        loadMoreButton = new JButton("Load more");
+        loadMoreButton.setEnabled(false);
+        loadMoreButton.addActionListener(e -> loadAttempts());
+        JPanel attemptsPanel = new JPanel(new BorderLayout(5, 5));
+        attemptsPanel.add(new JScrollPane(styledTable(attemptsModel)), BorderLayout.CENTER);
+        attemptsPanel.add(loadMoreButton, BorderLayout.SOUTH);
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.setFont(new Font("Arial", Font.BOLD, 16));
+        tabs.addTab("Attempts", attemptsPanel);
+        tabs.addTab("Last " + TREND_DAYS + " days", new JScrollPane(styledTable(dailyModel)));
+        tabs.addTab("By category", new JScrollPane(styledTable(categoryModel)));
+        mainPanel.add(tabs, BorderLayout.CENTER);
+
+        loadProgress();
+    }
+
+    private static DefaultTableModel readOnlyModel(Object... columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private static JTable styledTable(DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setFont(new Font("Arial", Font.PLAIN, 16));
+        table.setRowHeight(28);
+        table.setFillsViewportHeight(true);
+        table.setGridColor(new Color(220, 220, 220));
+        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 16));
+        table.getTableHeader().setReorderingAllowed(false);
+        return table;
+    }
+
+    /**
+     * Loads the totals, trend and first page of attempts in a background thread.
+     * Waits briefly for a just-submitted score so it shows up.
+     */
+    private void loadProgress() {
+        CompletableFuture<Progress> load = AsyncRepository.read(() -> {
+            Repository.awaitScoresWritten(2_000);
+            return new Progress(Repository.getUserTotals(user.getId()),
+                    Repository.getUserDailyProgress(user.getId(), TREND_DAYS),
+                    Repository.getUserCategoryProgress(user.getId()),
+                    Repository.getUserHistory(user.getId(), null, PAGE_SIZE));
+        });
+        SwingFutures.onEdt(SwingFutures.cancelOnClose(this, load), progress -> {
+            ProgressStats totals = progress.totals;
+            summaryLabel.setText(totals == null
+                    ? "No finished quizzes yet."
+                    : String.format("%d quizzes, %d of %d answers correct (%.0f%%)",
+                            totals.getQuizzes(), totals.getPoints(), totals.getQuestions(), totals.getAccuracy() * 100));
+            addStats(dailyModel, progress.daily);
+            addStats(categoryModel, progress.categories);
+            addAttempts(progress.firstPage);
+        }, error -> {
+            error.printStackTrace();
+            summaryLabel.setText("Could not load your history: " + SwingFutures.describe(error));
+        });
+    }
+
+    /**
+     * Loads the next page of attempts after the last one shown.
+     */
+    private void loadAttempts() {
+        loadMoreButton.setEnabled(false);
+        ScoreAttempt after = lastAttempt;
+        SwingFutures.onEdt(AsyncRepository.getUserHistory(user.getId(), after, PAGE_SIZE), this::addAttempts, error -> {
+            error.printStackTrace();
+            loadMoreButton.setEnabled(true);
+            JOptionPane.showMessageDialog(HistoryFrame.this, "Could not load more attempts: " + SwingFutures.describe(error),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void addAttempts(List<ScoreAttempt> page) {
+        for (ScoreAttempt a : page) {
+            attemptsModel.addRow(new Object[]{dateFormat.format(Date.from(a.getTakenAt())),
+                    a.getScore() + " / " + a.getTotal(),
+                    a.getCategory() == null ? "Mixed" : a.getCategory(),
+                    a.getDifficulty() == null ? "Mixed" : a.getDifficulty()});
+        }
+        if (!page.isEmpty()) lastAttempt = page.get(page.size() - 1);
+        // A short page means there is nothing older
+        loadMoreButton.setEnabled(page.size() == PAGE_SIZE);
+    }
+
+    private static void addStats(DefaultTableModel model, List<ProgressStats> stats) {
+        for (ProgressStats s : stats) {
+            model.addRow(new Object[]{s.getLabel(), s.getQuizzes(), s.getPoints() + " / " + s.getQuestions(),
+                    String.format("%.0f%%", s.getAccuracy() * 100)});
+        }
+    }
+}
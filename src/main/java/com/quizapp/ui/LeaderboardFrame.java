@@ -0,0 +1,184 @@
+package com.quizapp.ui;
+
+import com.quizapp.AppConfig;
+import com.quizapp.db.AsyncRepository;
+import com.quizapp.db.Repository;
+import com.quizapp.model.LeaderboardEntry;
+import com.quizapp.model.LeaderboardPeriod;
+import com.quizapp.model.User;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shows the top players for a period, category and difficulty, and the signed-in player's own rank.
+ */
+public class LeaderboardFrame extends JFrame {
+
+    private static final int TOP_K = AppConfig.getInt("leaderboard.size", 50);
+    private static final String ALL_CATEGORIES = "All categories";
+    private static final String ALL_DIFFICULTIES = "All difficulties";
+
+    private final User user;
+    private final JComboBox<LeaderboardPeriod> periodFilter;
+    private final JComboBox<String> categoryFilter;
+    private final JComboBox<String> difficultyFilter;
+    private final DefaultTableModel tableModel;
+    private final JTable table;
+    private final JLabel ownRankLabel;
+
+    // Waits for this player's queued score once, so a board opened right after a quiz includes it
+    private boolean awaitScores;
+    private CompletableFuture<Board> pendingLoad;
+
+    private static final class Board {
+        final List<LeaderboardEntry> top;
+        final LeaderboardEntry own;
+
+        Board(List<LeaderboardEntry> top, LeaderboardEntry own) {
+            this.top = top;
+            this.own = own;
+        }
+    }
+
+    /**
+     * @param user the signed-in player whose rank is shown, or null to show the boards only
+     */
+    public LeaderboardFrame(User user) {
+        this.user = user;
+        this.awaitScores = user != null;
+
+        setTitle("QuizApp - Leaderboard");
+        setSize(700, 600);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(new EmptyBorder(15, 20, 15, 20));
+        setContentPane(mainPanel);
+
+        // --- Header and filters (North) ---
+        JLabel headerLabel = new JLabel("Leaderboard", SwingConstants.LEFT);
+        headerLabel.setFont(new Font("Arial", Font.BOLD, 28));
+
+        periodFilter = new JComboBox<>(LeaderboardPeriod.values());
+        periodFilter.setSelectedItem(LeaderboardPeriod.WEEK);
+        categoryFilter = new JComboBox<>(new String[]{ALL_CATEGORIES});
+        difficultyFilter = new JComboBox<>(new String[]{ALL_DIFFICULTIES, "easy", "medium", "hard"});
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        for (JComboBox<?> combo : List.of(periodFilter, categoryFilter, difficultyFilter)) {
+            combo.setFont(new Font("Arial", Font.PLAIN, 16));
+            combo.addActionListener(e -> loadBoard());
+            filterPanel.add(combo);
+        }
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(headerLabel, BorderLayout.NORTH);
+        northPanel.add(filterPanel, BorderLayout.SOUTH);
+        mainPanel.add(northPanel, BorderLayout.NORTH);
+
+        // --- Table (Center) ---
+        tableModel = new DefaultTableModel(new Object[]{"Rank", "Player", "Points", "Quizzes", "Accuracy"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        table = new JTable(tableModel);
+        styleTable();
+        mainPanel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        // --- Own rank (South) ---
+        ownRankLabel = new JLabel(user == null ? " " : "Your rank: loading...");
+        ownRankLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        mainPanel.add(ownRankLabel, BorderLayout.SOUTH);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                if (pendingLoad != null) pendingLoad.cancel(true);
+            }
+        });
+
+        loadCategoryFilter();
+        loadBoard();
+    }
+
+    private void styleTable() {
+        table.setFont(new Font("Arial", Font.PLAIN, 16));
+        table.setRowHeight(28);
+        table.setFillsViewportHeight(true);
+        table.setGridColor(new Color(220, 220, 220));
+        table.setSelectionBackground(new Color(184, 207, 229));
+        table.setSelectionForeground(Color.BLACK);
+
+        JTableHeader header = table.getTableHeader();
+        header.setFont(new Font("Arial", Font.BOLD, 18));
+        header.setReorderingAllowed(false);
+
+        table.getColumnModel().getColumn(0).setMaxWidth(80); // Rank
+        table.getColumnModel().getColumn(1).setPreferredWidth(300); // Player
+    }
+
+    /**
+     * Fills the category drop-down in a background thread.
+     */
+    private void loadCategoryFilter() {
+        SwingFutures.onEdt(SwingFutures.cancelOnClose(this, AsyncRepository.getAllCategoryNames()), categories -> {
+            for (String cat : categories) {
+                categoryFilter.addItem(cat);
+            }
+        }, Throwable::printStackTrace);
+    }
+
+    /**
+     * Loads the selected board and the player's rank in it in a background thread.
+     */
+    private void loadBoard() {
+        LeaderboardPeriod period = (LeaderboardPeriod) periodFilter.getSelectedItem();
+        String category = (String) categoryFilter.getSelectedItem();
+        String difficulty = (String) difficultyFilter.getSelectedItem();
+        String categoryName = ALL_CATEGORIES.equals(category) ? null : category;
+        String difficultyName = ALL_DIFFICULTIES.equals(difficulty) ? null : difficulty;
+        boolean await = awaitScores;
+        awaitScores = false;
+
+        // A previous load still running is for a selection that is no longer shown
+        if (pendingLoad != null) pendingLoad.cancel(true);
+        CompletableFuture<Board> load = AsyncRepository.read(() -> {
+            if (await) Repository.awaitScoresWritten(2_000);
+            List<LeaderboardEntry> top = Repository.getLeaderboard(period, categoryName, difficultyName, TOP_K);
+            LeaderboardEntry own = user == null ? null : Repository.getUserRank(user.getId(), period, categoryName, difficultyName);
+            return new Board(top, own);
+        });
+        pendingLoad = load;
+
+        SwingFutures.onEdt(load, board -> {
+            tableModel.setRowCount(0);
+            for (LeaderboardEntry entry : board.top) {
+                tableModel.addRow(new Object[]{entry.getRank(), entry.getUsername(), entry.getPoints(),
+                        entry.getQuizzes(), String.format("%.0f%%", entry.getAccuracy() * 100)});
+                if (user != null && entry.getUserId() == user.getId()) {
+                    int row = tableModel.getRowCount() - 1;
+                    table.setRowSelectionInterval(row, row);
+                }
+            }
+            if (user != null) {
+                ownRankLabel.setText(board.own == null
+                        ? "Your rank: no scores yet for this board"
+                        : String.format("Your rank: #%d with %d points in %d quizzes",
+                                board.own.getRank(), board.own.getPoints(), board.own.getQuizzes()));
+            }
+        }, error -> {
+            error.printStackTrace();
+            ownRankLabel.setText("Could not load the leaderboard: " + SwingFutures.describe(error));
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.quizapp.ui;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Map;
+
+/**
+ * One answer row of {@link PlayerQuiz}: a radio button and the option text, already wrapped by
+ * {@link QuestionLayout}. Rows are created once and refilled for every question, and the text is
+ * painted line by line instead of through an HTML view, so a question change parses nothing and
+ * creates no components.
+ */
+final class OptionView extends JPanel {
+
+    private static final Cursor HAND_CURSOR = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+
+    private final JRadioButton radio = new JRadioButton();
+    private final WrappedText text;
+
+    OptionView(Font font, int wrapWidth, ButtonGroup group) {
+        super(new BorderLayout(8, 0));
+        setOpaque(false);
+        setBorder(new EmptyBorder(0, 0, 15, 0)); // Space to the next option
+        setAlignmentX(LEFT_ALIGNMENT);
+        setCursor(HAND_CURSOR);
+
+        radio.setOpaque(false);
+        radio.setVerticalAlignment(SwingConstants.TOP);
+        group.add(radio);
+        add(radio, BorderLayout.WEST);
+
+        text = new WrappedText(font, wrapWidth);
+        add(text, BorderLayout.CENTER);
+
+        // The text selects the option like a radio button label would
+        text.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (!radio.isEnabled()) return;
+                radio.setSelected(true);
+                radio.requestFocusInWindow();
+            }
+        });
+    }
+
+    /**
+     * Shows one option. The correctness is kept in the radio button's action command, as
+     * {@link ButtonGroup#getSelection()} returns the model.
+     */
+    void show(String[] lines, String accessibleName, boolean correct) {
+        radio.setActionCommand(Boolean.toString(correct));
+        radio.getAccessibleContext().setAccessibleName(accessibleName);
+        text.setLines(lines);
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        // Full width, but never taller than the text, so BoxLayout does not spread the options out
+        return new Dimension(Integer.MAX_VALUE, getPreferredSize().height);
+    }
+
+    /**
+     * Paints pre-wrapped lines. Cheaper than a JLabel with HTML, which parses markup on every setText.
+     */
+    private static final class WrappedText extends JComponent {
+        private final int wrapWidth;
+        private String[] lines = new String[0];
+
+        WrappedText(Font font, int wrapWidth) {
+            this.wrapWidth = wrapWidth;
+            setFont(font);
+        }
+
+        void setLines(String[] lines) {
+            boolean resized = lines.length != this.lines.length;
+            this.lines = lines;
+            if (resized) revalidate();
+            repaint();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            FontMetrics fm = getFontMetrics(getFont());
+            return new Dimension(wrapWidth, Math.max(1, lines.length) * fm.getHeight());
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                Object hints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+                if (hints instanceof Map) g2.addRenderingHints((Map<?, ?>) hints);
+                g2.setFont(getFont());
+                g2.setColor(getForeground());
+                FontMetrics fm = g2.getFontMetrics();
+                int y = fm.getAscent();
+                for (String line : lines) {
+                    g2.drawString(line, 0, y);
+                    y += fm.getHeight();
+                }
+            } finally {
+                g2.dispose();
+            }
+        }
+    }
+}
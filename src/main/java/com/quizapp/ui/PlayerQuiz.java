@@ -1,19 +1,35 @@
 package com.quizapp.ui;
 
+import com.quizapp.AppConfig;
 import com.quizapp.model.Question;
-import com.quizapp.model.Option;
 import com.quizapp.model.User;
-import com.quizapp.db.Repository;
+import com.quizapp.db.AsyncRepository;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.sql.SQLException;
+import java.awt.font.FontRenderContext;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class PlayerQuiz extends JFrame {
 
+    private static final int QUIZ_LENGTH = AppConfig.getInt("quiz.length", 10);
+    private static final String SCREEN = "PlayerQuiz";
+
+    private static final Font OPTION_FONT = new Font("Arial", Font.PLAIN, 18);
+    private static final int OPTION_WRAP_WIDTH = 500;
+
+    // Lays out the next question while the player reads the current one
+    private static final ExecutorService LAYOUT_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "quizapp-quiz-layout");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final User user;
     private List<Question> questions;
     private int currentQuestionIndex = 0;
@@ -27,6 +43,11 @@ public class PlayerQuiz extends JFrame {
     private final ButtonGroup optionsGroup;
     private final JPanel mainPanel;
 
+    // Answer rows, created as needed and reused for every question
+    private final List<OptionView> optionViews = new ArrayList<>();
+    private final FontRenderContext optionFontContext;
+    private CompletableFuture<QuestionLayout> nextLayout;
+
     public PlayerQuiz(User user) {
         this.user = user;
         this.optionsGroup = new ButtonGroup();
@@ -60,6 +81,7 @@ public class PlayerQuiz extends JFrame {
         optionsPanel = new JPanel();
         optionsPanel.setLayout(new BoxLayout(optionsPanel, BoxLayout.Y_AXIS));
         optionsPanel.setBorder(new EmptyBorder(10, 20, 10, 20));
+        optionFontContext = optionsPanel.getFontMetrics(OPTION_FONT).getFontRenderContext();
 
         // Center Panel to hold Question and Options
         JPanel centerPanel = new JPanel(new BorderLayout());
@@ -92,40 +114,31 @@ public class PlayerQuiz extends JFrame {
     private void loadQuizInBackground() {
         // Show loading state
         mainPanel.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        UiTelemetry.Timing timing = UiTelemetry.begin(SCREEN, "loadQuiz");
 
-        new SwingWorker<List<Question>, Void>() {
-            @Override
-            protected List<Question> doInBackground() throws Exception {
-                // Fetching all questions for now.
-                // TODO: Allow category/difficulty selection
-                return Repository.getQuestionsForPlayer(null, null);
+        // TODO: Allow category/difficulty selection
+        SwingFutures.onEdt(SwingFutures.cancelOnClose(this, AsyncRepository.getRandomQuiz(null, null, QUIZ_LENGTH)), loaded -> {
+            mainPanel.setCursor(Cursor.getDefaultCursor());
+            questions = loaded;
+            if (questions == null || questions.isEmpty()) {
+                timing.failed();
+                showError("No questions found in the database.", true);
+                return;
             }
 
-            @Override
-            protected void done() {
-                try {
-                    questions = get();
-                    if (questions == null || questions.isEmpty()) {
-                        showError("No questions found in the database.", true);
-                        return;
-                    }
-                    
-                    Collections.shuffle(questions);
-                    loadQuestion(); // Load the first question
-                    nextButton.setEnabled(true);
-
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Failed to load quiz: " + e.getMessage(), true);
-                } finally {
-                    mainPanel.setCursor(Cursor.getDefaultCursor());
-                }
-            }
-        }.execute();
+            loadQuestion(); // Load the first question
+            nextButton.setEnabled(true);
+            timing.completed();
+        }, error -> {
+            mainPanel.setCursor(Cursor.getDefaultCursor());
+            timing.failed();
+            error.printStackTrace();
+            showError("Failed to load quiz: " + SwingFutures.describe(error), true);
+        });
     }
 
     /**
-     * Loads the question at the current index into the UI.
+     * Loads the question at the current index into the UI, then starts laying out the one after it.
      */
     private void loadQuestion() {
         if (currentQuestionIndex >= questions.size()) {
@@ -133,33 +146,56 @@ public class PlayerQuiz extends JFrame {
             return;
         }
 
-        Question q = questions.get(currentQuestionIndex);
-        titleLabel.setText("Question " + (currentQuestionIndex + 1) + " of " + questions.size());
-        questionTextArea.setText(q.getText());
+        QuestionLayout layout = takeLayout(currentQuestionIndex);
+        titleLabel.setText(layout.title);
+        questionTextArea.setText(layout.text);
         questionTextArea.setCaretPosition(0); // Scroll to top
 
-        // Clear old options
-        optionsPanel.removeAll();
+        // Refill the existing rows; add one only when a question has more options than any before
         optionsGroup.clearSelection();
-
-        // Add new options
-        for (Option o : q.getOptions()) {
-            JRadioButton rb = new JRadioButton("<html><body style='width: 500px;'>" + o.getText() + "</body></html>");
-            rb.setFont(new Font("Arial", Font.PLAIN, 18));
-            rb.setActionCommand(Boolean.toString(o.isCorrect())); // Store correctness
-            rb.setOpaque(false);
-            rb.setCursor(new Cursor(Cursor.HAND_CURSOR));
-            optionsGroup.add(rb);
-            optionsPanel.add(rb);
-            optionsPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        while (optionViews.size() < layout.getOptionCount()) {
+            OptionView view = new OptionView(OPTION_FONT, OPTION_WRAP_WIDTH, optionsGroup);
+            optionViews.add(view);
+            optionsPanel.add(view);
         }
-        
+        for (int i = 0; i < optionViews.size(); i++) {
+            OptionView view = optionViews.get(i);
+            if (i < layout.getOptionCount()) {
+                view.show(layout.optionLines[i], layout.optionTexts[i], layout.correct[i]);
+            }
+            view.setVisible(i < layout.getOptionCount());
+        }
+
         if (currentQuestionIndex == questions.size() - 1) {
             nextButton.setText("Finish");
         }
 
-        optionsPanel.revalidate();
-        optionsPanel.repaint();
+        prefetchLayout(currentQuestionIndex + 1);
+    }
+
+    /**
+     * The prefetched layout of question {@code index} if it is ready, otherwise one made here:
+     * a few short texts lay out faster than waiting for the layout thread would take.
+     */
+    private QuestionLayout takeLayout(int index) {
+        CompletableFuture<QuestionLayout> pending = nextLayout;
+        nextLayout = null;
+        if (pending != null && pending.isDone() && !pending.isCompletedExceptionally()) {
+            QuestionLayout layout = pending.join();
+            if (layout.index == index) return layout;
+        }
+        if (pending != null) pending.cancel(false);
+        return layout(index);
+    }
+
+    private void prefetchLayout(int index) {
+        if (index >= questions.size()) return;
+        nextLayout = CompletableFuture.supplyAsync(() -> layout(index), LAYOUT_EXECUTOR);
+    }
+
+    private QuestionLayout layout(int index) {
+        return QuestionLayout.of(questions.get(index), index, questions.size(),
+                OPTION_FONT, optionFontContext, OPTION_WRAP_WIDTH);
     }
 
     /**
@@ -179,7 +215,13 @@ public class PlayerQuiz extends JFrame {
         }
 
         currentQuestionIndex++;
-        loadQuestion();
+        if (currentQuestionIndex < questions.size()) {
+            UiTelemetry.Timing timing = UiTelemetry.begin(SCREEN, "nextQuestion");
+            loadQuestion();
+            timing.completed();
+        } else {
+            finishQuiz();
+        }
     }
 
     /**
@@ -187,32 +229,31 @@ public class PlayerQuiz extends JFrame {
      */
     private void finishQuiz() {
         nextButton.setEnabled(false);
-        
+        UiTelemetry.Timing timing = UiTelemetry.begin(SCREEN, "finishQuiz");
+
         // Save score in background
-        new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                // TODO: Pass actual category/difficulty
-                Repository.saveScore(user.getId(), score, questions.size(), null, null);
-                return null;
-            }
+        // TODO: Pass actual category/difficulty
+        AsyncRepository.submitScore(user.getId(), score, questions.size(), null, null)
+                .whenComplete((done, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        // Non-critical error, just log it
+                        error.printStackTrace();
+                        System.err.println("Failed to save score: " + SwingFutures.describe(error));
+                    }
 
-            @Override
-            protected void done() {
-                try {
-                    get(); // Check for save errors
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    // Non-critical error, just log it
-                    System.err.println("Failed to save score: " + e.getMessage());
-                } finally {
                     // Always show score
+                    if (error != null) timing.failed(); else timing.completed();
                     String message = String.format("Quiz Finished!\nYour Score: %d / %d", score, questions.size());
-                    JOptionPane.showMessageDialog(PlayerQuiz.this, message, "Quiz Complete", JOptionPane.INFORMATION_MESSAGE);
+                    Object[] choices = {"View History", "View Leaderboard", "Close"};
+                    int choice = JOptionPane.showOptionDialog(PlayerQuiz.this, message, "Quiz Complete",
+                            JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, choices, choices[0]);
+                    if (choice == 0) {
+                        new HistoryFrame(user).setVisible(true);
+                    } else if (choice == 1) {
+                        new LeaderboardFrame(user).setVisible(true);
+                    }
                     PlayerQuiz.this.dispose();
-                }
-            }
-        }.execute();
+                }));
     }
 
     private void showError(String message, boolean isFatal) {
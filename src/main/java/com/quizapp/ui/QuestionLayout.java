@@ -0,0 +1,89 @@
+package com.quizapp.ui;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A quiz question ready to show: its option texts are already broken into lines for
+ * {@link OptionView}, so putting it on screen only hands strings to existing components.
+ * Built off the EDT with java.awt.font classes, which unlike Swing components may be used from any
+ * thread. Immutable once built.
+ */
+final class QuestionLayout {
+
+    final int index;
+    final String title;
+    final String text;
+    final String[] optionTexts;
+    final String[][] optionLines;
+    final boolean[] correct;
+
+    private QuestionLayout(int index, String title, String text, String[] optionTexts,
+                           String[][] optionLines, boolean[] correct) {
+        this.index = index;
+        this.title = title;
+        this.text = text;
+        this.optionTexts = optionTexts;
+        this.optionLines = optionLines;
+        this.correct = correct;
+    }
+
+    /**
+     * Lays out question {@code index} of {@code count}, wrapping the options to {@code width} pixels
+     * as measured with {@code font} in {@code frc}.
+     */
+    static QuestionLayout of(Question q, int index, int count, Font font, FontRenderContext frc, float width) {
+        List<Option> options = q.getOptions();
+        String[] texts = new String[options.size()];
+        String[][] lines = new String[options.size()][];
+        boolean[] correct = new boolean[options.size()];
+        for (int i = 0; i < texts.length; i++) {
+            Option o = options.get(i);
+            texts[i] = o.getText() == null ? "" : o.getText();
+            lines[i] = wrap(texts[i], font, frc, width);
+            correct[i] = o.isCorrect();
+        }
+        return new QuestionLayout(index, "Question " + (index + 1) + " of " + count, q.getText(), texts, lines, correct);
+    }
+
+    int getOptionCount() {
+        return optionTexts.length;
+    }
+
+    /**
+     * Breaks text into lines no wider than {@code width}, at word boundaries where possible.
+     * Line breaks in the text are kept.
+     */
+    static String[] wrap(String text, Font font, FontRenderContext frc, float width) {
+        // Most options fit on one line; skip the line breaker for them
+        if (text.indexOf('\n') < 0 && font.getStringBounds(text, frc).getWidth() <= width) {
+            return new String[]{text};
+        }
+        List<String> lines = new ArrayList<>(4);
+        for (String paragraph : text.split("\n", -1)) {
+            if (paragraph.isEmpty()) {
+                lines.add("");
+                continue;
+            }
+            AttributedString styled = new AttributedString(paragraph, Map.of(TextAttribute.FONT, font));
+            LineBreakMeasurer measurer = new LineBreakMeasurer(styled.getIterator(), frc);
+            int start = 0;
+            while (start < paragraph.length()) {
+                int end = measurer.nextOffset(width);
+                measurer.setPosition(end);
+                lines.add(paragraph.substring(start, end).stripTrailing());
+                start = end;
+            }
+        }
+        return lines.toArray(new String[0]);
+    }
+}
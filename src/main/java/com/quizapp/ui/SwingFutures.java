@@ -0,0 +1,73 @@
+package com.quizapp.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Helpers for handling {@link CompletableFuture} results on the Event Dispatch Thread.
+ */
+public final class SwingFutures {
+
+    private SwingFutures() {
+    }
+
+    /**
+     * Calls onSuccess or onError on the EDT when the future completes. The error passed on is
+     * the underlying cause, not a CompletionException wrapper. Nothing is called if the future
+     * was cancelled, since whoever cancelled it no longer wants the result.
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.accept(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (!(cause instanceof CancellationException)) onError.accept(cause);
+        }));
+    }
+
+    /**
+     * Cancels the future when the window closes, so work for a closed screen stops (or is never started).
+     * Returns the future for chaining.
+     */
+    public static <F extends Future<?>> F cancelOnClose(Window window, F future) {
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                future.cancel(true);
+                window.removeWindowListener(this);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Strips CompletionException and ExecutionException wrappers.
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * A user-readable description of a failed call.
+     */
+    public static String describe(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof TimeoutException) return "The database did not respond in time. Please try again.";
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+}
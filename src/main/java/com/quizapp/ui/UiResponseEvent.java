@@ -0,0 +1,26 @@
+package com.quizapp.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one user action on a screen, from the click until its result was painted.
+ * Committed by {@link UiTelemetry}.
+ */
+@Name("com.quizapp.UiResponse")
+@Label("UI Response")
+@Category({"QuizApp", "UI"})
+@Description("Time from a user action until the screen showing its result was painted")
+@StackTrace(false)
+final class UiResponseEvent extends Event {
+
+    @Label("Screen")
+    String screen;
+
+    @Label("Action")
+    String action;
+}
@@ -0,0 +1,104 @@
+package com.quizapp.ui;
+
+import com.quizapp.metrics.OperationStats;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.swing.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Action-to-paint latency per screen: how long a user waits between clicking and seeing the result.
+ *
+ * <p>Call {@link #begin} on the EDT when the user acts and {@link Timing#completed} (or
+ * {@link Timing#failed}) once the screen has been updated with the result. The timing stops only
+ * after the repaint that update queued has run, so it includes layout and painting, not just the
+ * background call. Each action is published as an MXBean named
+ * {@code com.quizapp:type=Ui,screen=<screen>,action=<action>} and each timing is a
+ * {@link UiResponseEvent} for JFR.</p>
+ */
+public final class UiTelemetry {
+
+    private static final Map<String, OperationStats> ACTIONS = new ConcurrentHashMap<>();
+
+    private UiTelemetry() {
+    }
+
+    /**
+     * Starts timing one user action. Both names should be identifiers, e.g. "PlayerQuiz" and "nextQuestion".
+     */
+    public static Timing begin(String screen, String action) {
+        OperationStats stats = ACTIONS.computeIfAbsent(screen + "." + action, name -> register(screen, action, name));
+        return new Timing(screen, action, stats);
+    }
+
+    /**
+     * The stats of every action timed so far, named screen.action.
+     */
+    public static Collection<OperationStats> getActions() {
+        return new ArrayList<>(ACTIONS.values());
+    }
+
+    private static OperationStats register(String screen, String action, String name) {
+        OperationStats stats = new OperationStats(name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName("com.quizapp:type=Ui,screen=" + screen + ",action=" + action);
+            if (!server.isRegistered(objectName)) server.registerMBean(stats, objectName);
+        } catch (JMException e) {
+            System.err.println("Warning: UI timing for " + name + " not registered with JMX (" + e.getMessage() + ").");
+        }
+        return stats;
+    }
+
+    /**
+     * One action being timed. Only the first call to {@link #completed} or {@link #failed} counts.
+     */
+    public static final class Timing {
+        private final String screen;
+        private final String action;
+        private final OperationStats stats;
+        private final UiResponseEvent event = new UiResponseEvent();
+        private final long start = System.nanoTime();
+        private boolean finished;
+
+        private Timing(String screen, String action, OperationStats stats) {
+            this.screen = screen;
+            this.action = action;
+            this.stats = stats;
+            event.begin();
+        }
+
+        /**
+         * The screen now shows the result. Call on the EDT right after updating the components.
+         */
+        public void completed() {
+            SwingUtilities.invokeLater(() -> finish(false));
+        }
+
+        /**
+         * The action failed; the screen now shows the error. Counted as an error for this action.
+         */
+        public void failed() {
+            SwingUtilities.invokeLater(() -> finish(true));
+        }
+
+        // Runs after the RepaintManager's pass for the update, which was queued first
+        private void finish(boolean failed) {
+            if (finished) return;
+            finished = true;
+            stats.record(System.nanoTime() - start, failed, 0, 0, 0);
+            event.end();
+            if (event.shouldCommit()) {
+                event.screen = screen;
+                event.action = action;
+                event.commit();
+            }
+        }
+    }
+}
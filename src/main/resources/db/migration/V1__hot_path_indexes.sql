@@ -0,0 +1,7 @@
+-- Indexes for the repository's hot queries.
+-- Player quiz loading and the question editor look up options by question.
+CREATE INDEX IF NOT EXISTS idx_options_question_id ON options (question_id, id);
+-- Quiz filters by category and/or difficulty, walking ids in order.
+CREATE INDEX IF NOT EXISTS idx_questions_category_difficulty ON questions (category_id, difficulty, id);
+-- Per-user score history, newest first.
+CREATE INDEX IF NOT EXISTS idx_scores_user_taken_at ON scores (user_id, taken_at);
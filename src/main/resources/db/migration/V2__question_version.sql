@@ -0,0 +1,3 @@
+-- Row version for optimistic concurrency in the question editor.
+-- Every update bumps it; an update based on an older version is rejected instead of overwriting.
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 1;
@@ -0,0 +1,34 @@
+-- Leaderboard summary table, kept up to date by the score writer in the same transaction as the scores.
+-- One row per (period, period_start, category, difficulty, user); category_id 0 and difficulty '' mean "all".
+-- period is 'day', 'week' (starting Monday) or 'all' (period_start 1970-01-01).
+CREATE TABLE IF NOT EXISTS leaderboard (
+  period VARCHAR(10) NOT NULL,
+  period_start DATE NOT NULL,
+  category_id INT NOT NULL,
+  difficulty VARCHAR(20) NOT NULL,
+  user_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  points BIGINT NOT NULL DEFAULT 0,
+  questions BIGINT NOT NULL DEFAULT 0,
+  quizzes INT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (period, period_start, category_id, difficulty, user_id)
+);
+-- Top-K and "how many are ahead of me" walk one board in rank order.
+CREATE INDEX IF NOT EXISTS idx_leaderboard_rank
+  ON leaderboard (period, period_start, category_id, difficulty, points DESC, user_id);
+
+-- Backfill from the scores written so far.
+INSERT INTO leaderboard (period, period_start, category_id, difficulty, user_id, points, questions, quizzes)
+SELECT p.period, p.period_start, b.category_id, b.difficulty, s.user_id,
+       SUM(COALESCE(s.score, 0)), SUM(COALESCE(s.total, 0)), COUNT(*)
+FROM (SELECT user_id, score, total, taken_at, category_id,
+             NULLIF(LOWER(TRIM(difficulty)), '') AS difficulty
+      FROM scores WHERE user_id IS NOT NULL) s
+CROSS JOIN LATERAL (VALUES ('day', s.taken_at::date),
+                           ('week', date_trunc('week', s.taken_at)::date),
+                           ('all', DATE '1970-01-01')) AS p(period, period_start)
+CROSS JOIN LATERAL (VALUES (0, ''), (s.category_id, ''),
+                           (0, s.difficulty), (s.category_id, s.difficulty)) AS b(category_id, difficulty)
+WHERE b.category_id IS NOT NULL AND b.difficulty IS NOT NULL
+GROUP BY p.period, p.period_start, b.category_id, b.difficulty, s.user_id
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,6 @@
+-- Per-user history pages walk (taken_at, id) newest first; id breaks ties between attempts saved in the same batch.
+CREATE INDEX IF NOT EXISTS idx_scores_user_history ON scores (user_id, taken_at, id);
+DROP INDEX IF EXISTS idx_scores_user_taken_at;
+-- The leaderboard rows double as the per-user daily and per-category rollups.
+CREATE INDEX IF NOT EXISTS idx_leaderboard_user
+  ON leaderboard (user_id, period, category_id, difficulty, period_start);
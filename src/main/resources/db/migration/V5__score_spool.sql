@@ -0,0 +1,7 @@
+-- How far each client's score spool has been written. The score writer updates its row in the same
+-- transaction as the scores, so replaying a spool after a crash skips rows that were already committed.
+CREATE TABLE IF NOT EXISTS score_spool (
+  spool_id VARCHAR(36) PRIMARY KEY,
+  committed_offset BIGINT NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,192 @@
+package com.quizapp.db;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Two instances in one JVM, each with its own cache and listener, exchanging change events over
+ * LISTEN/NOTIFY on the database at db.url. Skipped when the database is unreachable.
+ */
+class BankChangeListenerIT {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    /**
+     * Applies events to a cache like the store does, and reports each one on a queue.
+     */
+    private static final class Instance implements BankChangeListener.Handler {
+        final String id;
+        final QuestionCache cache = new QuestionCache(100, 0);
+        final CacheInvalidator invalidator = new CacheInvalidator(cache, new CategoryDictionary(() -> {
+            throw new SQLException("not used");
+        }));
+        final LinkedBlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final BankChangeListener listener;
+
+        Instance(String id) {
+            this.id = id;
+            this.listener = new BankChangeListener(TestDatabase.url(), TestDatabase.user(), TestDatabase.password(), id, this);
+        }
+
+        @Override
+        public void questionChanged(int questionId, Integer categoryId, String difficulty) {
+            invalidator.questionChanged(questionId, categoryId, difficulty);
+            events.add("q" + questionId);
+        }
+
+        @Override
+        public void questionDeleted(int questionId) {
+            invalidator.questionDeleted(questionId);
+            events.add("d" + questionId);
+        }
+
+        @Override
+        public void categoryChanged(int categoryId) {
+            invalidator.categoryChanged(categoryId);
+            events.add("c" + categoryId);
+        }
+
+        @Override
+        public void resync() {
+            invalidator.resync();
+            events.add("resync");
+        }
+
+        String next() throws InterruptedException {
+            return events.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+
+        /** Fills the cache with questions 1 and 2 in category 1 and question 3 in category 2. */
+        void fill() throws SQLException {
+            cache.put(question(1, 1, "easy"));
+            cache.put(question(2, 1, "hard"));
+            cache.put(question(3, 2, "easy"));
+            cache.getIds(1, null, (c, d) -> new int[] {1, 2});
+        }
+
+        /** Ids of the given questions that had to be reloaded, i.e. were no longer cached. */
+        int[] reloaded(int... ids) throws SQLException {
+            List<Integer> loaded = new ArrayList<>();
+            cache.getAll(ids, batch -> {
+                List<Question> out = new ArrayList<>();
+                for (int id : batch) {
+                    loaded.add(id);
+                    out.add(question(id, 1, "easy"));
+                }
+                return out;
+            });
+            return loaded.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private Instance a;
+    private Instance b;
+
+    @BeforeEach
+    void start() throws Exception {
+        TestDatabase.connect().close();
+        a = new Instance("instance-a");
+        b = new Instance("instance-b");
+        a.listener.start();
+        b.listener.start();
+        assertEquals("resync", a.next());
+        assertEquals("resync", b.next());
+        a.fill();
+        b.fill();
+    }
+
+    @AfterEach
+    void stop() {
+        if (a != null) a.listener.close();
+        if (b != null) b.listener.close();
+    }
+
+    @Test
+    void otherInstanceEvictsExactlyTheChangedQuestion() throws Exception {
+        try (Connection c = TestDatabase.connect()) {
+            BankChangeListener.publishQuestionChanged(c, a.id, 2, 2, "hard");
+        }
+
+        assertEquals("q2", b.next());
+        assertArrayEquals(new int[] {2}, b.reloaded(1, 2, 3));
+        // Question 2 moved to category 2, so it left the category 1 list
+        assertArrayEquals(new int[] {1}, b.cache.getIds(1, null, (c, d) -> new int[0]));
+
+        // The publisher ignores its own event: nothing was evicted there
+        assertNull(a.events.poll(500, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new int[0], a.reloaded(1, 2, 3));
+    }
+
+    @Test
+    void otherInstanceDropsExactlyTheChangedCategory() throws Exception {
+        try (Connection c = TestDatabase.connect()) {
+            BankChangeListener.publishCategoryChanged(c, a.id, 2);
+        }
+
+        assertEquals("c2", b.next());
+        assertArrayEquals(new int[] {3}, b.reloaded(1, 2, 3));
+        assertArrayEquals(new int[] {1, 2}, b.cache.getIds(1, null, (c, d) -> new int[0]));
+    }
+
+    @Test
+    void eventsArriveOnlyOnCommit() throws Exception {
+        try (Connection c = TestDatabase.connect()) {
+            c.setAutoCommit(false);
+            BankChangeListener.publishQuestionDeleted(c, a.id, 1);
+            assertNull(b.events.poll(500, TimeUnit.MILLISECONDS));
+            c.rollback();
+            BankChangeListener.publishQuestionDeleted(c, a.id, 3);
+            c.commit();
+        }
+
+        assertEquals("d3", b.next());
+        assertArrayEquals(new int[] {3}, b.reloaded(1, 2, 3));
+    }
+
+    @Test
+    void reconnectResyncs() throws Exception {
+        int pid = b.listener.backendPid();
+        assertNotEquals(-1, pid);
+        try (Connection c = TestDatabase.connect();
+             PreparedStatement p = c.prepareStatement("SELECT pg_terminate_backend(?)")) {
+            p.setInt(1, pid);
+            p.execute();
+        }
+
+        assertEquals("resync", b.next());
+        assertArrayEquals(new int[] {1, 2, 3}, b.reloaded(1, 2, 3));
+        assertNotEquals(pid, b.listener.backendPid());
+
+        // Still listening on the new connection
+        b.fill();
+        try (Connection c = TestDatabase.connect()) {
+            BankChangeListener.publishQuestionChanged(c, a.id, 1, 1, "easy");
+        }
+        assertEquals("q1", b.next());
+    }
+
+    private static Question question(int id, int categoryId, String difficulty) {
+        Question q = new Question(id, "Question " + id);
+        q.setCategoryId(categoryId);
+        q.setDifficulty(difficulty);
+        q.addOption(new Option(id * 10, "Yes", true));
+        q.addOption(new Option(id * 10 + 1, "No", false));
+        return q;
+    }
+}
@@ -0,0 +1,72 @@
+package com.quizapp.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CategoryDictionaryTest {
+
+    private final List<Object[]> table = new ArrayList<>(List.<Object[]>of(new Object[] {1, "Science"}));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ConnectionSource connections = () -> FakeJdbc.queryOnly(sql -> {
+        assertEquals("SELECT id, name FROM categories", sql);
+        loads.incrementAndGet();
+        return FakeJdbc.resultSet(List.of("id", "name"), table.toArray(new Object[0][]));
+    });
+
+    @Test
+    void missesWithinTheIntervalDoNotReload() throws SQLException {
+        CategoryDictionary categories = new CategoryDictionary(connections, 60_000);
+
+        assertEquals("Science", categories.nameOf(null, 1));
+        for (int i = 0; i < 100; i++) {
+            assertNull(categories.nameOf(null, 7));
+            assertNull(categories.idOf(null, "Deleted"));
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateAllowsTheNextLookupToReload() throws SQLException {
+        CategoryDictionary categories = new CategoryDictionary(connections, 60_000);
+        assertNull(categories.idOf(null, "History"));
+
+        table.add(new Object[] {2, "History"});
+        categories.invalidate();
+
+        assertEquals(2, (int) categories.idOf(null, "History"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void missAfterTheIntervalFindsACategoryAddedElsewhere() throws SQLException {
+        CategoryDictionary categories = new CategoryDictionary(connections, 0);
+        assertEquals(List.of("Science"), categories.names());
+
+        table.add(new Object[] {2, "History"});
+
+        assertEquals("History", categories.nameOf(null, 2));
+        assertEquals(List.of("History", "Science"), categories.names());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void reloadsOnTheCallersConnection() throws SQLException {
+        CategoryDictionary categories = new CategoryDictionary(() -> {
+            throw new SQLException("the caller's connection should be used");
+        }, 0);
+        Connection c = connections.get();
+
+        assertEquals(1, (int) categories.idOf(c, "Science"));
+        assertNull(categories.idOf(c, "History"));
+        assertEquals(2, loads.get());
+    }
+}
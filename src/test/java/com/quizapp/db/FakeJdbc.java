@@ -0,0 +1,86 @@
+package com.quizapp.db;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Minimal JDBC stand-ins built from dynamic proxies, for unit tests of code that reads result sets.
+ * Only the methods the repository's mappers call are implemented; anything else fails the test.
+ */
+final class FakeJdbc {
+
+    private FakeJdbc() {
+    }
+
+    /**
+     * A forward-only result set over {@code rows}, each row holding one value per column.
+     */
+    static ResultSet resultSet(List<String> columns, Object[]... rows) {
+        int[] row = {-1};
+        boolean[] wasNull = {false};
+        return (ResultSet) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++row[0] < rows.length;
+                        case "findColumn":
+                            int index = columns.indexOf(args[0]);
+                            if (index < 0) throw new SQLException("No column " + args[0]);
+                            return index + 1;
+                        case "wasNull":
+                            return wasNull[0];
+                        case "close":
+                            return null;
+                        case "getObject":
+                        case "getString":
+                        case "getInt":
+                        case "getLong":
+                        case "getBoolean":
+                            Object value = rows[row[0]][column(columns, args[0])];
+                            wasNull[0] = value == null;
+                            switch (method.getName()) {
+                                case "getInt": return value == null ? 0 : ((Number) value).intValue();
+                                case "getLong": return value == null ? 0L : ((Number) value).longValue();
+                                case "getBoolean": return value != null && (Boolean) value;
+                                case "getString": return value == null ? null : value.toString();
+                                default: return value;
+                            }
+                        default:
+                            throw new UnsupportedOperationException("ResultSet." + method.getName());
+                    }
+                });
+    }
+
+    private static int column(List<String> columns, Object labelOrIndex) {
+        return labelOrIndex instanceof Integer ? (Integer) labelOrIndex - 1 : columns.indexOf(labelOrIndex);
+    }
+
+    /**
+     * A connection whose prepared statements answer every query with {@code results.apply(sql)}.
+     */
+    static Connection queryOnly(Function<String, ResultSet> results) {
+        return (Connection) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            String sql = (String) args[0];
+                            return Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                                    (p, m, a) -> {
+                                        if (m.getName().equals("executeQuery")) return results.apply(sql);
+                                        if (m.getName().equals("close") || m.getName().startsWith("set")) return null;
+                                        throw new UnsupportedOperationException("PreparedStatement." + m.getName());
+                                    });
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException("Connection." + method.getName() + Arrays.toString(args));
+                    }
+                });
+    }
+}
@@ -0,0 +1,152 @@
+package com.quizapp.db;
+
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough of the scores, leaderboard and score_spool tables, with transactions, to run a
+ * {@link ScoreWriter} against.
+ * Statements are recognised by the start of their SQL text.
+ */
+final class FakeScoreDatabase implements ConnectionSource {
+
+    /** Committed scores rows: user id, score, total, category id, difficulty. */
+    final List<Object[]> scores = new ArrayList<>();
+    /** Committed score_spool rows. */
+    final Map<String, Long> spoolOffsets = new HashMap<>();
+    /** Committed quizzes on each player's all-time overall board. */
+    final Map<Integer, Long> allTimeQuizzes = new HashMap<>();
+
+    /** While set, every connection attempt fails with it. */
+    volatile SQLException down;
+    /** Scores for this user fail with a foreign key violation, as if the user were deleted. */
+    volatile int rejectedUserId = -1;
+
+    @Override
+    public Connection get() throws SQLException {
+        SQLException e = down;
+        if (e != null) throw e;
+        return new Transaction().connection();
+    }
+
+    synchronized List<Object[]> scores() {
+        return new ArrayList<>(scores);
+    }
+
+    synchronized Long spoolOffset(String spoolId) {
+        return spoolOffsets.get(spoolId);
+    }
+
+    synchronized long allTimeQuizzes(int userId) {
+        return allTimeQuizzes.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * One connection's open transaction: changes are kept aside and applied on commit.
+     */
+    private final class Transaction {
+        final List<Runnable> changes = new ArrayList<>();
+
+        Connection connection() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setAutoCommit":
+                            case "close":
+                                return null;
+                            case "commit":
+                                synchronized (FakeScoreDatabase.this) {
+                                    changes.forEach(Runnable::run);
+                                }
+                                changes.clear();
+                                return null;
+                            case "rollback":
+                                changes.clear();
+                                return null;
+                            case "prepareStatement":
+                                return statement((String) args[0]);
+                            default:
+                                throw new UnsupportedOperationException("Connection." + method.getName());
+                        }
+                    });
+        }
+
+        PreparedStatement statement(String sql) {
+            Map<Integer, Object> params = new HashMap<>();
+            List<Map<Integer, Object>> batch = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("setNull")) {
+                            params.put((Integer) args[0], null);
+                            return null;
+                        }
+                        if (name.startsWith("set")) {
+                            params.put((Integer) args[0], args[1]);
+                            return null;
+                        }
+                        switch (name) {
+                            case "addBatch":
+                                batch.add(new HashMap<>(params));
+                                return null;
+                            case "executeBatch":
+                                for (Map<Integer, Object> row : batch) execute(sql, row);
+                                int[] counts = new int[batch.size()];
+                                batch.clear();
+                                return counts;
+                            case "executeUpdate":
+                                execute(sql, params);
+                                return 1;
+                            case "executeQuery":
+                                if (!sql.startsWith("SELECT committed_offset FROM score_spool ")) {
+                                    throw new UnsupportedOperationException(sql);
+                                }
+                                Long offset = spoolOffset((String) params.get(1));
+                                return offset == null
+                                        ? FakeJdbc.resultSet(List.of("committed_offset"))
+                                        : FakeJdbc.resultSet(List.of("committed_offset"), new Object[] {offset});
+                            case "close":
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException("PreparedStatement." + name);
+                        }
+                    });
+        }
+
+        void execute(String sql, Map<Integer, Object> p) throws SQLException {
+            if (sql.startsWith("INSERT INTO scores ")) {
+                int userId = (Integer) p.get(1);
+                if (userId == rejectedUserId) {
+                    throw new BatchUpdateException("insert or update on table \"scores\" violates foreign key constraint",
+                            "23503", new int[0]);
+                }
+                Object[] row = {userId, p.get(2), p.get(3), p.get(4), p.get(5)};
+                changes.add(() -> scores.add(row));
+            } else if (sql.startsWith("INSERT INTO score_spool ")) {
+                String id = (String) p.get(1);
+                long end = (Long) p.get(2);
+                changes.add(() -> spoolOffsets.merge(id, end, Math::max));
+            } else if (sql.startsWith("DELETE FROM score_spool ")) {
+                String id = (String) p.get(1);
+                changes.add(() -> spoolOffsets.remove(id));
+            } else if (sql.startsWith("INSERT INTO leaderboard ")) {
+                // period, period_start, category_id, difficulty, user_id, points, questions, quizzes
+                if ("all".equals(p.get(1)) && Integer.valueOf(ScoreAggregates.ALL_CATEGORIES).equals(p.get(3))
+                        && ScoreAggregates.ALL_DIFFICULTIES.equals(p.get(4))) {
+                    int userId = (Integer) p.get(5);
+                    long quizzes = (Integer) p.get(8);
+                    changes.add(() -> allTimeQuizzes.merge(userId, quizzes, Long::sum));
+                }
+            } else {
+                throw new UnsupportedOperationException(sql);
+            }
+        }
+    }
+}
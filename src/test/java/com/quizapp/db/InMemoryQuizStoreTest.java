@@ -0,0 +1,139 @@
+package com.quizapp.db;
+
+import com.quizapp.model.LeaderboardEntry;
+import com.quizapp.model.LeaderboardPeriod;
+import com.quizapp.model.Option;
+import com.quizapp.model.ProgressStats;
+import com.quizapp.model.Question;
+import com.quizapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The memory engine behaves like the JDBC one for the calls the player screens make.
+ */
+class InMemoryQuizStoreTest {
+
+    private InMemoryQuizStore store;
+
+    @BeforeEach
+    void create() {
+        store = new InMemoryQuizStore();
+    }
+
+    @Test
+    void createsAndAuthenticatesUsers() throws SQLException {
+        store.createUser("alice", "secret", false);
+        store.createUser("root", "hunter2", true);
+
+        User alice = store.authenticate("alice", "secret");
+        assertNotNull(alice);
+        assertEquals("alice", alice.getUsername());
+        assertFalse(alice.isAdmin());
+        assertTrue(store.authenticate("root", "hunter2").isAdmin());
+        assertNull(store.authenticate("alice", "wrong"));
+        assertNull(store.authenticate("nobody", "secret"));
+    }
+
+    @Test
+    void duplicateUsernameFailsLikePostgres() throws SQLException {
+        store.createUser("alice", "secret", false);
+
+        SQLException e = assertThrows(SQLException.class, () -> store.createUser("alice", "other", false));
+        assertEquals("23505", e.getSQLState());
+        assertTrue(e.getMessage().contains("users_username_key"));
+    }
+
+    @Test
+    void drawsQuizzesMatchingTheFilters() throws SQLException {
+        store.addCategory("Science");
+        store.addCategory("History");
+        store.addQuestion("S1", options(), "Science", "easy");
+        store.addQuestion("S2", options(), "Science", "hard");
+        store.addQuestion("H1", options(), "History", "easy");
+
+        assertEquals(List.of("History", "Science"), store.getAllCategoryNames());
+        Integer science = categoryId("S1");
+
+        assertEquals(List.of("H1", "S1", "S2"), texts(store.getRandomQuiz(null, null, 10)));
+        assertEquals(List.of("S1", "S2"), texts(store.getRandomQuiz(science, null, 10)));
+        assertEquals(List.of("H1", "S1"), texts(store.getRandomQuiz(null, "easy", 10)));
+        assertEquals(List.of("S2"), texts(store.getRandomQuiz(science, "hard", 10)));
+        assertEquals(List.of(), texts(store.getRandomQuiz(science, "medium", 10)));
+        assertEquals(2, store.getRandomQuiz(null, null, 2).size());
+
+        assertThrows(SQLException.class, () -> store.addQuestion("X", options(), "Geography", "easy"));
+    }
+
+    @Test
+    void exportIncludesQuestionsWithoutOptions() throws SQLException {
+        store.addCategory("Science");
+        store.addQuestion("S1", options(), "Science", "easy");
+        store.addQuestion("Draft", List.of(), "Science", "easy");
+
+        List<Question> exported = new ArrayList<>();
+        store.exportQuestions(exported::add);
+
+        assertEquals(List.of("Draft", "S1"), texts(exported));
+        List<String> played = new ArrayList<>();
+        store.forEachQuestion(null, null, q -> played.add(q.getText()));
+        assertEquals(List.of("S1"), played);
+    }
+
+    @Test
+    void scoresAddUpOnTotalsAndBoards() throws SQLException {
+        store.addCategory("Science");
+        store.addQuestion("S1", options(), "Science", "easy");
+        Integer science = categoryId("S1");
+        store.createUser("alice", "secret", false);
+        store.createUser("bob", "secret", false);
+        int alice = store.authenticate("alice", "secret").getId();
+        int bob = store.authenticate("bob", "secret").getId();
+
+        store.submitScore(alice, 3, 5, science, "easy");
+        store.submitScore(alice, 4, 5, null, null);
+        store.submitScore(bob, 5, 5, science, "easy");
+        assertTrue(store.awaitScoresWritten(1000));
+
+        ProgressStats totals = store.getUserTotals(alice);
+        assertEquals(7, totals.getPoints());
+        assertEquals(10, totals.getQuestions());
+        assertEquals(2, totals.getQuizzes());
+        assertNull(store.getUserTotals(12345));
+
+        List<LeaderboardEntry> overall = store.getLeaderboard(LeaderboardPeriod.ALL_TIME, null, null, 10);
+        assertEquals(List.of("alice", "bob"), overall.stream().map(LeaderboardEntry::getUsername).collect(Collectors.toList()));
+        assertEquals(1, overall.get(0).getRank());
+
+        List<LeaderboardEntry> scienceBoard = store.getLeaderboard(LeaderboardPeriod.DAY, "Science", "easy", 10);
+        assertEquals(List.of("bob", "alice"), scienceBoard.stream().map(LeaderboardEntry::getUsername).collect(Collectors.toList()));
+        assertEquals(3, scienceBoard.get(1).getPoints());
+
+        assertThrows(SQLException.class, () -> store.submitScore(12345, 1, 1, null, null));
+    }
+
+    private Integer categoryId(String questionText) throws SQLException {
+        return store.getQuestionsForPlayer(null, null).stream()
+                .filter(q -> q.getText().equals(questionText)).findFirst().orElseThrow().getCategoryId();
+    }
+
+    private static List<Option> options() {
+        return List.of(new Option("Yes", true), new Option("No", false));
+    }
+
+    private static List<String> texts(List<Question> questions) {
+        return questions.stream().map(Question::getText).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package com.quizapp.db;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Applies the migrations to the database at db.url and checks that the hot queries use their indexes,
+ * so a plan regression fails the build. Skipped when the database is unreachable.
+ */
+class MigrationsIT {
+
+    @TempDir
+    static Path scratch;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        try (Connection c = TestDatabase.connect()) {
+            TestDatabase.ensureBaseSchema(c);
+            Migrations.migrate(c);
+        }
+        TestDatabase.configureStore(scratch);
+    }
+
+    @Test
+    void migrationsAreIdempotent() throws Exception {
+        try (Connection c = TestDatabase.connect()) {
+            assertEquals(0, Migrations.migrate(c));
+        }
+    }
+
+    @Test
+    void hotQueriesUseTheirIndexes() throws Exception {
+        List<String> problems = Repository.checkQueryPlans();
+        assertEquals(List.of(), problems, () -> String.join("\n", problems));
+    }
+}
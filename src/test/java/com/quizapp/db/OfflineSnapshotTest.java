@@ -0,0 +1,166 @@
+package com.quizapp.db;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflineSnapshotTest {
+
+    private static final Integer[] CATEGORY_IDS = {1, 2, null};
+    private static final String[] CATEGORIES = {"Science", "History", null};
+    private static final String[] DIFFICULTIES = {"easy", "hard", null};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rebuiltSnapshotReadsBackInANewInstance() throws Exception {
+        List<Question> bank = bank();
+        new OfflineSnapshot(base()).rebuild(0xC0FFEEL, source(bank));
+
+        OfflineSnapshot snapshot = new OfflineSnapshot(base());
+        assertTrue(snapshot.load());
+        assertEquals(0xC0FFEEL, snapshot.getFingerprint());
+        assertTrue(snapshot.getCreatedAt() > 0);
+
+        Map<Integer, Question> expected = byId(bank);
+        List<Question> all = snapshot.sample(null, null, 100);
+        assertEquals(bank.size(), all.size());
+        for (Question q : all) {
+            Question e = expected.get(q.getId());
+            assertEquals(e.getText(), q.getText());
+            assertEquals(e.getCategoryId(), q.getCategoryId());
+            assertEquals(e.getCategory(), q.getCategory());
+            assertEquals(e.getDifficulty(), q.getDifficulty());
+            assertEquals(options(e), options(q));
+            assertTrue(q.isReadOnly());
+        }
+    }
+
+    @Test
+    void drawsExactlyTheQuestionsMatchingEachFilter() throws Exception {
+        List<Question> bank = bank();
+        OfflineSnapshot snapshot = new OfflineSnapshot(base());
+        snapshot.rebuild(1, source(bank));
+
+        for (Integer categoryId : new Integer[] {null, 1, 2, 3}) {
+            for (String difficulty : new String[] {null, "easy", "hard", "expert"}) {
+                List<Integer> expected = bank.stream()
+                        .filter(q -> categoryId == null || categoryId.equals(q.getCategoryId()))
+                        .filter(q -> difficulty == null || difficulty.equals(q.getDifficulty()))
+                        .map(Question::getId).sorted().collect(Collectors.toList());
+                List<Integer> drawn = snapshot.sample(categoryId, difficulty, 1000).stream()
+                        .map(Question::getId).sorted().collect(Collectors.toList());
+                assertEquals(expected, drawn, categoryId + "/" + difficulty);
+                assertEquals(Math.min(2, expected.size()), snapshot.sample(categoryId, difficulty, 2).size());
+            }
+        }
+    }
+
+    @Test
+    void rebuildReplacesTheOlderFiles() throws Exception {
+        OfflineSnapshot snapshot = new OfflineSnapshot(base());
+        snapshot.rebuild(1, source(bank()));
+        Thread.sleep(5);
+        snapshot.rebuild(2, source(bank().subList(0, 3)));
+
+        assertEquals(1, snapshotFiles().size());
+        assertEquals(2, snapshot.getFingerprint());
+        assertEquals(3, snapshot.sample(null, null, 100).size());
+    }
+
+    @Test
+    void ignoresFilesItCannotRead() throws Exception {
+        new OfflineSnapshot(base()).rebuild(7, source(bank()));
+        Path junk = dir.resolve("questions-junk.snapshot");
+        Files.write(junk, "not a snapshot".getBytes(StandardCharsets.US_ASCII));
+        Files.setLastModifiedTime(junk, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        OfflineSnapshot snapshot = new OfflineSnapshot(base());
+        assertTrue(snapshot.load());
+        assertEquals(7, snapshot.getFingerprint());
+        assertFalse(Files.exists(junk));
+    }
+
+    @Test
+    void ignoresSnapshotsInTheUnsortedFirstFormat() throws Exception {
+        ByteBuffer header = ByteBuffer.allocate(36).putInt(0x515A534E).putInt(1);
+        Files.write(dir.resolve("questions-1-1.snapshot"), header.array());
+
+        assertFalse(new OfflineSnapshot(base()).load());
+    }
+
+    @Test
+    void nothingToDrawWithoutASnapshot() {
+        OfflineSnapshot snapshot = new OfflineSnapshot(base());
+
+        assertFalse(snapshot.load());
+        assertFalse(snapshot.isLoaded());
+        assertEquals(0, snapshot.getFingerprint());
+        assertNull(snapshot.sample(null, null, 10));
+    }
+
+    private Path base() {
+        return dir.resolve("questions.snapshot");
+    }
+
+    private List<Path> snapshotFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".snapshot")).collect(Collectors.toList());
+        }
+    }
+
+    /** Every combination of category and difficulty, two questions each, with varied options. */
+    private static List<Question> bank() {
+        List<Question> bank = new ArrayList<>();
+        int id = 1;
+        for (int c = 0; c < CATEGORY_IDS.length; c++) {
+            for (String difficulty : DIFFICULTIES) {
+                for (int k = 0; k < 2; k++, id++) {
+                    Question q = new Question(id, "Question " + id + " – ünïcode?");
+                    q.setCategoryId(CATEGORY_IDS[c]);
+                    q.setCategory(CATEGORIES[c]);
+                    q.setDifficulty(difficulty);
+                    for (int o = 0; o < 2 + id % 3; o++) {
+                        q.addOption(new Option("Option " + o + " of " + id, o == id % 2));
+                    }
+                    bank.add(q);
+                }
+            }
+        }
+        return bank;
+    }
+
+    private static OfflineSnapshot.QuestionSource source(List<Question> bank) {
+        return action -> bank.forEach(action);
+    }
+
+    private static Map<Integer, Question> byId(List<Question> bank) {
+        Map<Integer, Question> map = new TreeMap<>();
+        for (Question q : bank) map.put(q.getId(), q);
+        return map;
+    }
+
+    private static List<String> options(Question q) {
+        return q.getOptions().stream().map(o -> o.getText() + "=" + o.isCorrect()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,221 @@
+package com.quizapp.db;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionCacheTest {
+
+    @Test
+    void smallSampleIsDistinctAndDrawnFromTheInput() {
+        int[] ids = IntStream.range(0, 1000).map(i -> i * 3 + 1).toArray();
+        Set<Integer> input = new HashSet<>();
+        for (int id : ids) input.add(id);
+
+        for (int round = 0; round < 100; round++) {
+            int[] picked = QuestionCache.sample(ids, 10);
+            assertEquals(10, picked.length);
+            Set<Integer> seen = new HashSet<>();
+            for (int id : picked) {
+                assertTrue(input.contains(id), "not in input: " + id);
+                assertTrue(seen.add(id), "picked twice: " + id);
+            }
+        }
+    }
+
+    @Test
+    void largeSampleIsDistinctAndDrawnFromTheInput() {
+        int[] ids = IntStream.range(100, 120).toArray();
+        for (int round = 0; round < 100; round++) {
+            int[] picked = QuestionCache.sample(ids, 15);
+            assertEquals(15, picked.length);
+            assertEquals(15, Arrays.stream(picked).distinct().count());
+            assertTrue(Arrays.stream(picked).allMatch(id -> id >= 100 && id < 120));
+        }
+    }
+
+    @Test
+    void positionsAreDistinctAndInRange() {
+        for (int round = 0; round < 100; round++) {
+            for (int n : new int[] {3, 15}) {
+                int[] picked = QuestionCache.samplePositions(20, n);
+                assertEquals(n, picked.length);
+                assertEquals(n, Arrays.stream(picked).distinct().count());
+                assertTrue(Arrays.stream(picked).allMatch(p -> p >= 0 && p < 20));
+            }
+        }
+    }
+
+    @Test
+    void askingForAtLeastEverythingReturnsEverything() {
+        int[] ids = {4, 8, 15, 16, 23, 42};
+
+        int[] picked = QuestionCache.sample(ids, 6);
+        Arrays.sort(picked);
+        assertArrayEquals(ids, picked);
+
+        picked = QuestionCache.sample(ids, 100);
+        Arrays.sort(picked);
+        assertArrayEquals(ids, picked);
+    }
+
+    @Test
+    void emptyInputGivesAnEmptySample() {
+        assertArrayEquals(new int[0], QuestionCache.sample(new int[0], 10));
+        assertArrayEquals(new int[0], QuestionCache.samplePositions(0, 10));
+        assertArrayEquals(new int[0], QuestionCache.sample(new int[] {1, 2}, 0));
+    }
+
+    @Test
+    void eventuallyPicksEveryId() {
+        int[] ids = IntStream.rangeClosed(1, 50).toArray();
+        Set<Integer> seen = new HashSet<>();
+        for (int round = 0; round < 2000 && seen.size() < ids.length; round++) {
+            for (int id : QuestionCache.sample(ids, 3)) seen.add(id);
+        }
+        assertEquals(ids.length, seen.size());
+    }
+
+    @Test
+    void loadsOnlyTheMissingQuestions() throws SQLException {
+        QuestionCache cache = new QuestionCache(100, 0);
+        cache.put(question(1, 1, "easy"));
+        List<Integer> loaded = new ArrayList<>();
+        QuestionCache.QuestionLoader loader = ids -> {
+            List<Question> out = new ArrayList<>();
+            for (int id : ids) {
+                loaded.add(id);
+                if (id != 3) out.add(question(id, 1, "easy"));
+            }
+            return out;
+        };
+
+        List<Question> first = cache.getAll(new int[] {2, 1, 3}, loader);
+        assertEquals(List.of(2, 1), first.stream().map(Question::getId).collect(Collectors.toList()));
+        assertEquals(List.of(2, 3), loaded);
+
+        loaded.clear();
+        cache.getAll(new int[] {1, 2}, loader);
+        assertEquals(List.of(), loaded);
+
+        // Callers share the cached snapshots, so they must not be able to change them
+        assertThrows(UnsupportedOperationException.class, () -> first.get(0).addOption(new Option("Maybe", false)));
+    }
+
+    @Test
+    void putPatchesEveryCachedIdList() throws SQLException {
+        QuestionCache cache = new QuestionCache(100, 0);
+        cache.getIds(1, null, (c, d) -> new int[] {1, 5});
+        cache.getIds(null, "hard", (c, d) -> new int[] {5});
+
+        cache.put(question(3, 1, "hard"));
+        assertArrayEquals(new int[] {1, 3, 5}, cache.getIds(1, null, (c, d) -> new int[] {-1}));
+        assertArrayEquals(new int[] {3, 5}, cache.getIds(null, "hard", (c, d) -> new int[] {-1}));
+
+        // Moved to another category and made easy: it leaves both lists
+        cache.put(question(3, 2, "easy"));
+        assertArrayEquals(new int[] {1, 5}, cache.getIds(1, null, (c, d) -> new int[] {-1}));
+        assertArrayEquals(new int[] {5}, cache.getIds(null, "hard", (c, d) -> new int[] {-1}));
+    }
+
+    @Test
+    void questionsWithoutOptionsAreNotPlayable() throws SQLException {
+        QuestionCache cache = new QuestionCache(100, 0);
+        cache.getIds(null, null, (c, d) -> new int[] {1});
+
+        cache.put(new Question(2, "No options yet"));
+
+        assertArrayEquals(new int[] {1}, cache.getIds(null, null, (c, d) -> new int[] {-1}));
+    }
+
+    @Test
+    void removeDropsTheQuestionEverywhere() throws SQLException {
+        QuestionCache cache = new QuestionCache(100, 0);
+        cache.put(question(1, 1, "easy"));
+        cache.getIds(1, "easy", (c, d) -> new int[] {1, 2});
+
+        cache.remove(1);
+
+        assertArrayEquals(new int[] {2}, cache.getIds(1, "easy", (c, d) -> new int[] {-1}));
+        assertEquals(List.of(), cache.getAll(new int[] {1}, ids -> List.of()));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedQuestion() throws SQLException {
+        QuestionCache cache = new QuestionCache(2, 0);
+        cache.put(question(1, 1, "easy"));
+        cache.put(question(2, 1, "easy"));
+        cache.getAll(new int[] {1}, ids -> List.of());
+        cache.put(question(3, 1, "easy"));
+
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+        List<Integer> loaded = new ArrayList<>();
+        cache.getAll(new int[] {1, 2, 3}, ids -> {
+            for (int id : ids) loaded.add(id);
+            return List.of();
+        });
+        assertEquals(List.of(2), loaded);
+    }
+
+    @Test
+    void evictMovesTheQuestionBetweenFilters() throws SQLException {
+        QuestionCache cache = new QuestionCache(100, 0);
+        cache.put(question(1, 1, "easy"));
+        cache.put(question(2, 2, "easy"));
+        assertArrayEquals(new int[] {1}, cache.getIds(1, null, (c, d) -> new int[] {1}));
+        assertArrayEquals(new int[] {2}, cache.getIds(2, null, (c, d) -> new int[] {2}));
+
+        cache.evict(1, 2, "easy");
+
+        assertArrayEquals(new int[0], cache.getIds(1, null, (c, d) -> new int[] {-1}));
+        assertArrayEquals(new int[] {1, 2}, cache.getIds(2, null, (c, d) -> new int[] {-1}));
+        List<Integer> loaded = new ArrayList<>();
+        cache.getAll(new int[] {1, 2}, ids -> {
+            for (int id : ids) loaded.add(id);
+            return List.of();
+        });
+        assertEquals(List.of(1), loaded);
+    }
+
+    @Test
+    void invalidateCategoryDropsOnlyThatCategory() throws SQLException {
+        QuestionCache cache = new QuestionCache(100, 0);
+        cache.put(question(1, 1, "easy"));
+        cache.put(question(2, 2, "easy"));
+        cache.getIds(1, null, (c, d) -> new int[] {1});
+        cache.getIds(2, null, (c, d) -> new int[] {2});
+
+        cache.invalidateCategory(1);
+
+        assertArrayEquals(new int[] {10}, cache.getIds(1, null, (c, d) -> new int[] {10}));
+        assertArrayEquals(new int[] {2}, cache.getIds(2, null, (c, d) -> new int[] {-1}));
+        assertEquals(1, cache.getAll(new int[] {1, 2}, ids -> {
+            assertArrayEquals(new int[] {1}, ids);
+            return List.of();
+        }).size());
+    }
+
+    private static Question question(int id, int categoryId, String difficulty) {
+        Question q = new Question(id, "Question " + id);
+        q.setCategoryId(categoryId);
+        q.setDifficulty(difficulty);
+        q.addOption(new Option("Yes", true));
+        q.addOption(new Option("No", false));
+        return q;
+    }
+}
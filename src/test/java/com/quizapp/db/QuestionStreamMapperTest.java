@@ -0,0 +1,112 @@
+package com.quizapp.db;
+
+import com.quizapp.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class QuestionStreamMapperTest {
+
+    private static final List<String> COLUMNS =
+            List.of("id", "question_text", "category_id", "difficulty", "option_text", "is_correct");
+
+    private final AtomicInteger categoryLoads = new AtomicInteger();
+    private final Connection connection = FakeJdbc.queryOnly(sql -> {
+        assertEquals("SELECT id, name FROM categories", sql);
+        categoryLoads.incrementAndGet();
+        return FakeJdbc.resultSet(List.of("id", "name"), new Object[] {1, "Science"}, new Object[] {2, "History"});
+    });
+    private final CategoryDictionary categories = new CategoryDictionary(() -> {
+        throw new SQLException("the mapper's own connection should be used");
+    });
+
+    @Test
+    void groupsAdjacentRowsIntoQuestions() throws SQLException {
+        QuestionStreamMapper mapper = mapper(
+                new Object[] {1, "Boiling point?", 1, "easy", "100 C", true},
+                new Object[] {1, "Boiling point?", 1, "easy", "50 C", false},
+                new Object[] {2, "Year of Hastings?", 2, "hard", "1066", true},
+                new Object[] {2, "Year of Hastings?", 2, "hard", "1166", false},
+                new Object[] {2, "Year of Hastings?", 2, "hard", "966", false},
+                new Object[] {5, "Uncategorised", null, null, "Yes", false});
+
+        List<Question> questions = drain(mapper);
+
+        assertEquals(List.of(1, 2, 5), questions.stream().map(Question::getId).collect(Collectors.toList()));
+        Question first = questions.get(0);
+        assertEquals("Boiling point?", first.getText());
+        assertEquals(1, first.getCategoryId());
+        assertEquals("Science", first.getCategory());
+        assertEquals("easy", first.getDifficulty());
+        assertEquals(List.of("100 C=true", "50 C=false"), options(first));
+
+        Question second = questions.get(1);
+        assertEquals("History", second.getCategory());
+        assertEquals(List.of("1066=true", "1166=false", "966=false"), options(second));
+
+        Question last = questions.get(2);
+        assertNull(last.getCategoryId());
+        assertNull(last.getCategory());
+        assertNull(last.getDifficulty());
+        assertEquals(List.of("Yes=false"), options(last));
+
+        assertEquals(6, mapper.getRowCount());
+        assertEquals(1, categoryLoads.get());
+    }
+
+    @Test
+    void sharesOneNameStringPerCategory() throws SQLException {
+        List<Question> questions = drain(mapper(
+                new Object[] {1, "A", 1, "easy", "x", true},
+                new Object[] {2, "B", 1, "easy", "y", true}));
+
+        assertSame(questions.get(0).getCategory(), questions.get(1).getCategory());
+    }
+
+    @Test
+    void leftJoinRowWithoutOptionGivesQuestionWithoutOptions() throws SQLException {
+        List<Question> questions = drain(mapper(
+                new Object[] {1, "Draft", 1, "easy", null, null},
+                new Object[] {2, "Ready", 1, "easy", "Yes", true}));
+
+        assertEquals(List.of(), options(questions.get(0)));
+        assertEquals(List.of("Yes=true"), options(questions.get(1)));
+    }
+
+    @Test
+    void emptyResultHasNoQuestions() throws SQLException {
+        QuestionStreamMapper mapper = mapper();
+
+        assertNull(mapper.next());
+        assertNull(mapper.next());
+        assertEquals(0, mapper.getRowCount());
+    }
+
+    private QuestionStreamMapper mapper(Object[]... rows) throws SQLException {
+        ResultSet r = FakeJdbc.resultSet(COLUMNS, rows);
+        return new QuestionStreamMapper(r, connection, categories);
+    }
+
+    private static List<Question> drain(QuestionStreamMapper mapper) throws SQLException {
+        List<Question> out = new ArrayList<>();
+        for (Question q = mapper.next(); q != null; q = mapper.next()) {
+            out.add(q);
+        }
+        assertNull(mapper.next());
+        return out;
+    }
+
+    private static List<String> options(Question q) {
+        return q.getOptions().stream().map(o -> o.getText() + "=" + o.isCorrect()).collect(Collectors.toList());
+    }
+}
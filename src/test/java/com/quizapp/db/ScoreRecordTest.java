@@ -0,0 +1,59 @@
+package com.quizapp.db;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScoreRecordTest {
+
+    @Test
+    void roundTripsEveryField() {
+        ScoreRecord r = roundTrip(new ScoreRecord(7, 4, 5, 12, "hard", 1_700_000_000_123L));
+
+        assertEquals(7, r.getUserId());
+        assertEquals(4, r.getScore());
+        assertEquals(5, r.getTotal());
+        assertEquals(12, r.getCategoryId());
+        assertEquals("hard", r.getDifficulty());
+        assertEquals(1_700_000_000_123L, r.getTakenAt());
+    }
+
+    @Test
+    void keepsNullCategoryAndDifficulty() {
+        ScoreRecord r = roundTrip(new ScoreRecord(1, 0, 10, null, null, 5L));
+
+        assertNull(r.getCategoryId());
+        assertNull(r.getDifficulty());
+    }
+
+    @Test
+    void tellsEmptyDifficultyFromNull() {
+        assertEquals("", roundTrip(new ScoreRecord(1, 0, 10, null, "", 5L)).getDifficulty());
+    }
+
+    @Test
+    void difficultyMayContainCommas() {
+        assertEquals("very, very hard", roundTrip(new ScoreRecord(1, 2, 3, 4, "very, very hard", 5L)).getDifficulty());
+    }
+
+    @Test
+    void lineBreaksInDifficultyBecomeSpaces() {
+        ScoreRecord r = new ScoreRecord(1, 2, 3, 4, "two\nlines\r", 5L);
+
+        assertEquals(-1, r.toSpoolLine().indexOf('\n'));
+        assertEquals("two lines ", roundTrip(r).getDifficulty());
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        assertThrows(IllegalArgumentException.class, () -> ScoreRecord.fromSpoolLine("1,2,3"));
+        assertThrows(IllegalArgumentException.class, () -> ScoreRecord.fromSpoolLine("x,2,3,,5,-"));
+        assertThrows(IllegalArgumentException.class, () -> ScoreRecord.fromSpoolLine(""));
+    }
+
+    private static ScoreRecord roundTrip(ScoreRecord r) {
+        return ScoreRecord.fromSpoolLine(r.toSpoolLine());
+    }
+}
@@ -0,0 +1,190 @@
+package com.quizapp.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the writer against {@link FakeScoreDatabase}, with its spool in a temporary directory.
+ */
+class ScoreWriterTest {
+
+    private static final String SPOOL_ID = "0f8e2a1c-5b7d-4e36-9a24-3c1d6b8f0e57";
+
+    @TempDir
+    Path dir;
+
+    private final FakeScoreDatabase db = new FakeScoreDatabase();
+    private ScoreWriter writer;
+
+    @AfterEach
+    void close() {
+        if (writer != null) writer.close();
+    }
+
+    @Test
+    void writesEverySubmittedScoreAndEmptiesTheSpool() throws Exception {
+        start();
+        for (int i = 1; i <= 25; i++) {
+            writer.submit(score(i));
+        }
+
+        assertTrue(writer.awaitFlushed(5000));
+        assertEquals(25, db.scores().size());
+        assertEquals(25, writer.getStats().getWritten());
+        List<String> spool = spoolLines();
+        assertEquals(1, spool.size());
+        assertTrue(spool.get(0).startsWith("#spool "));
+    }
+
+    @Test
+    void addsEachBatchToTheLeaderboard() throws Exception {
+        start();
+        writer.submit(score(1));
+        writer.submit(score(2));
+        writer.submit(score(1));
+
+        assertTrue(writer.awaitFlushed(5000));
+        assertEquals(2, db.allTimeQuizzes(1));
+        assertEquals(1, db.allTimeQuizzes(2));
+    }
+
+    @Test
+    void replaysOnlyWhatFollowsTheCheckpoint() throws Exception {
+        long[] ends = spool(SPOOL_ID, score(1), score(2), score(3));
+        Files.write(dir.resolve("scores.spool.checkpoint"), Long.toString(ends[0]).getBytes(StandardCharsets.US_ASCII));
+
+        start();
+
+        assertTrue(writer.awaitFlushed(5000));
+        assertEquals(List.of(2, 3), userIds());
+        assertEquals(0, db.allTimeQuizzes(1));
+    }
+
+    @Test
+    void dropsAPartiallyWrittenLastLine() throws Exception {
+        spool(SPOOL_ID, score(1), score(2));
+        Files.write(dir.resolve("scores.spool"), "3,1,5,".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        start();
+
+        assertTrue(writer.awaitFlushed(5000));
+        assertEquals(List.of(1, 2), userIds());
+    }
+
+    @Test
+    void skipsRowsTheDatabaseCommittedBeforeTheCheckpointWasLost() throws Exception {
+        long[] ends = spool(SPOOL_ID, score(1), score(1), score(1));
+        db.spoolOffsets.put(SPOOL_ID, ends[1]);
+
+        start();
+
+        assertTrue(writer.awaitFlushed(5000));
+        assertEquals(1, db.scores().size());
+        assertEquals(1, db.allTimeQuizzes(1));
+
+        // The caught-up spool starts over under a new id; the next batch removes the old row
+        writer.submit(score(1));
+        assertTrue(writer.awaitFlushed(5000));
+        assertNull(db.spoolOffset(SPOOL_ID));
+        assertEquals(2, db.allTimeQuizzes(1));
+    }
+
+    @Test
+    void deadLettersRowsThatCanNeverBeWritten() throws Exception {
+        db.rejectedUserId = 2;
+        start();
+        writer.submit(score(1));
+        writer.submit(score(2));
+        writer.submit(score(3));
+
+        assertTrue(writer.awaitFlushed(5000));
+        assertEquals(List.of(1, 3), userIds());
+        assertEquals(1, writer.getStats().getDeadLettered());
+        assertEquals(2, writer.getStats().getWritten());
+        String dead = new String(Files.readAllBytes(dir.resolve("scores.spool.dead")), StandardCharsets.UTF_8);
+        assertTrue(dead.contains("SQLState 23503"));
+        assertTrue(dead.contains(score(2).toSpoolLine() + "\n"));
+    }
+
+    @Test
+    void writesEverythingOnceAfterAnOutage() throws Exception {
+        db.down = new SQLException("Connection refused", "08001");
+        start();
+        for (int i = 1; i <= 5; i++) {
+            writer.submit(score(i));
+        }
+        awaitReplaying(true);
+        assertFalse(writer.awaitFlushed(100));
+
+        db.down = null;
+
+        assertTrue(writer.awaitFlushed(10_000));
+        assertEquals(List.of(1, 2, 3, 4, 5), userIds());
+        // Replay mode ends on the flusher's next pass after the last batch commits
+        awaitReplaying(false);
+    }
+
+    @Test
+    void onlyDataAndConstraintErrorsArePermanent() {
+        assertTrue(ScoreWriter.isPermanent(new SQLException("value too long", "22001")));
+        assertTrue(ScoreWriter.isPermanent(new SQLException("foreign key", "23503")));
+        assertFalse(ScoreWriter.isPermanent(new SQLException("connection refused", "08001")));
+        assertFalse(ScoreWriter.isPermanent(new SQLException("serialization failure", "40001")));
+        assertFalse(ScoreWriter.isPermanent(new SQLException("no state")));
+
+        SQLException batch = new SQLException("Batch entry 0 was aborted", "08000");
+        batch.setNextException(new SQLException("foreign key", "23503"));
+        assertTrue(ScoreWriter.isPermanent(batch));
+    }
+
+    private void start() throws IOException {
+        writer = new ScoreWriter(db, dir, 100, 10, 20, ScoreWriter.BackpressurePolicy.BLOCK, 1000, false);
+    }
+
+    private void awaitReplaying(boolean replaying) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.getStats().isReplaying() != replaying && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(replaying, writer.getStats().isReplaying());
+    }
+
+    private static ScoreRecord score(int userId) {
+        return new ScoreRecord(userId, 3, 5, 1, "easy", 1_700_000_000_000L);
+    }
+
+    /** Writes a spool with the given id and records, returning the offset just past each record. */
+    private long[] spool(String id, ScoreRecord... records) throws IOException {
+        StringBuilder s = new StringBuilder("#spool ").append(id).append('\n');
+        long[] ends = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            s.append(records[i].toSpoolLine()).append('\n');
+            ends[i] = s.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        Files.write(dir.resolve("scores.spool"), s.toString().getBytes(StandardCharsets.UTF_8));
+        return ends;
+    }
+
+    private List<String> spoolLines() throws IOException {
+        return Files.readAllLines(dir.resolve("scores.spool"), StandardCharsets.UTF_8);
+    }
+
+    private List<Integer> userIds() {
+        return db.scores().stream().map(row -> (Integer) row[0]).sorted().collect(Collectors.toList());
+    }
+}
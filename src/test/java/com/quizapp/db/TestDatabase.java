@@ -0,0 +1,80 @@
+package com.quizapp.db;
+
+import com.quizapp.AppConfig;
+import org.junit.jupiter.api.Assumptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Connections to the PostgreSQL database named by db.url, db.user and db.pass for integration tests.
+ * Tests using it are skipped, not failed, when the database cannot be reached.
+ */
+final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    static String url() {
+        return AppConfig.get("db.url", "jdbc:postgresql://localhost:5432/quiz_db");
+    }
+
+    static String user() {
+        return AppConfig.get("db.user", "postgres");
+    }
+
+    static String password() {
+        return AppConfig.get("db.pass", "password");
+    }
+
+    /**
+     * Opens a connection, or aborts the calling test if the database is unreachable.
+     */
+    static Connection connect() {
+        Properties props = new Properties();
+        props.setProperty("user", user());
+        props.setProperty("password", password());
+        props.setProperty("connectTimeout", "5");
+        try {
+            return DriverManager.getConnection(url(), props);
+        } catch (SQLException e) {
+            Assumptions.abort("No database at " + url() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates the base tables from resources/setup.sql if this is an empty database.
+     * An existing schema is left alone; Migrations brings it up to date.
+     */
+    static void ensureBaseSchema(Connection c) throws SQLException, IOException {
+        try (Statement s = c.createStatement(); ResultSet r = s.executeQuery("SELECT to_regclass('users') IS NOT NULL")) {
+            r.next();
+            if (r.getBoolean(1)) return;
+        }
+        Path setup = Paths.get("resources", "setup.sql");
+        try (Statement s = c.createStatement()) {
+            s.execute(new String(Files.readAllBytes(setup), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Points the JDBC store at a scratch directory and turns off what a test does not need,
+     * before {@link Repository} is first used in this JVM.
+     */
+    static void configureStore(Path scratch) {
+        System.setProperty("storage.engine", "jdbc");
+        System.setProperty("scores.spoolDir", scratch.toString());
+        System.setProperty("offline.enabled", "false");
+        System.setProperty("metrics.jmx", "false");
+    }
+}
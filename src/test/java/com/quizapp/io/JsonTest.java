@@ -0,0 +1,58 @@
+package com.quizapp.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTest {
+
+    @Test
+    void parsesNestedValues() {
+        Object value = Json.parse(" {\"a\": [1, -2.5e1, true, false, null], \"b\": {}, \"c\": [], \"d\": \"x\"} ");
+
+        Map<?, ?> map = (Map<?, ?>) value;
+        assertEquals(List.of("a", "b", "c", "d"), List.copyOf(map.keySet()));
+        assertEquals(Arrays.asList(1.0, -25.0, true, false, null), map.get("a"));
+        assertEquals(Map.of(), map.get("b"));
+        assertEquals(List.of(), map.get("c"));
+        assertEquals("x", map.get("d"));
+    }
+
+    @Test
+    void parsesScalarDocuments() {
+        assertEquals(42.0, Json.parse("42"));
+        assertEquals(Boolean.TRUE, Json.parse("true"));
+        assertNull(Json.parse("null"));
+        assertEquals("", Json.parse("\"\""));
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("quote \" backslash \\ slash / \b\f\n\r\t é\u0001",
+                Json.parse("\"quote \\\" backslash \\\\ slash \\/ \\b\\f\\n\\r\\t \\u00e9\\u0001\""));
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        for (String bad : new String[] {"", "{", "[1,]", "{\"a\" 1}", "{a: 1}", "\"open", "\"\\x\"", "\"\\u12\"",
+                "\"\\uzzzz\"", "tru", "1 2", "{} x", "--1", "[1 2]"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(bad), bad);
+        }
+    }
+
+    @Test
+    void quotedStringsParseBackUnchanged() {
+        String text = "Say \"hi\"\\ \n\r\t and \u0007 or é";
+        StringBuilder out = new StringBuilder();
+        Json.quote(out, text);
+
+        assertEquals("\"Say \\\"hi\\\"\\\\ \\n\\r\\t and \\u0007 or é\"", out.toString());
+        assertEquals(text, Json.parse(out.toString()));
+    }
+}
@@ -0,0 +1,122 @@
+package com.quizapp.io;
+
+import com.quizapp.model.Option;
+import com.quizapp.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuestionRecordsTest {
+
+    // --- NDJSON ---
+
+    @Test
+    void readsAQuestionFromJson() {
+        Question q = QuestionRecords.fromJson(QuestionRecords.jsonObject(
+                "{\"question\":\" What is 2+2? \",\"category\":\" Maths \",\"difficulty\":\"Easy\","
+                        + "\"options\":[{\"text\":\"3\"},{\"text\":\" 4 \",\"correct\":true},{\"text\":\"5\",\"correct\":false}]}"));
+
+        assertEquals("What is 2+2?", q.getText());
+        assertEquals("Maths", q.getCategory());
+        assertEquals("easy", q.getDifficulty());
+        assertEquals(List.of("3=false", "4=true", "5=false"), options(q));
+    }
+
+    @Test
+    void recognisesCategoryOnlyRecords() {
+        assertEquals("History", QuestionRecords.categoryOnly(QuestionRecords.jsonObject("{\"category\":\" History \"}")));
+        assertNull(QuestionRecords.categoryOnly(QuestionRecords.jsonObject("{\"category\":\"History\",\"question\":\"Q\"}")));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.categoryOnly(QuestionRecords.jsonObject("{\"category\":\" \"}")));
+    }
+
+    @Test
+    void rejectsBadJsonRecords() {
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.jsonObject("[1]"));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.fromJson(QuestionRecords.jsonObject(
+                "{\"question\":\"Q\",\"category\":\"C\",\"options\":\"a,b\"}")));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.fromJson(QuestionRecords.jsonObject(
+                "{\"question\":\"Q\",\"category\":\"C\",\"options\":[\"a\",\"b\"]}")));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.fromJson(QuestionRecords.jsonObject(
+                "{\"question\":1,\"category\":\"C\",\"options\":[{\"text\":\"a\",\"correct\":true},{\"text\":\"b\"}]}")));
+    }
+
+    // --- CSV ---
+
+    @Test
+    void splitsQuotedCsvFields() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", "two\nlines", ""),
+                QuestionRecords.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\",\"two\nlines\","));
+        assertEquals(List.of(""), QuestionRecords.splitCsv(""));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.splitCsv("a,\"open"));
+    }
+
+    @Test
+    void readsAQuestionFromCsv() {
+        QuestionRecords.CsvLayout layout = QuestionRecords.CsvLayout.fromHeader("Question,Option1,Option2,Option3,Correct,Category,Difficulty");
+
+        Question q = QuestionRecords.fromCsv("\"Capital of France, today?\",Paris,Lyon,,1,Geography,HARD", layout);
+        assertEquals("Capital of France, today?", q.getText());
+        assertEquals("Geography", q.getCategory());
+        assertEquals("hard", q.getDifficulty());
+        assertEquals(List.of("Paris=true", "Lyon=false"), options(q));
+
+        // A skipped empty option column does not shift the correct option's number
+        q = QuestionRecords.fromCsv("Q,A,,C,3,Cat,", layout);
+        assertEquals(List.of("A=false", "C=true"), options(q));
+        assertEquals("medium", q.getDifficulty());
+    }
+
+    @Test
+    void difficultyColumnIsOptional() {
+        QuestionRecords.CsvLayout layout = QuestionRecords.CsvLayout.fromHeader("question,category,correct,option a,option b");
+
+        assertEquals("medium", QuestionRecords.fromCsv("Q,C,2,x,y", layout).getDifficulty());
+    }
+
+    @Test
+    void rejectsIncompleteHeaders() {
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.CsvLayout.fromHeader("question,category,correct,option1"));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.CsvLayout.fromHeader("question,correct,option1,option2"));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.CsvLayout.fromHeader("category,correct,option1,option2"));
+    }
+
+    @Test
+    void rejectsANonNumericCorrectColumn() {
+        QuestionRecords.CsvLayout layout = QuestionRecords.CsvLayout.fromHeader("question,category,correct,option1,option2");
+
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.fromCsv("Q,C,first,x,y", layout));
+    }
+
+    // --- Validation ---
+
+    @Test
+    void validatesRecords() {
+        List<Option> two = List.of(new Option("a", true), new Option("b", false));
+
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.build(" ", "C", null, two));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.build("Q", null, null, two));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.build("Q", "C", "impossible", two));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.build("Q", "C", null, List.of(new Option("a", true))));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.build("Q", "C", null,
+                List.of(new Option("a", false), new Option("b", false))));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.build("Q", "C", null,
+                List.of(new Option("a", true), new Option("b", true))));
+        assertThrows(IllegalArgumentException.class, () -> QuestionRecords.build("Q", "C", null,
+                List.of(new Option("a", true), new Option(" ", false))));
+
+        Question q = QuestionRecords.build(" Q ", " C ", " Medium ", two);
+        assertEquals("Q", q.getText());
+        assertEquals("C", q.getCategory());
+        assertEquals("medium", q.getDifficulty());
+        assertEquals(0, q.getId());
+    }
+
+    private static List<String> options(Question q) {
+        return q.getOptions().stream().map(o -> o.getText() + "=" + o.isCorrect()).collect(Collectors.toList());
+    }
+}